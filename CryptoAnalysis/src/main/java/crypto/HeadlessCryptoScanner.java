@@ -22,8 +22,13 @@ import crypto.analysis.CryptoScannerSettings;
 import crypto.analysis.CryptoScannerSettings.ControlGraph;
 import crypto.analysis.CryptoScannerSettings.ReportFormat;
 import crypto.analysis.IAnalysisSeed;
+import crypto.analysis.ScanCheckpointer;
+import crypto.analysis.SeedBudget;
+import crypto.analysis.SynchronizedICFG;
+import crypto.boomerang.AnalysisTier;
 import crypto.exceptions.CryptoAnalysisException;
 import crypto.exceptions.CryptoAnalysisParserException;
+import crypto.preanalysis.CallGraphCache;
 import crypto.preanalysis.ExceptionAwareTransformer;
 import crypto.preanalysis.SeedFactory;
 import crypto.providerdetection.ProviderDetection;
@@ -35,14 +40,13 @@ import crypto.reporting.TXTReporter;
 import crypto.rules.CrySLRule;
 import crypto.rules.CrySLRuleReader;
 import ideal.IDEALSeedSolver;
-import soot.Body;
-import soot.BodyTransformer;
 import soot.EntryPoints;
 import soot.G;
 import soot.PackManager;
 import soot.PhaseOptions;
 import soot.Scene;
 import soot.SceneTransformer;
+import soot.SootClass;
 import soot.SootMethod;
 import soot.Transform;
 import soot.Transformer;
@@ -54,6 +58,7 @@ public abstract class HeadlessCryptoScanner {
 	
 	private static CryptoScannerSettings settings = new CryptoScannerSettings();
 	private boolean hasSeeds;
+	private long deadline = Long.MAX_VALUE;
 	private static Stopwatch callGraphWatch;
 	private static List<CrySLRule> rules = Lists.newArrayList();
 	private static String rulesetRootPath;
@@ -110,26 +115,43 @@ public abstract class HeadlessCryptoScanner {
 
 	public void exec() {
 		Stopwatch stopwatch = Stopwatch.createStarted();
+		deadline = timeout() > 0 ? System.currentTimeMillis() + timeout() : Long.MAX_VALUE;
+		// With a reused scene, the pre-analysis already loads the classes for the whole-program analysis.
+		boolean sceneLoaded = false;
 		if(isPreAnalysis()){
 			try {
-				initializeSootWithEntryPointAllReachable(false);
+				initializeSootWithEntryPointAllReachable(reuseScene());
+				sceneLoaded = reuseScene();
 			} catch (CryptoAnalysisException e) {
 				LOGGER.error("Error happened when executing HeadlessCryptoScanner.", e);
 			}
 			LOGGER.info("Pre-Analysis soot setup done in {} ", stopwatch);
-			checkIfUsesObject();
+			checkIfUsesObject(sceneLoaded);
 			LOGGER.info("Pre-Analysis  finished in {}", stopwatch);
 		}
 		if (!isPreAnalysis() || hasSeeds()) {
 			LOGGER.info("Using call graph algorithm {}", callGraphAlgorithm());
-			try {
-				initializeSootWithEntryPointAllReachable(true);
-			} catch (CryptoAnalysisException e) {
-				LOGGER.error("Error happened when executing HeadlessCryptoScanner.", e);
+			if (!sceneLoaded) {
+				try {
+					initializeSootWithEntryPointAllReachable(true);
+				} catch (CryptoAnalysisException e) {
+					LOGGER.error("Error happened when executing HeadlessCryptoScanner.", e);
+				}
+			}
+			CallGraphCache callGraphCache = callGraphCacheDirectory() == null ? null
+					: CallGraphCache.create(callGraphCacheDirectory(), applicationClassPath(), sootClassPath(), callGraphAlgorithm(), rules);
+			boolean cachedCallGraph = callGraphCache != null && callGraphCache.exists();
+			if (cachedCallGraph) {
+				// The call graph is restored once the bodies are transformed, such that the call sites match.
+				PhaseOptions.v().setPhaseOption("cg", "enabled:false");
 			}
 			ExceptionAwareTransformer.setup(rules);
+			if (cachedCallGraph) {
+				PhaseOptions.v().setPhaseOption("cg", "enabled:true");
+				cachedCallGraph = callGraphCache.load();
+			}
 			LOGGER.info("Analysis soot setup done in {} ", stopwatch);
-			analyse();
+			analyse(cachedCallGraph, callGraphCache);
 			LOGGER.info("Analysis finished in {}", stopwatch);
 		}
 	}
@@ -138,28 +160,44 @@ public abstract class HeadlessCryptoScanner {
 		return hasSeeds;
 	}
 	
-	private void checkIfUsesObject() {
+	/**
+	 * @param wholeProgram <code>true</code> if the scene was set up for the main analysis. In this case, the
+	 *                     packs are not run, as this would already construct the call graph. Instead, only
+	 *                     the bodies of the application methods are built, which the main analysis reuses.
+	 */
+	private void checkIfUsesObject(boolean wholeProgram) {
 		final SeedFactory seedFactory = new SeedFactory(HeadlessCryptoScanner.rules);
-		PackManager.v().getPack("jap").add(new Transform("jap.myTransform", new BodyTransformer() {
-			protected void internalTransform(Body body, String phase, Map options) {
-				if (!body.getMethod().getDeclaringClass().isApplicationClass()) {
-					return;
+		if (!wholeProgram) {
+			PhaseOptions.v().setPhaseOption("jap.npc", "on");
+			PackManager.v().runPacks();
+		}
+		// The bodies are not modified anymore, hence, they are scanned for seeds outside of Soot's packs,
+		// which may run body transformers concurrently and in no particular order.
+		List<SootMethod> methods = Lists.newArrayList();
+		for (SootClass sootClass : Scene.v().getApplicationClasses()) {
+			for (SootMethod method : sootClass.getMethods()) {
+				if (wholeProgram && method.isConcrete()) {
+					method.retrieveActiveBody();
 				}
-				for (Unit u : body.getUnits()) {
-					seedFactory.generate(body.getMethod(), u);
+				if (method.hasActiveBody()) {
+					methods.add(method);
 				}
 			}
-		}));
-		PhaseOptions.v().setPhaseOption("jap.npc", "on");
-		PackManager.v().runPacks();
+		}
+		seedFactory.generate(methods, numberOfThreads());
 		hasSeeds = seedFactory.hasSeeds();
 	}
 
-	private void analyse() {
+	private void analyse(boolean cachedCallGraph, CallGraphCache callGraphCache) {
 		Transform transform = new Transform("wjtp.ifds", createAnalysisTransformer());
 		PackManager.v().getPack("wjtp").add(transform);
 		callGraphWatch = Stopwatch.createStarted();        
-		PackManager.v().getPack("cg").apply();
+		if (!cachedCallGraph) {
+			PackManager.v().getPack("cg").apply();
+			if (callGraphCache != null) {
+				callGraphCache.store();
+			}
+		}
         PackManager.v().getPack("wjtp").apply();
 	}
 	
@@ -179,6 +217,7 @@ public abstract class HeadlessCryptoScanner {
 				BoomerangPretransformer.v().reset();
 				BoomerangPretransformer.v().apply();
 				ObservableDynamicICFG observableDynamicICFG = new ObservableDynamicICFG(false);
+				ObservableICFG<Unit, SootMethod> icfg = numberOfThreads() > 1 ? SynchronizedICFG.of(observableDynamicICFG) : observableDynamicICFG;
 				List<CrySLRule> rules = HeadlessCryptoScanner.rules;
 				ErrorMarkerListener fileReporter;
 				if(reportFormat()!= null) {
@@ -203,13 +242,73 @@ public abstract class HeadlessCryptoScanner {
 
 					@Override
 					public ObservableICFG<Unit, SootMethod> icfg() {
-						return observableDynamicICFG;
+						return icfg;
 					}
 
 					@Override
 					public CrySLResultsReporter getAnalysisListener() {
 						return reporter;
 					}
+
+					@Override
+					protected int numberOfThreads() {
+						return HeadlessCryptoScanner.this.numberOfThreads();
+					}
+
+					@Override
+					protected boolean dependencyScheduling() {
+						return HeadlessCryptoScanner.this.dependencyScheduling();
+					}
+
+					@Override
+					protected SeedBudget seedBudget() {
+						return HeadlessCryptoScanner.this.seedBudget();
+					}
+
+					@Override
+					protected long deadline() {
+						return HeadlessCryptoScanner.this.deadline;
+					}
+
+					@Override
+					protected File checkpointDirectory() {
+						return HeadlessCryptoScanner.this.checkpointDirectory();
+					}
+
+					@Override
+					protected long checkpointInterval() {
+						return HeadlessCryptoScanner.this.checkpointInterval();
+					}
+
+					@Override
+					protected boolean resumeFromCheckpoint() {
+						return HeadlessCryptoScanner.this.resumeFromCheckpoint();
+					}
+
+					@Override
+					protected boolean incrementalScan() {
+						return HeadlessCryptoScanner.this.incrementalScan();
+					}
+
+					@Override
+					protected String applicationFingerprint() {
+						return CallGraphCache.fingerprint(checkpointDirectory(), applicationClassPath(), sootClassPath(), rules);
+					}
+
+					@Override
+					protected String environmentFingerprint() {
+						return CallGraphCache.environmentFingerprint(checkpointDirectory(), applicationClassPath(), sootClassPath(), rules);
+					}
+
+					@Override
+					protected boolean batchBackwardQueries() {
+						return HeadlessCryptoScanner.this.batchBackwardQueries();
+					}
+
+					@Override
+					protected AnalysisTier analysisTier() {
+						return HeadlessCryptoScanner.this.analysisTier();
+					}
 					
 					@Override
 					public Debugger<TransitionFunction> debugger(IDEALSeedSolver<TransitionFunction> solver, IAnalysisSeed seed) {
@@ -377,6 +476,57 @@ public abstract class HeadlessCryptoScanner {
 		return settings.isProviderDetectionAnalysis();
 	}
 	
+	protected boolean reuseScene() {
+		return settings.isReuseScene();
+	}
+	
+	protected int numberOfThreads() {
+		return settings.getNumberOfThreads();
+	}
+	
+	protected boolean dependencyScheduling() {
+		return settings.isDependencyScheduling();
+	}
+	
+	protected long timeout() {
+		return settings.getTimeout();
+	}
+	
+	protected SeedBudget seedBudget() {
+		return new SeedBudget(settings.getSeedTimeout(), settings.getSeedPropagationLimit(), settings.getSeedHeapLimit());
+	}
+	
+	protected File checkpointDirectory() {
+		return settings.getCheckpointDirectory() == null ? null : new File(settings.getCheckpointDirectory());
+	}
+	
+	protected long checkpointInterval() {
+		return ScanCheckpointer.CHECKPOINT_INTERVAL_MS;
+	}
+	
+	protected boolean resumeFromCheckpoint() {
+		return settings.isResume();
+	}
+	
+	protected boolean incrementalScan() {
+		return settings.isIncremental();
+	}
+	
+	protected boolean batchBackwardQueries() {
+		return settings.isBatchQueries();
+	}
+	
+	protected AnalysisTier analysisTier() {
+		return settings.getAnalysisTier();
+	}
+	
+	/**
+	 * @return the directory of the call graph cache or <code>null</code> to always construct the call graph
+	 */
+	protected File callGraphCacheDirectory() {
+		return settings.getCallGraphCacheDirectory() == null ? null : new File(settings.getCallGraphCacheDirectory());
+	}
+	
 	private static String pathToJCE() {
 		// When whole program mode is disabled, the classpath misses jce.jar
 		return System.getProperty("java.home") + File.separator + "lib" + File.separator + "jce.jar";
@@ -2,7 +2,6 @@ package crypto.analysis;
 
 import java.util.Set;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table.Cell;
 
@@ -11,9 +10,6 @@ import boomerang.debugger.Debugger;
 import boomerang.jimple.Statement;
 import boomerang.jimple.Val;
 import boomerang.results.ForwardBoomerangResults;
-import crypto.rules.StateMachineGraph;
-import crypto.rules.StateNode;
-import crypto.rules.TransitionEdge;
 import crypto.typestate.ExtendedIDEALAnaylsis;
 import crypto.typestate.SootBasedStateMachineGraph;
 import ideal.IDEALSeedSolver;
@@ -21,12 +17,12 @@ import soot.SootMethod;
 import soot.Unit;
 import sync.pds.solver.nodes.Node;
 import typestate.TransitionFunction;
+import typestate.finiteautomata.State;
 
 public class AnalysisSeedWithEnsuredPredicate extends IAnalysisSeed{
 
-	private ForwardBoomerangResults<TransitionFunction> analysisResults;
+	private SeedResultSummary analysisResults;
 	private Set<EnsuredCrySLPredicate> ensuredPredicates = Sets.newHashSet();
-	private ExtendedIDEALAnaylsis problem;
 	private boolean analyzed;
 
 	public AnalysisSeedWithEnsuredPredicate(CryptoScanner cryptoScanner, Node<Statement,Val> delegate) {
@@ -36,27 +32,33 @@ public class AnalysisSeedWithEnsuredPredicate extends IAnalysisSeed{
 	@Override
 	public void execute() {
 		cryptoScanner.getAnalysisListener().seedStarted(this);
+		SeedBudget budget = cryptoScanner.budgetForSeed();
+		budget.start();
 		ExtendedIDEALAnaylsis solver = getOrCreateAnalysis();
-		solver.run(this);
-		analysisResults = solver.getResults();
-		for(EnsuredCrySLPredicate pred : ensuredPredicates)
-			ensurePredicates(pred);
-		cryptoScanner.getAnalysisListener().onSeedFinished(this, analysisResults);
-		analyzed = true;
+		solver.run(this, budget);
+		synchronized (cryptoScanner) {
+			ForwardBoomerangResults<TransitionFunction> results = solver.getResults();
+			if (results != null)
+				analysisResults = new SeedResultSummary(results);
+			for(EnsuredCrySLPredicate pred : ensuredPredicates)
+				ensurePredicates(pred);
+			cryptoScanner.getAnalysisListener().onSeedFinished(this, results);
+			analyzed = true;
+		}
 	}
 
 	protected void ensurePredicates(EnsuredCrySLPredicate pred) {
 		if(analysisResults == null)
 			return;
 
-		for(Cell<Statement, Val, TransitionFunction> c : analysisResults.asStatementValWeightTable().cellSet()){
+		for(Cell<Statement, Val, Set<State>> c : analysisResults.cellSet()){
 			predicateHandler.addNewPred(this,c.getRowKey(), c.getColumnKey(), pred);
 		}
 	}
 
 
 	private ExtendedIDEALAnaylsis getOrCreateAnalysis() {
-		problem = new ExtendedIDEALAnaylsis() {
+		return new ExtendedIDEALAnaylsis() {
 			
 			@Override
 			protected ObservableICFG<Unit, SootMethod> icfg() {
@@ -65,16 +67,7 @@ public class AnalysisSeedWithEnsuredPredicate extends IAnalysisSeed{
 			
 			@Override
 			public SootBasedStateMachineGraph getStateMachine() {
-				StateMachineGraph m = new StateMachineGraph();
-				StateNode s = new StateNode("0", true, true){
-					@Override
-					public String toString() {
-						return "";
-					}
-				};
-				m.addNode(s);
-				m.createNewEdge(Lists.newLinkedList(), s,s);
-				return new SootBasedStateMachineGraph(m);
+				return SootBasedStateMachineGraph.trackingOnly();
 			}
 			
 			@Override
@@ -88,12 +81,13 @@ public class AnalysisSeedWithEnsuredPredicate extends IAnalysisSeed{
 				return cryptoScanner.debugger(solver,AnalysisSeedWithEnsuredPredicate.this);
 			}
 		};
-		return problem;
 	}
 
 	public void addEnsuredPredicate(EnsuredCrySLPredicate pred) {
-		if(ensuredPredicates.add(pred) && analyzed)
-			ensurePredicates(pred);
+		synchronized (cryptoScanner) {
+			if(ensuredPredicates.add(pred) && analyzed)
+				ensurePredicates(pred);
+		}
 	}
 
 
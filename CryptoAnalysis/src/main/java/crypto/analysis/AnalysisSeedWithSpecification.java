@@ -10,6 +10,9 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -28,6 +31,8 @@ import crypto.analysis.errors.IncompleteOperationError;
 import crypto.analysis.errors.TypestateError;
 import crypto.constraints.ConstraintSolver;
 import crypto.constraints.EvaluableConstraint;
+import crypto.exceptions.ScanDeadlineExceededException;
+import crypto.exceptions.SeedBudgetExceededException;
 import crypto.extractparameter.CallSiteWithParamIndex;
 import crypto.extractparameter.ExtractParameterAnalysis;
 import crypto.extractparameter.ExtractedValue;
@@ -68,9 +73,11 @@ import typestate.finiteautomata.State;
 
 public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(AnalysisSeedWithSpecification.class);
+
 	private final ClassSpecification spec;
 	private ExtendedIDEALAnaylsis analysis;
-	private ForwardBoomerangResults<TransitionFunction> results;
+	private SeedResultSummary results;
 	private Collection<EnsuredCrySLPredicate> ensuredPredicates = Sets.newHashSet();
 	private Multimap<Statement, State> typeStateChange = HashMultimap.create();
 	private Collection<EnsuredCrySLPredicate> indirectlyEnsuredPredicates = Sets.newHashSet();
@@ -116,71 +123,125 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 
 	public void execute() {
 		cryptoScanner.getAnalysisListener().seedStarted(this);
-		runTypestateAnalysis();
-		if (results == null)
+		SeedBudget budget = cryptoScanner.budgetForSeed();
+		budget.start();
+		ForwardBoomerangResults<TransitionFunction> typestateResults = runTypestateAnalysis(budget);
+		if (typestateResults == null)
 			// Timeout occured.
 			return;
-		allCallsOnObject = results.getInvokedMethodOnInstance();
-		runExtractParameterAnalysis();
-		checkInternalConstraints();
+		Map<Statement, SootMethod> invokedMethods = typestateResults.getInvokedMethodOnInstance();
+		ExtractParameterAnalysis extractParameterAnalysis;
+		try {
+			extractParameterAnalysis = runExtractParameterAnalysis(invokedMethods, budget);
+		} catch (ScanDeadlineExceededException e) {
+			throw e;
+		} catch (SeedBudgetExceededException e) {
+			LOGGER.warn("Abandoned " + this + ": " + e.getMessage());
+			cryptoScanner.getAnalysisListener().onSeedTimeout(asNode());
+			return;
+		}
 
-		Multimap<Statement, State> unitToStates = HashMultimap.create();
-		for (Cell<Statement, Val, TransitionFunction> c : results.asStatementValWeightTable().cellSet()) {
-			unitToStates.putAll(c.getRowKey(), getTargetStates(c.getValue()));
-			for (EnsuredCrySLPredicate pred : indirectlyEnsuredPredicates) {
-				// TODO only maintain indirectly ensured predicate as long as they are not
-				// killed by the rule
-				predicateHandler.addNewPred(this, c.getRowKey(), c.getColumnKey(), pred);
+		// The typestate and parameter analyses only operate on this seed and may run concurrently to
+		// the analysis of other seeds. All remaining steps read or modify state shared between seeds.
+		synchronized (cryptoScanner) {
+			publishResults(new SeedResultSummary(typestateResults));
+			allCallsOnObject = invokedMethods;
+			parameterAnalysis = extractParameterAnalysis;
+			checkInternalConstraints();
+
+			Multimap<Statement, State> unitToStates = HashMultimap.create();
+			for (Cell<Statement, Val, Set<State>> c : results.cellSet()) {
+				unitToStates.putAll(c.getRowKey(), c.getValue());
+				for (EnsuredCrySLPredicate pred : indirectlyEnsuredPredicates) {
+					// TODO only maintain indirectly ensured predicate as long as they are not
+					// killed by the rule
+					predicateHandler.addNewPred(this, c.getRowKey(), c.getColumnKey(), pred);
+				}
 			}
-		}
 
-		computeTypestateErrorUnits();
-		computeTypestateErrorsForEndOfObjectLifeTime();
+			computeTypestateErrorUnits(typestateResults);
+			computeTypestateErrorsForEndOfObjectLifeTime(typestateResults);
 
-		cryptoScanner.getAnalysisListener().onSeedFinished(this, results);
-		cryptoScanner.getAnalysisListener().collectedValues(this, parameterAnalysis.getCollectedValues());
+			cryptoScanner.getAnalysisListener().onSeedFinished(this, typestateResults);
+			cryptoScanner.getAnalysisListener().collectedValues(this, parameterAnalysis.getCollectedValues());
+			parameterAnalysis.compact();
+		}
 	}
 
 	private void checkInternalConstraints() {
 		cryptoScanner.getAnalysisListener().beforeConstraintCheck(this);
-		constraintSolver = new ConstraintSolver(this, allCallsOnObject.keySet(), cryptoScanner.getAnalysisListener());
+		constraintSolver = new ConstraintSolver(this, allCallsOnObject.keySet(), cryptoScanner);
 		cryptoScanner.getAnalysisListener().checkedConstraints(this, constraintSolver.getRelConstraints());
 		internalConstraintSatisfied = (0 == constraintSolver.evaluateRelConstraints());
 		cryptoScanner.getAnalysisListener().afterConstraintCheck(this);
 	}
 
-	private void runTypestateAnalysis() {
-		analysis.run(this);
-		results = analysis.getResults();
-		if (results != null) {
-			for (ResultsHandler handler : Lists.newArrayList(resultHandlers)) {
-				handler.done(results);
+	private ForwardBoomerangResults<TransitionFunction> runTypestateAnalysis(SeedBudget budget) {
+		analysis.run(this, budget);
+		ForwardBoomerangResults<TransitionFunction> typestateResults = analysis.getResults();
+		// The analysis keeps its solvers and results, which are only needed until the seed is done.
+		analysis = null;
+		return typestateResults;
+	}
+
+	/**
+	 * Replaces the full typestate results by the {@link SeedResultSummary} that is consulted once the seed is
+	 * done. The full results are only used by the remaining steps of {@link #execute()}.
+	 */
+	private void publishResults(SeedResultSummary summary) {
+		results = summary;
+		for (ResultsHandler handler : Lists.newArrayList(resultHandlers)) {
+			handler.done(results);
+		}
+	}
+
+	/**
+	 * Restores the results of a seed that was analyzed by an earlier scan instead of analyzing it, such that
+	 * the predicates that other seeds ensure on the object are propagated to the statements it reaches.
+	 */
+	void restoreResults(SeedResultSummary summary) {
+		synchronized (cryptoScanner) {
+			publishResults(summary);
+			for (Cell<Statement, Val, Set<State>> c : results.cellSet()) {
+				for (EnsuredCrySLPredicate pred : indirectlyEnsuredPredicates) {
+					predicateHandler.addNewPred(this, c.getRowKey(), c.getColumnKey(), pred);
+				}
 			}
 		}
 	}
 
+	/**
+	 * @return the results of the seed or <code>null</code> if it has not been analyzed yet
+	 */
+	SeedResultSummary getResults() {
+		return results;
+	}
+
 	public void registerResultsHandler(ResultsHandler handler) {
-		if (results != null) {
-			handler.done(results);
-		} else {
-			resultHandlers.add(handler);
+		synchronized (cryptoScanner) {
+			if (results != null) {
+				handler.done(results);
+			} else {
+				resultHandlers.add(handler);
+			}
 		}
 	}
 
-	private void runExtractParameterAnalysis() {
-		this.parameterAnalysis = new ExtractParameterAnalysis(this.cryptoScanner, allCallsOnObject, spec.getFSM());
-		this.parameterAnalysis.run();
+	private ExtractParameterAnalysis runExtractParameterAnalysis(Map<Statement, SootMethod> invokedMethods, SeedBudget budget) {
+		ExtractParameterAnalysis extractParameterAnalysis = new ExtractParameterAnalysis(this.cryptoScanner, invokedMethods, spec.getFSM());
+		extractParameterAnalysis.run(budget);
+		return extractParameterAnalysis;
 	}
 
-	private void computeTypestateErrorUnits() {
+	private void computeTypestateErrorUnits(ForwardBoomerangResults<TransitionFunction> typestateResults) {
 		Set<Statement> allTypestateChangeStatements = Sets.newHashSet();
-		for (Cell<Statement, Val, TransitionFunction> c : results.asStatementValWeightTable().cellSet()) {
+		for (Cell<Statement, Val, TransitionFunction> c : typestateResults.asStatementValWeightTable().cellSet()) {
 			allTypestateChangeStatements.addAll(c.getValue().getLastStateChangeStatements());
 		}
-		for (Cell<Statement, Val, TransitionFunction> c : results.asStatementValWeightTable().cellSet()) {
+		for (Cell<Statement, Val, Set<State>> c : results.cellSet()) {
 			Statement curr = c.getRowKey();
 			if (allTypestateChangeStatements.contains(curr)) {
-				Collection<? extends State> targetStates = getTargetStates(c.getValue());
+				Collection<? extends State> targetStates = c.getValue();
 				for (State newStateAtCurr : targetStates) {
 					typeStateChangeAtStatement(curr, newStateAtCurr);
 				}
@@ -189,8 +250,8 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		}
 	}
 
-	private void computeTypestateErrorsForEndOfObjectLifeTime() {
-		Table<Statement, Val, TransitionFunction> endPathOfPropagation = results.getObjectDestructingStatements();
+	private void computeTypestateErrorsForEndOfObjectLifeTime(ForwardBoomerangResults<TransitionFunction> typestateResults) {
+		Table<Statement, Val, TransitionFunction> endPathOfPropagation = typestateResults.getObjectDestructingStatements();
 
 		for (Cell<Statement, Val, TransitionFunction> c : endPathOfPropagation.cellSet()) {
 			Set<SootMethod> expectedMethodsToBeCalled = Sets.newHashSet();
@@ -295,7 +356,16 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 	}
 
 	private void expectPredicateOnOtherObject(CrySLPredicate predToBeEnsured, Statement currStmt, Val accessGraph, boolean satisfiesConstraintSytem) {
+		EnsuredCrySLPredicate ensPred = new EnsuredCrySLPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues());
+		if (cryptoScanner.getCheckpointer() != null) {
+			cryptoScanner.getCheckpointer().predicateOnOtherObject(this, currStmt, accessGraph, ensPred, satisfiesConstraintSytem);
+		}
+		expectPredicateOnOtherObject(ensPred, currStmt, accessGraph, satisfiesConstraintSytem);
+	}
+
+	void expectPredicateOnOtherObject(EnsuredCrySLPredicate ensPred, Statement currStmt, Val accessGraph, boolean satisfiesConstraintSytem) {
 		// TODO refactor this method.
+		CrySLPredicate predToBeEnsured = ensPred.getPredicate();
 		boolean matched = false;
 		for (ClassSpecification spec : cryptoScanner.getClassSpecifictions()) {
 			if (accessGraph.value() == null) {
@@ -308,7 +378,7 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 					if (satisfiesConstraintSytem) {
 						AnalysisSeedWithSpecification seed = cryptoScanner.getOrCreateSeedWithSpec(new AnalysisSeedWithSpecification(cryptoScanner, currStmt, accessGraph, spec));
 						matched = true;
-						seed.addEnsuredPredicateFromOtherRule(new EnsuredCrySLPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues()));
+						seed.addEnsuredPredicateFromOtherRule(ensPred);
 					}
 				}
 			}
@@ -318,7 +388,7 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		AnalysisSeedWithEnsuredPredicate seed = cryptoScanner.getOrCreateSeed(new Node<Statement, Val>(currStmt, accessGraph));
 		predicateHandler.expectPredicate(seed, currStmt, predToBeEnsured);
 		if (satisfiesConstraintSytem) {
-			seed.addEnsuredPredicate(new EnsuredCrySLPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues()));
+			seed.addEnsuredPredicate(ensPred);
 		} else {
 			missingPredicates.add(new RequiredCrySLPredicate(predToBeEnsured, currStmt));
 		}
@@ -328,7 +398,7 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		indirectlyEnsuredPredicates.add(ensuredCrySLPredicate);
 		if (results == null)
 			return;
-		for (Cell<Statement, Val, TransitionFunction> c : results.asStatementValWeightTable().cellSet()) {
+		for (Cell<Statement, Val, Set<State>> c : results.cellSet()) {
 			for (EnsuredCrySLPredicate pred : indirectlyEnsuredPredicates) {
 				predicateHandler.addNewPred(this, c.getRowKey(), c.getColumnKey(), pred);
 			}
@@ -340,28 +410,15 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 
 		if (!satisfiesConstraintSytem)
 			return;
-		for (Cell<Statement, Val, TransitionFunction> e : results.asStatementValWeightTable().cellSet()) {
+		for (Cell<Statement, Val, Set<State>> e : results.cellSet()) {
 			// TODO check for any reachable state that don't kill
 			// predicates.
-			if (containsTargetState(e.getValue(), stateNode)) {
+			if (e.getValue().contains(stateNode)) {
 				predicateHandler.addNewPred(this, e.getRowKey(), e.getColumnKey(), new EnsuredCrySLPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues()));
 			}
 		}
 	}
 
-	private boolean containsTargetState(TransitionFunction value, State stateNode) {
-		return getTargetStates(value).contains(stateNode);
-	}
-
-	private Collection<? extends State> getTargetStates(TransitionFunction value) {
-		Set<State> res = Sets.newHashSet();
-		for (ITransition t : value.values()) {
-			if (t.to() != null)
-				res.add(t.to());
-		}
-		return res;
-	}
-
 	private boolean checkConstraintSystem() {
 		cryptoScanner.getAnalysisListener().beforePredicateCheck(this);
 		Set<ISLConstraint> relConstraints = constraintSolver.getRelConstraints();
@@ -372,7 +429,7 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		return internalConstraintSatisfied;
 	}
 
-	private boolean checkPredicates(Collection<ISLConstraint> relConstraints) {
+	private List<ISLConstraint> getRequiredPredicates() {
 		List<ISLConstraint> requiredPredicates = Lists.newArrayList();
 		for (ISLConstraint con : constraintSolver.getRequiredPredicates()) {
 			if (!ConstraintSolver.predefinedPreds.contains((con instanceof RequiredCrySLPredicate) ? ((RequiredCrySLPredicate) con).getPred().getPredName()
@@ -380,6 +437,19 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 				requiredPredicates.add(con);
 			}
 		}
+		return requiredPredicates;
+	}
+
+	/**
+	 * @return <code>true</code> if the constraints of the seed require predicates that other seeds ensure,
+	 *         i.e., if the predicates the seed ensures and misses depend on the analysis of other seeds
+	 */
+	boolean requiresPredicates() {
+		return constraintSolver != null && !getRequiredPredicates().isEmpty();
+	}
+
+	private boolean checkPredicates(Collection<ISLConstraint> relConstraints) {
+		List<ISLConstraint> requiredPredicates = getRequiredPredicates();
 		Set<ISLConstraint> remainingPredicates = Sets.newHashSet(requiredPredicates);
 		missingPredicates.removeAll(remainingPredicates);
 
@@ -477,14 +547,9 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 			} else if (pred.getInvolvedVarNames().contains(var)) {
 
 				final String parameterI = ensPred.getPredicate().getParameters().get(i).getName();
-				Collection<String> actVals = Collections.emptySet();
+				Collection<String> actVals = getParameterValues(ensPred, parameterI);
 				Collection<String> expVals = Collections.emptySet();
 
-				for (CallSiteWithParamIndex cswpi : ensPred.getParametersToValues().keySet()) {
-					if (cswpi.getVarName().equals(parameterI)) {
-						actVals = retrieveValueFromUnit(cswpi, ensPred.getParametersToValues().get(cswpi));
-					}
-				}
 				for (CallSiteWithParamIndex cswpi : parameterAnalysis.getCollectedValues().keySet()) {
 					if (cswpi.getVarName().equals(var)) {
 						expVals = retrieveValueFromUnit(cswpi, parameterAnalysis.getCollectedValues().get(cswpi));
@@ -514,7 +579,23 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		return pred.isNegated() != requiredPredicatesExist;
 	}
 
-	private Collection<String> retrieveValueFromUnit(CallSiteWithParamIndex cswpi, Collection<ExtractedValue> collection) {
+	/**
+	 * @return the constant values of the parameter <code>varName</code> that were extracted when the given predicate was ensured
+	 */
+	static Collection<String> getParameterValues(EnsuredCrySLPredicate ensPred, String varName) {
+		if (ensPred instanceof RestoredCrySLPredicate) {
+			return ((RestoredCrySLPredicate) ensPred).getParameterValues(varName);
+		}
+		Collection<String> values = Collections.emptySet();
+		for (CallSiteWithParamIndex cswpi : ensPred.getParametersToValues().keySet()) {
+			if (cswpi.getVarName().equals(varName)) {
+				values = retrieveValueFromUnit(cswpi, ensPred.getParametersToValues().get(cswpi));
+			}
+		}
+		return values;
+	}
+
+	private static Collection<String> retrieveValueFromUnit(CallSiteWithParamIndex cswpi, Collection<ExtractedValue> collection) {
 		Collection<String> values = new ArrayList<String>();
 		for (ExtractedValue q : collection) {
 			Unit u = q.stmt().getUnit().get();
@@ -547,7 +628,7 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		return values;
 	}
 
-	private String retrieveConstantFromValue(Value val) {
+	private static String retrieveConstantFromValue(Value val) {
 		if (val instanceof StringConstant) {
 			return ((StringConstant) val).value;
 		} else if (val instanceof IntConstant || val.getType() instanceof IntType) {
@@ -573,9 +654,11 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 	}
 
 	public void addEnsuredPredicate(EnsuredCrySLPredicate ensPred) {
-		if (ensuredPredicates.add(ensPred)) {
-			for (Entry<Statement, State> e : typeStateChange.entries())
-				onAddedTypestateChange(e.getKey(), e.getValue());
+		synchronized (cryptoScanner) {
+			if (ensuredPredicates.add(ensPred)) {
+				for (Entry<Statement, State> e : typeStateChange.entries())
+					onAddedTypestateChange(e.getKey(), e.getValue());
+			}
 		}
 	}
 
@@ -9,6 +9,7 @@ import boomerang.callgraph.ObservableICFG;
 import boomerang.debugger.Debugger;
 import boomerang.jimple.Statement;
 import crypto.analysis.errors.ForbiddenMethodError;
+import crypto.constraints.CompiledConstraints;
 import crypto.rules.CrySLForbiddenMethod;
 import crypto.rules.CrySLRule;
 import crypto.typestate.CrySLMethodToSootMethod;
@@ -26,11 +27,13 @@ public class ClassSpecification {
 	private CrySLRule crySLRule;
 	private final CryptoScanner cryptoScanner;
 	private final SootBasedStateMachineGraph fsm;
+	private final CompiledConstraints compiledConstraints;
 
 	public ClassSpecification(final CrySLRule rule, final CryptoScanner cScanner) {
 		this.crySLRule = rule;
 		this.cryptoScanner = cScanner;
 		this.fsm = new SootBasedStateMachineGraph(rule.getUsagePattern());
+		this.compiledConstraints = new CompiledConstraints(rule);
 		this.extendedIdealAnalysis = new ExtendedIDEALAnaylsis() {
 			@Override
 			public SootBasedStateMachineGraph getStateMachine() {
@@ -64,6 +67,13 @@ public class ClassSpecification {
 		return extendedIdealAnalysis.computeSeeds(m);
 	}
 
+	/**
+	 * @return the seeds created by the given statement of the method
+	 */
+	public Collection<WeightedForwardQuery<TransitionFunction>> getInitialSeeds(SootMethod m, Unit u) {
+		return extendedIdealAnalysis.computeSeeds(m, u);
+	}
+
 
 	@Override
 	public String toString() {
@@ -83,12 +93,20 @@ public class ClassSpecification {
 				SootMethod method = invokeExpr.getMethod();
 				Optional<CrySLForbiddenMethod> forbiddenMethod = isForbiddenMethod(method);
 				if (forbiddenMethod.isPresent()){
-					cryptoScanner.getAnalysisListener().reportError(null, new ForbiddenMethodError(new Statement((Stmt)u, cryptoScanner.icfg().getMethodOf(u)), this.getRule(), method, CrySLMethodToSootMethod.v().convert(forbiddenMethod.get().getAlternatives())));
+					reportForbiddenMethod(stmt, forbiddenMethod.get());
 				}
 			}
 		}
 	}
 
+	/**
+	 * Reports the call of the statement to the given forbidden method.
+	 */
+	public void reportForbiddenMethod(Stmt stmt, CrySLForbiddenMethod forbiddenMethod) {
+		SootMethod method = stmt.getInvokeExpr().getMethod();
+		cryptoScanner.getAnalysisListener().reportError(null, new ForbiddenMethodError(new Statement(stmt, cryptoScanner.icfg().getMethodOf(stmt)), this.getRule(), method, CrySLMethodToSootMethod.v().convert(forbiddenMethod.getAlternatives())));
+	}
+
 	private Optional<CrySLForbiddenMethod> isForbiddenMethod(SootMethod method) {
 		// TODO replace by real specification once available.
 		List<CrySLForbiddenMethod> forbiddenMethods = crySLRule.getForbiddenMethods();
@@ -110,6 +128,10 @@ public class ClassSpecification {
 		return crySLRule;
 	}
 
+	public CompiledConstraints getCompiledConstraints() {
+		return compiledConstraints;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -1,5 +1,16 @@
 package crypto.analysis;
 
+import java.util.Collection;
+
 public abstract class CrySLAnalysisListener implements ICrySLPerformanceListener, ICrySLResultsListener {
 	
+	/**
+	 * Called before {@link #afterAnalysis()} if the analysis stopped before all seeds were analyzed, e.g.,
+	 * because the deadline of the scan was reached. The results reported so far are partial.
+	 * 
+	 * @param unprocessedSeeds the seeds that were discovered but not analyzed
+	 */
+	public void onAnalysisIncomplete(Collection<IAnalysisSeed> unprocessedSeeds) {
+		// Nothing
+	}
 }
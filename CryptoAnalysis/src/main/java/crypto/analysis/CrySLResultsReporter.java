@@ -21,6 +21,10 @@ import crypto.rules.CrySLPredicate;
 import sync.pds.solver.nodes.Node;
 import typestate.TransitionFunction;
 
+/**
+ * Dispatches the analysis events to all registered listeners. Dispatching is synchronized, such
+ * that listeners are never notified concurrently, even if the seeds are analyzed in parallel.
+ */
 public class CrySLResultsReporter  {
 
 	private List<ICrySLResultsListener> listeners;
@@ -29,27 +33,27 @@ public class CrySLResultsReporter  {
 		listeners = new ArrayList<ICrySLResultsListener>();
 	}
 
-	public boolean addReportListener(ICrySLResultsListener listener) {
+	public synchronized boolean addReportListener(ICrySLResultsListener listener) {
 		return listeners.add(listener);
 	}
 
-	public boolean removeReportListener(CrySLAnalysisListener listener) {
+	public synchronized boolean removeReportListener(CrySLAnalysisListener listener) {
 		return listeners.remove(listener);
 	}
 
-	public void collectedValues(AnalysisSeedWithSpecification seed, Multimap<CallSiteWithParamIndex, ExtractedValue> parametersToValues) {
+	public synchronized void collectedValues(AnalysisSeedWithSpecification seed, Multimap<CallSiteWithParamIndex, ExtractedValue> parametersToValues) {
 		for (ICrySLResultsListener listen : listeners) {
 			listen.collectedValues(seed, parametersToValues);
 		}
 	}
 
-	public void discoveredSeed(IAnalysisSeed curr) {
+	public synchronized void discoveredSeed(IAnalysisSeed curr) {
 		for (ICrySLResultsListener listen : listeners) {
 			listen.discoveredSeed(curr);
 		}
 	}
 
-	public void ensuredPredicates(Table<Statement, Val, Set<EnsuredCrySLPredicate>> existingPredicates, Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> expectedPredicates, Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> missingPredicates) {
+	public synchronized void ensuredPredicates(Table<Statement, Val, Set<EnsuredCrySLPredicate>> existingPredicates, Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> expectedPredicates, Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> missingPredicates) {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).ensuredPredicates(existingPredicates, expectedPredicates, missingPredicates);
@@ -57,13 +61,13 @@ public class CrySLResultsReporter  {
 		}
 	}
 
-	public void checkedConstraints(AnalysisSeedWithSpecification analysisSeedWithSpecification, Collection<ISLConstraint> relConstraints) {
+	public synchronized void checkedConstraints(AnalysisSeedWithSpecification analysisSeedWithSpecification, Collection<ISLConstraint> relConstraints) {
 		for (ICrySLResultsListener listen : listeners) {
 			listen.checkedConstraints(analysisSeedWithSpecification, relConstraints);
 		}
 	}
 
-	public void beforeAnalysis() {
+	public synchronized void beforeAnalysis() {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).beforeAnalysis();
@@ -71,7 +75,7 @@ public class CrySLResultsReporter  {
 		}
 	}
 
-	public void afterAnalysis() {
+	public synchronized void afterAnalysis() {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).afterAnalysis();
@@ -79,7 +83,15 @@ public class CrySLResultsReporter  {
 		}
 	}
 
-	public void beforeConstraintCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+	public synchronized void onAnalysisIncomplete(Collection<IAnalysisSeed> unprocessedSeeds) {
+		for (ICrySLResultsListener listen : listeners) {
+			if (listen instanceof CrySLAnalysisListener) {
+				((CrySLAnalysisListener) listen).onAnalysisIncomplete(unprocessedSeeds);
+			}
+		}
+	}
+
+	public synchronized void beforeConstraintCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).beforeConstraintCheck(analysisSeedWithSpecification);
@@ -87,7 +99,7 @@ public class CrySLResultsReporter  {
 		}
 	}
 
-	public void afterConstraintCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+	public synchronized void afterConstraintCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).afterConstraintCheck(analysisSeedWithSpecification);
@@ -95,7 +107,7 @@ public class CrySLResultsReporter  {
 		}
 	}
 
-	public void beforePredicateCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+	public synchronized void beforePredicateCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).beforePredicateCheck(analysisSeedWithSpecification);
@@ -103,7 +115,7 @@ public class CrySLResultsReporter  {
 		}
 	}
 
-	public void afterPredicateCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+	public synchronized void afterPredicateCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).afterPredicateCheck(analysisSeedWithSpecification);
@@ -111,7 +123,7 @@ public class CrySLResultsReporter  {
 		}
 	}
 
-	public void seedStarted(IAnalysisSeed analysisSeedWithSpecification) {
+	public synchronized void seedStarted(IAnalysisSeed analysisSeedWithSpecification) {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).seedStarted(analysisSeedWithSpecification);
@@ -119,7 +131,7 @@ public class CrySLResultsReporter  {
 		}
 	}
 
-	public void boomerangQueryStarted(Query seed, BackwardQuery q) {
+	public synchronized void boomerangQueryStarted(Query seed, BackwardQuery q) {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).boomerangQueryStarted(seed, q);
@@ -127,7 +139,7 @@ public class CrySLResultsReporter  {
 		}
 	}
 
-	public void boomerangQueryFinished(Query seed, BackwardQuery q) {
+	public synchronized void boomerangQueryFinished(Query seed, BackwardQuery q) {
 		for (ICrySLResultsListener listen : listeners) {
 			if (listen instanceof CrySLAnalysisListener) {
 				((CrySLAnalysisListener) listen).boomerangQueryFinished(seed, q);
@@ -135,35 +147,39 @@ public class CrySLResultsReporter  {
 		}
 	}
 	
-	public void onSeedFinished(IAnalysisSeed seed, ForwardBoomerangResults<TransitionFunction> analysisResults) {
-		for (ICrySLResultsListener listen : listeners) {
-			listen.onSeedFinished(seed, analysisResults);
-		}
-	}
-	
-	public void onSeedTimeout(Node<Statement,Val> seed) {
+	public synchronized void onSeedFinished(IAnalysisSeed seed, ForwardBoomerangResults<TransitionFunction> analysisResults) {
+		for (ICrySLResultsListener listen : listeners) {
+			listen.onSeedFinished(seed, analysisResults);
+		}
+	}
+	
+	public synchronized void onSeedTimeout(Node<Statement,Val> seed) {
 		for (ICrySLResultsListener listen : listeners) {
 			listen.onSeedTimeout(seed);
 		}
 	}
 	
-	public void reportError(IAnalysisSeed object, AbstractError err) {
+	public synchronized void reportError(IAnalysisSeed object, AbstractError err) {
 		if (object != null && object instanceof AnalysisSeedWithSpecification) {
 			((AnalysisSeedWithSpecification) object).setSecure(false);
 		}
 		for (ICrySLResultsListener listen : listeners) {
-			listen.reportError(err);
+			if (listen instanceof ScanCheckpointer) {
+				((ScanCheckpointer) listen).reportError(object, err);
+			} else {
+				listen.reportError(err);
+			}
 		}
 	}
 
 
-	public void onSecureObjectFound(IAnalysisSeed seed) {
+	public synchronized void onSecureObjectFound(IAnalysisSeed seed) {
 		for (ICrySLResultsListener listen : listeners) {
 			listen.onSecureObjectFound(seed);
 		}
 	}
 
-	public void addProgress(int processedSeeds, int workListsize) {
+	public synchronized void addProgress(int processedSeeds, int workListsize) {
 		for (ICrySLResultsListener listen : listeners) {
 			listen.addProgress(processedSeeds,workListsize);
 		}
@@ -1,14 +1,25 @@
 package crypto.analysis;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 
 import boomerang.Query;
@@ -16,23 +27,64 @@ import boomerang.callgraph.ObservableICFG;
 import boomerang.debugger.Debugger;
 import boomerang.jimple.Statement;
 import boomerang.jimple.Val;
+import crypto.analysis.SpecificationIndex.Match;
+import crypto.analysis.SpecificationIndex.Role;
+import crypto.boomerang.AnalysisTier;
+import crypto.constraints.ArrayElementAssignments;
+import crypto.constraints.TrapIndex;
+import crypto.exceptions.ScanDeadlineExceededException;
+import crypto.extractparameter.BackwardQueryCache;
 import crypto.predicates.PredicateHandler;
 import crypto.rules.CrySLRule;
 import crypto.typestate.CrySLMethodToSootMethod;
 import heros.utilities.DefaultValueMap;
 import ideal.IDEALSeedSolver;
+import soot.Body;
 import soot.MethodOrMethodContext;
 import soot.Scene;
 import soot.SootMethod;
 import soot.Unit;
+import soot.jimple.Stmt;
 import soot.jimple.toolkits.callgraph.ReachableMethods;
 import soot.util.queue.QueueReader;
 import sync.pds.solver.nodes.Node;
 import typestate.TransitionFunction;
 
+/**
+ * Drives the analysis of all seeds discovered in the reachable application methods.
+ * 
+ * Seeds are either analyzed one after another or, if {@link #numberOfThreads()} is larger than one,
+ * on a pool of worker threads. In the latter case, the expensive typestate and parameter analyses
+ * of independent seeds run concurrently, while all state that is shared between seeds (the seed
+ * maps, the {@link PredicateHandler} tables and the listener dispatch) is guarded by the monitor
+ * of this scanner.
+ * 
+ * The workers additionally share the following structures of Soot:
+ * <ul>
+ * <li>The {@link #icfg()}, which resolves the call graph on demand. It must be safe for concurrent use, e.g.,
+ * by wrapping it into a {@link SynchronizedICFG}.</li>
+ * <li>The {@link Scene}, the bodies and the call graph, which are only read. All transformations of the
+ * bodies take place before the scan.</li>
+ * <li>The type hierarchy, which is only queried via the {@link crypto.typestate.SubtypeOracle}.</li>
+ * <li>The {@link CrySLMethodToSootMethod}, the {@link ArrayElementAssignments}, the {@link TrapIndex} and
+ * the {@link BackwardQueryCache}, whose lazily built tables are safe for concurrent use. The
+ * {@link ArrayElementAssignments} and the {@link TrapIndex} of each body are owned by the scan and released
+ * when it ends.</li>
+ * </ul>
+ * 
+ * Draining the worklist in rounds changes the order in which the ensured predicates of the seeds become
+ * visible to other seeds, but not the reported errors: a predicate that is added to a seed whose analysis
+ * has not finished yet is kept and propagated once the results of the seed are published, and the required
+ * predicates are only checked after all seeds are analyzed.
+ */
 public abstract class CryptoScanner {
 
-	private final LinkedList<IAnalysisSeed> worklist = Lists.newLinkedList();
+	private Queue<IAnalysisSeed> worklist = Lists.newLinkedList();
+	private SeedScheduler scheduler;
+	private ScanCheckpointer checkpointer;
+	private BackwardQueryCache backwardQueryCache;
+	private ArrayElementAssignments arrayElementAssignments;
+	private final Map<Body, TrapIndex> trapIndices = new ConcurrentHashMap<>();
 	private final List<ClassSpecification> specifications = Lists.newLinkedList();
 	private final PredicateHandler predicateHandler = new PredicateHandler(this);
 	private CrySLResultsReporter resultsAggregator = new CrySLResultsReporter();
@@ -53,6 +105,7 @@ public abstract class CryptoScanner {
 		}
 	};
 	private int solvedObject;
+	private int processedSeeds;
 	private Stopwatch analysisWatch;
 
 	public abstract ObservableICFG<Unit, SootMethod> icfg();
@@ -65,25 +118,173 @@ public abstract class CryptoScanner {
 		CrySLMethodToSootMethod.reset();
 	}
 
+	/**
+	 * @return the number of threads used to search for and to analyze the seeds. A value of one analyzes all
+	 *         seeds sequentially. For more than one thread, the {@link #icfg()} must be safe for concurrent use.
+	 */
+	protected int numberOfThreads() {
+		return 1;
+	}
+
+	/**
+	 * @return <code>true</code> if the seeds are analyzed in the order given by the {@link SeedScheduler},
+	 *         i.e., seeds ensuring predicates before the seeds requiring them. Otherwise, the seeds are
+	 *         analyzed in the order they are discovered.
+	 */
+	protected boolean dependencyScheduling() {
+		return false;
+	}
+
+	/**
+	 * Creates the budget for the analysis of a single seed. The analysis of a seed that exceeds its budget
+	 * is abandoned and reported as timed out, while the scan continues with the remaining seeds.
+	 * 
+	 * @return a new budget for each call. By default, the budget is unlimited.
+	 */
+	protected SeedBudget seedBudget() {
+		return SeedBudget.unlimited();
+	}
+
+	/**
+	 * @return the point in time (in milliseconds since the epoch) at which the scan stops analyzing further
+	 *         seeds. Seeds that are not analyzed until then, including those whose analysis is cut off by the
+	 *         deadline, are reported via
+	 *         {@link CrySLResultsReporter#onAnalysisIncomplete(Collection)}. By default, the scan has no deadline.
+	 */
+	protected long deadline() {
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return the directory to which the state of the scan is periodically written, such that an interrupted
+	 *         scan can be resumed later on. By default, no checkpoints are written.
+	 */
+	protected File checkpointDirectory() {
+		return null;
+	}
+
+	/**
+	 * @return the minimal time in milliseconds between two checkpoints. A checkpoint is only written after a
+	 *         seed finished and at the end of the scan.
+	 */
+	protected long checkpointInterval() {
+		return ScanCheckpointer.CHECKPOINT_INTERVAL_MS;
+	}
+
+	/**
+	 * @return <code>true</code> if the seeds that were analyzed by the scan that wrote the checkpoint in
+	 *         {@link #checkpointDirectory()} are restored from the checkpoint instead of being analyzed again
+	 */
+	protected boolean resumeFromCheckpoint() {
+		return false;
+	}
+
+	/**
+	 * @return <code>true</code> if the seeds that were analyzed by the scan that wrote the checkpoint in
+	 *         {@link #checkpointDirectory()} are restored, unless they depend on methods whose bodies changed
+	 *         since. The checkpoint is updated with the seeds that are analyzed again.
+	 */
+	protected boolean incrementalScan() {
+		return false;
+	}
+
+	/**
+	 * @return a hash that identifies the application, class path and rules of the scan. A scan only resumes
+	 *         from a checkpoint that was written for the same fingerprint. If <code>null</code>, the
+	 *         checkpoint is not checked.
+	 */
+	protected String applicationFingerprint() {
+		return null;
+	}
+
+	/**
+	 * @return a hash that identifies the class path and rules of the scan, but not the application. An
+	 *         incremental scan only restores seeds from a checkpoint that was written for the same hash. If
+	 *         <code>null</code>, the checkpoint is not checked.
+	 */
+	protected String environmentFingerprint() {
+		return null;
+	}
+
+	/**
+	 * @return the maximum number of backward query results that are shared between the parameter analyses
+	 *         of the seeds
+	 */
+	protected long backwardQueryCacheSize() {
+		return 10_000;
+	}
+
+	/**
+	 * @return <code>true</code> if the backward queries of the parameter analysis of a seed are solved by a
+	 *         single solver, which shares the exploration common to these queries at the cost of keeping the
+	 *         state of all of them until the parameter analysis finishes
+	 */
+	protected boolean batchBackwardQueries() {
+		return false;
+	}
+
+	/**
+	 * @return the tier that bounds the backward queries of the parameter analyses
+	 */
+	protected AnalysisTier analysisTier() {
+		return AnalysisTier.DEFAULT;
+	}
+
+	private boolean isDeadlineReached() {
+		return System.currentTimeMillis() >= deadline();
+	}
+
+	SeedBudget budgetForSeed() {
+		return seedBudget().limitTo(deadline());
+	}
+
 	public void scan(List<CrySLRule> specs) {
-		int processedSeeds = 0;
+		try {
+			analyze(specs);
+		} finally {
+			// The tables reference the bodies of the scene, which must not outlive the scan.
+			synchronized (this) {
+				arrayElementAssignments = null;
+			}
+			trapIndices.clear();
+		}
+	}
+
+	private void analyze(List<CrySLRule> specs) {
 		for (CrySLRule rule : specs) {
 			specifications.add(new ClassSpecification(rule, this));
 		}
+		if (dependencyScheduling()) {
+			scheduler = new SeedScheduler(specifications);
+			worklist = new PriorityQueue<>(scheduler);
+		}
 		CrySLResultsReporter listener = getAnalysisListener();
+		if (checkpointDirectory() != null) {
+			try {
+				checkpointer = new ScanCheckpointer(this, checkpointDirectory(), resumeFromCheckpoint(), incrementalScan(), applicationFingerprint(), environmentFingerprint());
+				listener.addReportListener(checkpointer);
+			} catch (IOException e) {
+				logger.error("Failed to read checkpoint from " + checkpointDirectory() + ", analyzing all seeds", e);
+			}
+		}
 		listener.beforeAnalysis();
 		analysisWatch = Stopwatch.createStarted();
 		logger.info("Searching for seeds for the analysis!");
 		initialize();
 		long elapsed = analysisWatch.elapsed(TimeUnit.SECONDS);
 		logger.info("Discovered " + worklist.size() + " analysis seeds within " + elapsed + " seconds!");
-		while (!worklist.isEmpty()) {
-			IAnalysisSeed curr = worklist.poll();
-			listener.discoveredSeed(curr);
-			curr.execute();
-			processedSeeds++;
-			listener.addProgress(processedSeeds,worklist.size());
-			estimateAnalysisTime();
+		List<IAnalysisSeed> unprocessedSeeds;
+		if (numberOfThreads() > 1) {
+			unprocessedSeeds = analyzeSeedsInParallel(listener);
+		} else {
+			unprocessedSeeds = analyzeSeeds(listener);
+		}
+		if (checkpointer != null) {
+			checkpointer.save(unprocessedSeeds.isEmpty());
+		}
+		if (!unprocessedSeeds.isEmpty()) {
+			logger.warn("Reached the deadline of the scan, " + unprocessedSeeds.size() + " seeds were not analyzed. The results are partial!");
+			listener.onAnalysisIncomplete(unprocessedSeeds);
 		}
 
 //		IDebugger<TypestateDomainValue<StateNode>> debugger = debugger();
@@ -105,7 +306,123 @@ public abstract class CryptoScanner {
 //		debugger().afterAnalysis();
 	}
 
-	private void estimateAnalysisTime() {
+	private List<IAnalysisSeed> analyzeSeeds(CrySLResultsReporter listener) {
+		List<IAnalysisSeed> unprocessedSeeds = Lists.newArrayList();
+		while (!worklist.isEmpty() && !isDeadlineReached()) {
+			IAnalysisSeed curr = worklist.poll();
+			listener.discoveredSeed(curr);
+			if (execute(curr)) {
+				seedFinished(listener);
+			} else {
+				unprocessedSeeds.add(curr);
+			}
+		}
+		unprocessedSeeds.addAll(drainWorklist());
+		return unprocessedSeeds;
+	}
+
+	/**
+	 * Drains the worklist in rounds. Each round submits all seeds that are currently in the worklist to the
+	 * worker pool and waits for them to finish. Seeds that are discovered while a round is running are
+	 * analyzed in the next round. With dependency scheduling, a round only contains the seeds of the
+	 * lowest rank in the worklist, such that producers of predicates finish before their consumers start.
+	 * Once the deadline is reached, seeds that have not been started yet are skipped, and seeds whose analysis
+	 * is cut off are returned as unprocessed as well.
+	 */
+	private List<IAnalysisSeed> analyzeSeedsInParallel(CrySLResultsReporter listener) {
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads());
+		logger.info("Analyzing seeds with " + numberOfThreads() + " threads");
+		List<IAnalysisSeed> unprocessedSeeds = Lists.newArrayList();
+		try {
+			List<IAnalysisSeed> round = pollAll();
+			while (!round.isEmpty()) {
+				List<Future<Boolean>> futures = Lists.newArrayList();
+				for (IAnalysisSeed seed : round) {
+					futures.add(executor.submit(() -> analyzeBeforeDeadline(seed, listener)));
+				}
+				for (int i = 0; i < futures.size(); i++) {
+					if (futures.get(i).get()) {
+						seedFinished(listener);
+					} else {
+						unprocessedSeeds.add(round.get(i));
+					}
+				}
+				round = isDeadlineReached() ? Lists.newArrayList() : pollAll();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.error("Interrupted while waiting for the analysis of the seeds", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Failed to analyze seed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		unprocessedSeeds.addAll(drainWorklist());
+		return unprocessedSeeds;
+	}
+
+	private boolean analyzeBeforeDeadline(IAnalysisSeed seed, CrySLResultsReporter listener) {
+		if (isDeadlineReached()) {
+			return false;
+		}
+		listener.discoveredSeed(seed);
+		return execute(seed);
+	}
+
+	/**
+	 * @return <code>false</code> if the analysis of the seed was cut off by the deadline of the scan
+	 */
+	private boolean execute(IAnalysisSeed seed) {
+		if (checkpointer != null && checkpointer.restore(seed)) {
+			return true;
+		}
+		try {
+			seed.execute();
+			return true;
+		} catch (ScanDeadlineExceededException e) {
+			logger.warn("Reached the deadline of the scan while analyzing " + seed);
+			return false;
+		}
+	}
+
+	private synchronized List<IAnalysisSeed> pollAll() {
+		if (scheduler == null) {
+			return drainWorklist();
+		}
+		List<IAnalysisSeed> seeds = Lists.newArrayList();
+		if (worklist.isEmpty()) {
+			return seeds;
+		}
+		int rank = scheduler.getRank(worklist.peek());
+		while (!worklist.isEmpty() && scheduler.getRank(worklist.peek()) == rank) {
+			seeds.add(worklist.poll());
+		}
+		return seeds;
+	}
+
+	private synchronized List<IAnalysisSeed> drainWorklist() {
+		List<IAnalysisSeed> seeds = Lists.newArrayList();
+		while (!worklist.isEmpty()) {
+			seeds.add(worklist.poll());
+		}
+		return seeds;
+	}
+
+	private void seedFinished(CrySLResultsReporter listener) {
+		int processed;
+		int remaining;
+		synchronized (this) {
+			processed = ++processedSeeds;
+			remaining = worklist.size();
+		}
+		listener.addProgress(processed, remaining);
+		estimateAnalysisTime();
+		if (checkpointer != null) {
+			checkpointer.seedFinished();
+		}
+	}
+
+	private synchronized void estimateAnalysisTime() {
 		int remaining = worklist.size();
 		solvedObject++;
 		if (remaining != 0) {
@@ -121,6 +438,8 @@ public abstract class CryptoScanner {
 	}
 
 	private void initialize() {
+		SpecificationIndex index = new SpecificationIndex(getClassSpecifictions());
+		List<SootMethod> methods = Lists.newArrayList();
 		ReachableMethods rm = Scene.v().getReachableMethods();
 		QueueReader<MethodOrMethodContext> listener = rm.listener();
 		while (listener.hasNext()) {
@@ -129,13 +448,51 @@ public abstract class CryptoScanner {
 			if (method == null || !method.hasActiveBody() || !method.getDeclaringClass().isApplicationClass()) {
 				continue;
 			}
-			for (ClassSpecification spec : getClassSpecifictions()) {
-				spec.invokesForbiddenMethod(method);
-				if (spec.getRule().getClassName().equals("javax.crypto.SecretKey")) {
-					continue;
+			methods.add(method);
+		}
+		List<List<Match>> matches = matchAll(index, methods);
+		for (int i = 0; i < methods.size(); i++) {
+			discoverSeeds(methods.get(i), matches.get(i));
+		}
+	}
+
+	/**
+	 * Matches the bodies of the methods against the index. The bodies are read-only at this point and are
+	 * therefore scanned on a fork-join pool if more than one thread is configured. The matches are returned
+	 * in the order of the methods, such that the seeds are created in the same order as by a sequential scan.
+	 */
+	private List<List<Match>> matchAll(SpecificationIndex index, List<SootMethod> methods) {
+		return ParallelMap.map(methods, index::match, numberOfThreads(), "searching for seeds");
+	}
+
+	/**
+	 * Reports the calls to forbidden methods and creates the seeds of the matched call sites of a method. The
+	 * matches are processed per specification, i.e., in the same order as if each specification scanned the
+	 * body on its own.
+	 */
+	private void discoverSeeds(SootMethod method, List<Match> matches) {
+		if (matches.isEmpty()) {
+			return;
+		}
+		ListMultimap<ClassSpecification, Match> matchesBySpec = ArrayListMultimap.create();
+		for (Match match : matches) {
+			matchesBySpec.put(match.getEntry().getSpec(), match);
+		}
+		for (ClassSpecification spec : getClassSpecifictions()) {
+			List<Match> specMatches = matchesBySpec.get(spec);
+			for (Match match : specMatches) {
+				if (match.getEntry().getRole() == Role.FORBIDDEN_METHOD) {
+					spec.reportForbiddenMethod((Stmt) match.getUnit(), match.getEntry().getForbiddenMethod());
 				}
-				for (Query seed : spec.getInitialSeeds(method)) {
-					getOrCreateSeedWithSpec(new AnalysisSeedWithSpecification(this, seed.stmt(), seed.var(), spec));
+			}
+			if (spec.getRule().getClassName().equals("javax.crypto.SecretKey")) {
+				continue;
+			}
+			for (Match match : specMatches) {
+				if (match.getEntry().getRole() == Role.INITIAL_TRANSITION) {
+					for (Query seed : spec.getInitialSeeds(method, match.getUnit())) {
+						getOrCreateSeedWithSpec(new AnalysisSeedWithSpecification(this, seed.stmt(), seed.var(), spec));
+					}
 				}
 			}
 		}
@@ -145,11 +502,14 @@ public abstract class CryptoScanner {
 		return specifications;
 	}
 
-	protected void addToWorkList(IAnalysisSeed analysisSeedWithSpecification) {
+	protected synchronized void addToWorkList(IAnalysisSeed analysisSeedWithSpecification) {
+		if (scheduler != null) {
+			scheduler.discovered(analysisSeedWithSpecification);
+		}
 		worklist.add(analysisSeedWithSpecification);
 	}
 
-	public AnalysisSeedWithEnsuredPredicate getOrCreateSeed(Node<Statement,Val> factAtStatement) {
+	public synchronized AnalysisSeedWithEnsuredPredicate getOrCreateSeed(Node<Statement,Val> factAtStatement) {
 		boolean addToWorklist = false;
 		if (!seedsWithoutSpec.containsKey(factAtStatement))
 			addToWorklist = true;
@@ -160,7 +520,7 @@ public abstract class CryptoScanner {
 		return seed;
 	}
 
-	public AnalysisSeedWithSpecification getOrCreateSeedWithSpec(AnalysisSeedWithSpecification factAtStatement) {
+	public synchronized AnalysisSeedWithSpecification getOrCreateSeedWithSpec(AnalysisSeedWithSpecification factAtStatement) {
 		boolean addToWorklist = false;
 		if (!seedsWithSpec.containsKey(factAtStatement))
 			addToWorklist = true;
@@ -179,7 +539,41 @@ public abstract class CryptoScanner {
 		return predicateHandler;
 	}
 
-	public Collection<AnalysisSeedWithSpecification> getAnalysisSeeds() {
-		return this.seedsWithSpec.values();
+	/**
+	 * @return the checkpointer of the scan or <code>null</code> if no checkpoints are written
+	 */
+	public ScanCheckpointer getCheckpointer() {
+		return checkpointer;
+	}
+
+	/**
+	 * @return the cache of the backward queries issued by the parameter analyses of all seeds of this scanner
+	 */
+	public synchronized BackwardQueryCache getBackwardQueryCache() {
+		if (backwardQueryCache == null) {
+			backwardQueryCache = new BackwardQueryCache(this, backwardQueryCacheSize(), batchBackwardQueries(), analysisTier());
+		}
+		return backwardQueryCache;
+	}
+
+	/**
+	 * @return the element assignments of the arrays analyzed by the seeds of the current scan
+	 */
+	public synchronized ArrayElementAssignments getArrayElementAssignments() {
+		if (arrayElementAssignments == null) {
+			arrayElementAssignments = new ArrayElementAssignments();
+		}
+		return arrayElementAssignments;
+	}
+
+	/**
+	 * @return the index of the traps of the body, which is built once per scan and shared by all seeds
+	 */
+	public TrapIndex getTrapIndex(Body body) {
+		return trapIndices.computeIfAbsent(body, TrapIndex::new);
+	}
+
+	public synchronized Collection<AnalysisSeedWithSpecification> getAnalysisSeeds() {
+		return Lists.newArrayList(this.seedsWithSpec.values());
 	}
 }
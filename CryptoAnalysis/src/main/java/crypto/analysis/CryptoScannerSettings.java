@@ -1,5 +1,6 @@
 package crypto.analysis;
 
+import crypto.boomerang.AnalysisTier;
 import crypto.exceptions.CryptoAnalysisParserException;
 
 public class CryptoScannerSettings {
@@ -14,15 +15,38 @@ public class CryptoScannerSettings {
 	private String reportDirectory = null;
 	private ReportFormat reportFormat = null;
 	private boolean preAnalysis;
+	private boolean reuseScene;
 	private boolean visualization;
 	private boolean providerDetectionAnalysis;
+	private int numberOfThreads;
+	private boolean dependencyScheduling;
+	private long seedTimeout;
+	private long seedPropagationLimit;
+	private long seedHeapLimit;
+	private long timeout;
+	private String checkpointDirectory = null;
+	private boolean resume;
+	private boolean incremental;
+	private String callGraphCacheDirectory = null;
+	private boolean batchQueries;
+	private AnalysisTier analysisTier;
 	
 	public CryptoScannerSettings() {
 		setControlGraph(ControlGraph.CHA);
 		setRulesetPathType(RulesetPathType.NONE);
 		setPreAnalysis(false);
+		setReuseScene(false);
 		setVisualization(false);
 		setProviderDetectionAnalysis(false);
+		setNumberOfThreads(1);
+		setDependencyScheduling(false);
+		setBatchQueries(false);
+		setIncremental(false);
+		setAnalysisTier(AnalysisTier.DEFAULT);
+		setSeedTimeout(0);
+		setSeedPropagationLimit(0);
+		setSeedHeapLimit(0);
+		setTimeout(0);
 	}
 	
 	public ControlGraph getControlGraph() {
@@ -105,6 +129,14 @@ public class CryptoScannerSettings {
 		this.preAnalysis = preAnalysis;
 	}
 
+	public boolean isReuseScene() {
+		return reuseScene;
+	}
+
+	public void setReuseScene(boolean reuseScene) {
+		this.reuseScene = reuseScene;
+	}
+	
 	public boolean isVisualization() {
 		return visualization;
 	}
@@ -121,6 +153,78 @@ public class CryptoScannerSettings {
 		this.providerDetectionAnalysis = providerDetectionAnalysis;
 	}
 	
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+	
+	public boolean isDependencyScheduling() {
+		return dependencyScheduling;
+	}
+
+	public void setDependencyScheduling(boolean dependencyScheduling) {
+		this.dependencyScheduling = dependencyScheduling;
+	}
+	
+	public long getSeedTimeout() {
+		return seedTimeout;
+	}
+
+	public void setSeedTimeout(long seedTimeout) {
+		this.seedTimeout = seedTimeout;
+	}
+	
+	public long getSeedPropagationLimit() {
+		return seedPropagationLimit;
+	}
+
+	public void setSeedPropagationLimit(long seedPropagationLimit) {
+		this.seedPropagationLimit = seedPropagationLimit;
+	}
+	
+	public long getSeedHeapLimit() {
+		return seedHeapLimit;
+	}
+
+	public void setSeedHeapLimit(long seedHeapLimit) {
+		this.seedHeapLimit = seedHeapLimit;
+	}
+	
+	public long getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+	
+	public String getCheckpointDirectory() {
+		return checkpointDirectory;
+	}
+
+	public void setCheckpointDirectory(String checkpointDirectory) {
+		this.checkpointDirectory = checkpointDirectory;
+	}
+	
+	public boolean isResume() {
+		return resume;
+	}
+
+	public void setResume(boolean resume) {
+		this.resume = resume;
+	}
+	
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+	
 	public void parseSettingsFromCLI(String[] settings) throws CryptoAnalysisParserException {
 		int mandatorySettings = 0;
 		if(settings == null) {
@@ -176,12 +280,59 @@ public class CryptoScannerSettings {
 				case "--preanalysis":
 					setPreAnalysis(true);
 					break;
+				case "--reusescene":
+					setReuseScene(true);
+					break;
 				case "--visualization":
 					setVisualization(true);
 					break;
 				case "--providerdetection":
 					setProviderDetectionAnalysis(true);
 					break;
+				case "--dependencyscheduling":
+					setDependencyScheduling(true);
+					break;
+				case "--threads":
+					parseNumberOfThreadsValue(settings[i+1]);
+					i++;
+					break;
+				case "--timeout":
+					setTimeout(parsePositiveLongValue("--timeout", settings[i+1]));
+					i++;
+					break;
+				case "--seedtimeout":
+					setSeedTimeout(parsePositiveLongValue("--seedTimeout", settings[i+1]));
+					i++;
+					break;
+				case "--seedpropagationlimit":
+					setSeedPropagationLimit(parsePositiveLongValue("--seedPropagationLimit", settings[i+1]));
+					i++;
+					break;
+				case "--seedheaplimit":
+					setSeedHeapLimit(parsePositiveLongValue("--seedHeapLimit", settings[i+1]));
+					i++;
+					break;
+				case "--checkpointdir":
+					setCheckpointDirectory(settings[i+1]);
+					i++;
+					break;
+				case "--resume":
+					setResume(true);
+					break;
+				case "--incremental":
+					setIncremental(true);
+					break;
+				case "--analysistier":
+					parseAnalysisTierValue(settings[i+1]);
+					i++;
+					break;
+				case "--batchqueries":
+					setBatchQueries(true);
+					break;
+				case "--callgraphcache":
+					setCallGraphCacheDirectory(settings[i+1]);
+					i++;
+					break;
 				default:
 					showErrorMessage(settings[i]);		
 			}
@@ -189,6 +340,36 @@ public class CryptoScannerSettings {
 		if(mandatorySettings != 2) {
 			showErrorMessage();
 		}
+		if(isResume() && getCheckpointDirectory() == null) {
+			showErrorMessage("--resume");
+		}
+		if(isIncremental() && getCheckpointDirectory() == null) {
+			showErrorMessage("--incremental");
+		}
+	}
+	
+	public String getCallGraphCacheDirectory() {
+		return callGraphCacheDirectory;
+	}
+
+	public void setCallGraphCacheDirectory(String callGraphCacheDirectory) {
+		this.callGraphCacheDirectory = callGraphCacheDirectory;
+	}
+	
+	public boolean isBatchQueries() {
+		return batchQueries;
+	}
+
+	public void setBatchQueries(boolean batchQueries) {
+		this.batchQueries = batchQueries;
+	}
+	
+	public AnalysisTier getAnalysisTier() {
+		return analysisTier;
+	}
+
+	public void setAnalysisTier(AnalysisTier analysisTier) {
+		this.analysisTier = analysisTier;
 	}
 	
 	public enum ControlGraph {
@@ -239,6 +420,50 @@ public class CryptoScannerSettings {
 		}
 	}
 	
+	private void parseAnalysisTierValue(String value) throws CryptoAnalysisParserException {
+		String tierValue = value.toLowerCase();
+		switch(tierValue) {
+			case "fast":
+				setAnalysisTier(AnalysisTier.FAST);
+				break;
+			case "default":
+				setAnalysisTier(AnalysisTier.DEFAULT);
+				break;
+			case "precise":
+				setAnalysisTier(AnalysisTier.PRECISE);
+				break;
+			default:
+				throw new CryptoAnalysisParserException("Incorrect value "+tierValue+" for --analysisTier option. "
+						+ "Available options are: FAST, DEFAULT and PRECISE.\n");
+		}
+	}
+	
+	private void parseNumberOfThreadsValue(String value) throws CryptoAnalysisParserException {
+		try {
+			int threads = Integer.parseInt(value);
+			if (threads < 1) {
+				throw new NumberFormatException();
+			}
+			setNumberOfThreads(threads);
+		} catch (NumberFormatException e) {
+			throw new CryptoAnalysisParserException("Incorrect value "+value+" for --threads option. "
+					+ "The number of threads has to be a positive integer.\n");
+		}
+	}
+	
+	private long parsePositiveLongValue(String option, String value) throws CryptoAnalysisParserException {
+		try {
+			long limit = Long.parseLong(value);
+			if (limit < 1) {
+				throw new NumberFormatException();
+			}
+			return limit;
+		} catch (NumberFormatException e) {
+			throw new CryptoAnalysisParserException("Incorrect value "+value+" for "+option+" option. "
+					+ "The value has to be a positive integer.\n");
+		}
+	}
+	
 	private static void showErrorMessage() throws CryptoAnalysisParserException {
 		String errorMessage = "An error occurred while trying to parse the CLI arguments.\n"
 				+"The default command for running CryptoAnalysis is: \n"+
@@ -261,8 +486,21 @@ public class CryptoScannerSettings {
 				+ "--reportPath <directory_location_for_cognicrypt_report>\n"
 				+ "--reportFormat <format of cognicrypt_report (TXT, SARIF, CSV)>\n"
 				+ "--preanalysis (enables pre-analysis)\n"
+				+ "--reuseScene (runs the pre-analysis on the Soot scene of the main analysis instead of loading all classes twice)\n"
 				+ "--visualization (enables the visualization, but also requires --reportPath option to be set)\n"
-				+ "--providerDetection (enables provider detection analysis)\n";
+				+ "--providerDetection (enables provider detection analysis)\n"
+				+ "--threads <number_of_worker_threads_used_to_analyze_seeds (default: 1)>\n"
+				+ "--dependencyScheduling (analyzes seeds ensuring predicates before seeds requiring them)\n"
+				+ "--timeout <time_in_ms_after_which_the_scan_stops_and_reports_partial_results>\n"
+				+ "--seedTimeout <time_in_ms_after_which_a_single_seed_is_abandoned>\n"
+				+ "--seedPropagationLimit <number_of_propagations_after_which_a_single_seed_is_abandoned>\n"
+				+ "--seedHeapLimit <heap_growth_in_mb_after_which_a_single_seed_is_abandoned>\n"
+				+ "--checkpointDir <directory_to_which_the_state_of_the_scan_is_periodically_written>\n"
+				+ "--resume (restores the seeds analyzed by the scan that wrote the checkpoint for the same application, class path and rules, requires --checkpointDir)\n"
+				+ "--incremental (restores the seeds of the checkpoint that are not affected by changed methods, requires --checkpointDir)\n"
+				+ "--analysisTier <tier_of_the_parameter_extraction> (possible values are FAST, DEFAULT, PRECISE; FAST and PRECISE report the values whose query timed out, FAST does not report the values beyond its call and field depth)\n"
+				+ "--batchQueries (solves the backward queries of an object with a single solver)\n"
+				+ "--callGraphCache <directory_in_which_call_graphs_are_stored_and_reused_by_scans_of_unchanged_applications>\n";
 		throw new CryptoAnalysisParserException(errorMessage);
 	}
 	
@@ -43,7 +43,7 @@ public class EnsuredCrySLPredicate {
 			return true;
 		if (obj == null)
 			return false;
-		if (getClass() != obj.getClass())
+		if (!(obj instanceof EnsuredCrySLPredicate))
 			return false;
 		EnsuredCrySLPredicate other = (EnsuredCrySLPredicate) obj;
 		if (predicate == null) {
@@ -0,0 +1,40 @@
+package crypto.analysis;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a function to the elements of a list on a fork-join pool. The results are returned in the order
+ * of the elements, such that they do not depend on the scheduling of the threads.
+ */
+public class ParallelMap {
+
+	private ParallelMap() {
+	}
+
+	/**
+	 * @param parallelism the number of threads of the pool. If it is at most one, the elements are mapped on
+	 *                    the calling thread.
+	 * @param task        a description of the mapping for error messages, e.g., "searching for seeds"
+	 * @return the results of the function in the order of the elements
+	 */
+	public static <T, R> List<R> map(List<T> elements, Function<? super T, ? extends R> function, int parallelism, String task) {
+		if (parallelism <= 1) {
+			return elements.stream().map(function).collect(Collectors.toList());
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.submit(() -> elements.parallelStream().<R>map(function).collect(Collectors.toList())).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while " + task, e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Failed while " + task, e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package crypto.analysis;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import com.google.common.collect.HashMultimap;
+
+import crypto.rules.CrySLPredicate;
+
+/**
+ * A predicate that was ensured by a seed of an earlier scan and restored from its checkpoint. As the
+ * extracted values of the original predicate refer to the call sites of that scan, the restored
+ * predicate carries the constant values of its parameters instead.
+ */
+public class RestoredCrySLPredicate extends EnsuredCrySLPredicate {
+
+	private final Map<String, Collection<String>> parameterValues;
+
+	public RestoredCrySLPredicate(CrySLPredicate predicate, Map<String, Collection<String>> parameterValues) {
+		super(predicate, HashMultimap.create());
+		this.parameterValues = parameterValues;
+	}
+
+	public Collection<String> getParameterValues(String varName) {
+		Collection<String> values = parameterValues.get(varName);
+		return values == null ? Collections.emptySet() : values;
+	}
+}
@@ -1,8 +1,5 @@
 package crypto.analysis;
 
-import boomerang.results.ForwardBoomerangResults;
-import typestate.TransitionFunction;
-
 public interface ResultsHandler{
-	void done(ForwardBoomerangResults<TransitionFunction> results);
+	void done(SeedResultSummary results);
 }
\ No newline at end of file
@@ -0,0 +1,306 @@
+package crypto.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * The persisted state of a scan, i.e., the seeds that were analyzed completely together with the errors
+ * they reported and the predicates they ensured and expected. Seeds are identified by their
+ * {@link IAnalysisSeed#getObjectId()}, program locations by the signature of their method and the index
+ * of the statement within the body of that method.
+ *
+ * The results of a seed that requires predicates depend on the seeds that ensure them, which may not have
+ * been analyzed when the checkpoint was written. Such seeds are therefore only final once the checkpoint is
+ * {@link #isComplete() complete}.
+ */
+public class ScanCheckpoint {
+
+	public static final String FILE_NAME = "checkpoint.json";
+	private static final Gson GSON = new GsonBuilder().create();
+
+	private final Set<String> processedSeeds = Sets.newLinkedHashSet();
+	private final List<ErrorRecord> errors = Lists.newArrayList();
+	private final List<PredicateRecord> ensuredPredicates = Lists.newArrayList();
+	private final List<PredicateRecord> expectedPredicates = Lists.newArrayList();
+	private final List<PredicateRecord> predicatesOnOtherObjects = Lists.newArrayList();
+	private List<ErrorRecord> missingPredicateErrors = Lists.newArrayList();
+	private final Map<String, Map<String, String>> seedMethods = Maps.newHashMap();
+	private final Map<String, List<Location>> seedCells = Maps.newHashMap();
+	private final Set<String> seedsRequiringPredicates = Sets.newHashSet();
+	private String fingerprint;
+	private String environmentFingerprint;
+	private boolean complete;
+
+	/**
+	 * @return the fingerprint of the application, class path and rules of the scan that wrote the checkpoint
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public void setFingerprint(String fingerprint) {
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * @return the fingerprint of the class path and rules of the scan that wrote the checkpoint, excluding the
+	 *         application
+	 */
+	public String getEnvironmentFingerprint() {
+		return environmentFingerprint;
+	}
+
+	public void setEnvironmentFingerprint(String environmentFingerprint) {
+		this.environmentFingerprint = environmentFingerprint;
+	}
+
+	/**
+	 * @return <code>true</code> if the checkpoint was written at the end of a scan that analyzed all seeds
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public void setComplete(boolean complete) {
+		this.complete = complete;
+	}
+
+	public Set<String> getProcessedSeeds() {
+		return processedSeeds;
+	}
+
+	public List<ErrorRecord> getErrors() {
+		return errors;
+	}
+
+	public List<PredicateRecord> getEnsuredPredicates() {
+		return ensuredPredicates;
+	}
+
+	public List<PredicateRecord> getExpectedPredicates() {
+		return expectedPredicates;
+	}
+
+	public List<PredicateRecord> getPredicatesOnOtherObjects() {
+		return predicatesOnOtherObjects;
+	}
+
+	/**
+	 * @return the errors of the required predicates that were missing when the checkpoint was written. In
+	 *         contrast to the other errors, these are only reported at the end of a scan.
+	 */
+	public List<ErrorRecord> getMissingPredicateErrors() {
+		return missingPredicateErrors;
+	}
+
+	public void setMissingPredicateErrors(List<ErrorRecord> missingPredicateErrors) {
+		this.missingPredicateErrors = missingPredicateErrors;
+	}
+
+	/**
+	 * @return for each analyzed seed, the signatures of the methods its results depend on, mapped to a hash
+	 *         of the body each method had when the seed was analyzed
+	 */
+	public Map<String, Map<String, String>> getSeedMethods() {
+		return seedMethods;
+	}
+
+	/**
+	 * @return for each analyzed seed, the statements and variables at which the variables hold the object
+	 */
+	public Map<String, List<Location>> getSeedCells() {
+		return seedCells;
+	}
+
+	/**
+	 * @return the analyzed seeds whose constraints require predicates of other seeds
+	 */
+	public Set<String> getSeedsRequiringPredicates() {
+		return seedsRequiringPredicates;
+	}
+
+	/**
+	 * Removes the seeds and all records of them, such that they are analyzed again.
+	 */
+	public void removeSeeds(Set<String> seeds) {
+		processedSeeds.removeAll(seeds);
+		errors.removeIf(record -> seeds.contains(record.getSeed()));
+		ensuredPredicates.removeIf(record -> seeds.contains(record.getSeed()));
+		expectedPredicates.removeIf(record -> seeds.contains(record.getSeed()));
+		predicatesOnOtherObjects.removeIf(record -> seeds.contains(record.getSeed()));
+		missingPredicateErrors.removeIf(record -> seeds.contains(record.getSeed()));
+		seedMethods.keySet().removeAll(seeds);
+		seedCells.keySet().removeAll(seeds);
+		seedsRequiringPredicates.removeAll(seeds);
+	}
+
+	/**
+	 * Removes the records of the seeds whose analysis did not finish before the checkpoint was written.
+	 */
+	public void removeUnprocessedSeeds() {
+		Set<String> unprocessed = Sets.newHashSet();
+		for (ErrorRecord record : Iterables.concat(errors, missingPredicateErrors)) {
+			unprocessed.add(record.getSeed());
+		}
+		for (PredicateRecord record : Iterables.concat(ensuredPredicates, expectedPredicates, predicatesOnOtherObjects)) {
+			unprocessed.add(record.getSeed());
+		}
+		unprocessed.removeAll(processedSeeds);
+		removeSeeds(unprocessed);
+	}
+
+	/**
+	 * @return the checkpoint stored in the directory or an empty checkpoint if the directory does not contain one
+	 */
+	public static ScanCheckpoint load(File directory) throws IOException {
+		Path file = new File(directory, FILE_NAME).toPath();
+		if (!Files.exists(file)) {
+			return new ScanCheckpoint();
+		}
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			ScanCheckpoint checkpoint = GSON.fromJson(reader, ScanCheckpoint.class);
+			return checkpoint == null ? new ScanCheckpoint() : checkpoint;
+		} catch (JsonParseException e) {
+			throw new IOException("Failed to read checkpoint " + file, e);
+		}
+	}
+
+	/**
+	 * Writes the checkpoint to the directory. The checkpoint is first written to a temporary file that then
+	 * replaces the previous checkpoint, such that an interrupted scan never leaves a corrupt checkpoint behind.
+	 */
+	public void save(File directory) throws IOException {
+		Files.createDirectories(directory.toPath());
+		Path file = new File(directory, FILE_NAME).toPath();
+		Path tmp = Files.createTempFile(directory.toPath(), FILE_NAME, ".tmp");
+		try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			GSON.toJson(this, writer);
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * A statement and, optionally, a local variable of a method.
+	 */
+	public static class Location {
+		private String method;
+		private int unit;
+		private String variable;
+
+		public Location(String method, int unit, String variable) {
+			this.method = method;
+			this.unit = unit;
+			this.variable = variable;
+		}
+
+		public String getMethod() {
+			return method;
+		}
+
+		public int getUnit() {
+			return unit;
+		}
+
+		public String getVariable() {
+			return variable;
+		}
+	}
+
+	public static class ErrorRecord {
+		private String seed;
+		private String type;
+		private String rule;
+		private Location location;
+		private String message;
+
+		public ErrorRecord(String seed, String type, String rule, Location location, String message) {
+			this.seed = seed;
+			this.type = type;
+			this.rule = rule;
+			this.location = location;
+			this.message = message;
+		}
+
+		public String getSeed() {
+			return seed;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public String getRule() {
+			return rule;
+		}
+
+		public Location getLocation() {
+			return location;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+	}
+
+	public static class PredicateRecord {
+		private String seed;
+		private String predicate;
+		private Location location;
+		private Map<String, Collection<String>> parameterValues;
+		private boolean satisfied;
+
+		public PredicateRecord(String seed, String predicate, Location location, Map<String, Collection<String>> parameterValues) {
+			this(seed, predicate, location, parameterValues, true);
+		}
+
+		public PredicateRecord(String seed, String predicate, Location location, Map<String, Collection<String>> parameterValues, boolean satisfied) {
+			this.seed = seed;
+			this.predicate = predicate;
+			this.location = location;
+			this.parameterValues = parameterValues;
+			this.satisfied = satisfied;
+		}
+
+		public String getSeed() {
+			return seed;
+		}
+
+		public String getPredicate() {
+			return predicate;
+		}
+
+		public Location getLocation() {
+			return location;
+		}
+
+		public Map<String, Collection<String>> getParameterValues() {
+			return parameterValues;
+		}
+
+		/**
+		 * @return <code>false</code> if the seed expected the predicate on another object but could not
+		 *         ensure it, because its constraints were not satisfied
+		 */
+		public boolean isSatisfied() {
+			return satisfied;
+		}
+	}
+}
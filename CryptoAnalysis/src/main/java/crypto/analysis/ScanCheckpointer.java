@@ -0,0 +1,650 @@
+package crypto.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
+import com.google.common.collect.Table.Cell;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import boomerang.BackwardQuery;
+import boomerang.Query;
+import boomerang.jimple.AllocVal;
+import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import boomerang.results.ForwardBoomerangResults;
+import crypto.analysis.ScanCheckpoint.ErrorRecord;
+import crypto.analysis.ScanCheckpoint.Location;
+import crypto.analysis.ScanCheckpoint.PredicateRecord;
+import crypto.analysis.errors.AbstractError;
+import crypto.analysis.errors.ErrorWithObjectAllocation;
+import crypto.analysis.errors.RequiredPredicateError;
+import crypto.analysis.errors.RestoredError;
+import crypto.extractparameter.CallSiteWithParamIndex;
+import crypto.extractparameter.ExtractedValue;
+import crypto.interfaces.ICrySLPredicateParameter;
+import crypto.interfaces.ISLConstraint;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+import soot.Local;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.jimple.AssignStmt;
+import soot.jimple.Stmt;
+import soot.jimple.toolkits.callgraph.Edge;
+import sync.pds.solver.nodes.Node;
+import typestate.TransitionFunction;
+import typestate.finiteautomata.State;
+
+/**
+ * Periodically writes a {@link ScanCheckpoint} of a running scan to a directory and, when a scan is resumed,
+ * restores the seeds that were already analyzed by an earlier scan instead of analyzing them again.
+ *
+ * Only seeds with a specification are checkpointed. A restored seed replays the errors it reported, the
+ * predicates it ensured and expected, and the predicates it ensured on other objects. Its results are
+ * restored from the statements and variables that held the object, such that seeds that are analyzed
+ * after it can still ensure predicates on the object. Seeds without a specification are re-created by
+ * this replay and analyzed again. All methods are guarded by the monitor of the {@link CryptoScanner}.
+ *
+ * A checkpoint written before the scan ended is not final for the seeds that require predicates, as the
+ * seeds ensuring these predicates may not have been analyzed yet. When resuming from such a checkpoint,
+ * these seeds are analyzed again. A checkpoint is only resumed if it was written for the same application
+ * fingerprint. An incremental scan only restores seeds from a checkpoint that was written for the same class
+ * path and rules, as the results of all seeds depend on them.
+ *
+ * For each seed, the checkpoint also records hashes of the bodies of the methods its results depend on: the
+ * methods on its data-flow path and on the data-flow paths of its extracted parameters, and the callers of
+ * the method that creates the seed. An incremental scan only restores the seeds whose methods are unchanged.
+ * As the predicates of a seed may affect other seeds, a seed is analyzed again as well if it depends on a
+ * method in which an affected seed ensured predicates, or, if any seed is affected, if it misses a predicate.
+ */
+public class ScanCheckpointer extends CrySLAnalysisListener {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ScanCheckpointer.class);
+	public static final long CHECKPOINT_INTERVAL_MS = 60_000;
+
+	private final CryptoScanner cryptoScanner;
+	private final File directory;
+	private final ScanCheckpoint checkpoint;
+	private final Set<String> restorableSeeds;
+	private final List<ErrorRecord> restoredMissingPredicateErrors;
+	private final List<AnalysisSeedWithSpecification> analyzedSeeds = Lists.newArrayList();
+	private final Map<SootMethod, Map<Unit, Integer>> unitIndices = Maps.newHashMap();
+	private Map<String, CrySLPredicate> predicates;
+	private Multimap<String, ErrorRecord> errorsBySeed;
+	private Multimap<String, PredicateRecord> ensuredPredicatesBySeed;
+	private Multimap<String, PredicateRecord> expectedPredicatesBySeed;
+	private Multimap<String, PredicateRecord> predicatesOnOtherObjectsBySeed;
+	private Multimap<String, ErrorRecord> missingPredicateErrorsBySeed;
+	private boolean restoring;
+	private final Map<SootMethod, String> bodyHashes = Maps.newHashMap();
+	private long lastCheckpoint = System.currentTimeMillis();
+
+	/**
+	 * @param resume      if <code>true</code>, the seeds recorded in the checkpoint in the directory are restored
+	 * @param incremental if <code>true</code>, the seeds recorded in the checkpoint in the directory are restored
+	 *                    unless they are affected by methods whose bodies changed since the checkpoint was written
+	 * @param fingerprint the fingerprint of the application, class path and rules of the scan or
+	 *                    <code>null</code> to resume from any checkpoint. An incremental scan ignores it, as
+	 *                    the application changed.
+	 * @param environmentFingerprint the fingerprint of the class path and rules of the scan, excluding the
+	 *                    application, or <code>null</code> to scan incrementally from any checkpoint
+	 */
+	public ScanCheckpointer(CryptoScanner cryptoScanner, File directory, boolean resume, boolean incremental, String fingerprint, String environmentFingerprint) throws IOException {
+		this.cryptoScanner = cryptoScanner;
+		this.directory = directory;
+		this.checkpoint = resume || incremental ? load(directory, incremental ? environmentFingerprint : fingerprint, incremental) : new ScanCheckpoint();
+		this.checkpoint.setFingerprint(fingerprint);
+		this.checkpoint.setEnvironmentFingerprint(environmentFingerprint);
+		if (incremental) {
+			removeAffectedSeeds();
+		}
+		this.checkpoint.setComplete(false);
+		this.restorableSeeds = Sets.newHashSet(checkpoint.getProcessedSeeds());
+		this.restoredMissingPredicateErrors = Lists.newArrayList(checkpoint.getMissingPredicateErrors());
+		if (!restorableSeeds.isEmpty()) {
+			LOGGER.info("Resuming from checkpoint in " + directory + " with " + restorableSeeds.size() + " analyzed seeds");
+		}
+	}
+
+	/**
+	 * @param fingerprint the fingerprint the checkpoint must have been written for, i.e., the environment
+	 *                    fingerprint for an incremental scan and the application fingerprint otherwise
+	 */
+	private static ScanCheckpoint load(File directory, String fingerprint, boolean incremental) throws IOException {
+		ScanCheckpoint checkpoint = ScanCheckpoint.load(directory);
+		if (checkpoint.getProcessedSeeds().isEmpty()) {
+			return checkpoint;
+		}
+		String written = incremental ? checkpoint.getEnvironmentFingerprint() : checkpoint.getFingerprint();
+		if (fingerprint != null && !fingerprint.equals(written)) {
+			if (incremental) {
+				LOGGER.warn("Analyzing all seeds, as the checkpoint in " + directory + " was written for a different class path or rules");
+			} else {
+				LOGGER.warn("Not resuming from checkpoint in " + directory + ", as it was written for a different application, class path or rules");
+			}
+			return new ScanCheckpoint();
+		}
+		checkpoint.removeUnprocessedSeeds();
+		if (!checkpoint.isComplete()) {
+			checkpoint.removeSeeds(Sets.newHashSet(checkpoint.getSeedsRequiringPredicates()));
+		}
+		return checkpoint;
+	}
+
+	/**
+	 * Removes the seeds from the checkpoint that depend on changed methods, directly or through the predicates
+	 * of other affected seeds.
+	 */
+	private void removeAffectedSeeds() {
+		Set<String> affected = Sets.newHashSet();
+		for (String seed : checkpoint.getProcessedSeeds()) {
+			Map<String, String> methods = checkpoint.getSeedMethods().get(seed);
+			if (methods == null || methods.entrySet().stream().anyMatch(e -> !e.getValue().equals(bodyHash(e.getKey())))) {
+				affected.add(seed);
+			}
+		}
+		Multimap<String, String> predicateMethods = HashMultimap.create();
+		for (PredicateRecord record : Iterables.concat(checkpoint.getEnsuredPredicates(), checkpoint.getPredicatesOnOtherObjects())) {
+			predicateMethods.put(record.getSeed(), record.getLocation().getMethod());
+		}
+		Set<String> affectedMethods = Sets.newHashSet();
+		boolean changed = !affected.isEmpty();
+		while (changed) {
+			for (String seed : affected) {
+				affectedMethods.addAll(predicateMethods.get(seed));
+			}
+			changed = false;
+			for (String seed : checkpoint.getProcessedSeeds()) {
+				Map<String, String> methods = checkpoint.getSeedMethods().get(seed);
+				if (!affected.contains(seed) && !Collections.disjoint(methods.keySet(), affectedMethods)) {
+					changed |= affected.add(seed);
+				}
+			}
+		}
+		if (!affected.isEmpty()) {
+			affected.addAll(checkpoint.getSeedsRequiringPredicates());
+			for (ErrorRecord record : checkpoint.getMissingPredicateErrors()) {
+				affected.add(record.getSeed());
+			}
+		}
+		LOGGER.info("Incremental scan: " + affected.size() + " of " + checkpoint.getProcessedSeeds().size() + " analyzed seeds are affected by changed methods");
+		checkpoint.removeSeeds(affected);
+	}
+
+	private String bodyHash(String signature) {
+		if (!Scene.v().containsMethod(signature)) {
+			return null;
+		}
+		return bodyHash(Scene.v().getMethod(signature));
+	}
+
+	/**
+	 * @return a hash of the Jimple body of the method or of its signature if it has no body
+	 */
+	private String bodyHash(SootMethod method) {
+		return bodyHashes.computeIfAbsent(method, m -> {
+			Hasher hasher = Hashing.sha256().newHasher();
+			hasher.putString(m.getSignature(), StandardCharsets.UTF_8);
+			if (m.hasActiveBody()) {
+				for (Unit u : m.getActiveBody().getUnits()) {
+					hasher.putString(u.toString(), StandardCharsets.UTF_8);
+				}
+			}
+			return hasher.hash().toString();
+		});
+	}
+
+	/**
+	 * @return the methods the results of the seed depend on
+	 */
+	private Set<SootMethod> dependencies(AnalysisSeedWithSpecification seed) {
+		Set<SootMethod> methods = Sets.newHashSet(seed.getMethod());
+		for (Node<Statement, Val> node : seed.getDataFlowPath()) {
+			methods.add(node.stmt().getMethod());
+		}
+		if (seed.getParameterAnalysis() != null) {
+			for (ExtractedValue value : seed.getParameterAnalysis().getCollectedValues().values()) {
+				methods.add(value.stmt().getMethod());
+				for (Node<Statement, Val> node : value.getDataFlowPath()) {
+					methods.add(node.stmt().getMethod());
+				}
+			}
+		}
+		Iterator<Edge> callers = Scene.v().getCallGraph().edgesInto(seed.getMethod());
+		while (callers.hasNext()) {
+			methods.add(callers.next().src());
+		}
+		return methods;
+	}
+
+	/**
+	 * Restores the seed if it was analyzed by the scan the checkpoint was written by.
+	 *
+	 * @return <code>true</code> if the seed was restored and must not be analyzed again
+	 */
+	public boolean restore(IAnalysisSeed seed) {
+		if (!(seed instanceof AnalysisSeedWithSpecification)) {
+			return false;
+		}
+		synchronized (cryptoScanner) {
+			if (!restorableSeeds.contains(seed.getObjectId())) {
+				return false;
+			}
+			if (errorsBySeed == null) {
+				indexCheckpoint();
+			}
+			AnalysisSeedWithSpecification specSeed = (AnalysisSeedWithSpecification) seed;
+			String id = seed.getObjectId();
+			restorableSeeds.remove(id);
+			restoring = true;
+			try {
+				List<Node<Statement, Val>> cells = Lists.newArrayList();
+				for (Location location : checkpoint.getSeedCells().getOrDefault(id, Collections.emptyList())) {
+					Statement stmt = toStatement(location);
+					Val val = toVal(location, false);
+					if (stmt != null && val != null) {
+						cells.add(new Node<>(stmt, val));
+					}
+				}
+				specSeed.restoreResults(new SeedResultSummary(cells));
+				CrySLResultsReporter listener = cryptoScanner.getAnalysisListener();
+				for (ErrorRecord record : errorsBySeed.get(id)) {
+					AbstractError error = toError(record);
+					if (error != null) {
+						listener.reportError(seed, error);
+					}
+				}
+				for (ErrorRecord record : missingPredicateErrorsBySeed.get(id)) {
+					AbstractError error = toError(record);
+					if (error != null) {
+						listener.reportError(seed, error);
+					}
+				}
+				for (PredicateRecord record : ensuredPredicatesBySeed.get(id)) {
+					Statement stmt = toStatement(record.getLocation());
+					Val val = toVal(record.getLocation(), false);
+					EnsuredCrySLPredicate pred = toPredicate(record);
+					if (stmt != null && val != null && pred != null) {
+						cryptoScanner.getPredicateHandler().addNewPred(seed, stmt, val, pred);
+					}
+				}
+				for (PredicateRecord record : expectedPredicatesBySeed.get(id)) {
+					Statement stmt = toStatement(record.getLocation());
+					EnsuredCrySLPredicate pred = toPredicate(record);
+					if (stmt != null && pred != null) {
+						cryptoScanner.getPredicateHandler().expectPredicate(seed, stmt, pred.getPredicate());
+					}
+				}
+				for (PredicateRecord record : predicatesOnOtherObjectsBySeed.get(id)) {
+					Statement stmt = toStatement(record.getLocation());
+					Val val = toVal(record.getLocation(), true);
+					EnsuredCrySLPredicate pred = toPredicate(record);
+					if (stmt != null && val != null && pred != null) {
+						specSeed.expectPredicateOnOtherObject(pred, stmt, val, record.isSatisfied());
+					}
+				}
+			} finally {
+				restoring = false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Writes a checkpoint if the last one is older than the checkpoint interval.
+	 */
+	public void seedFinished() {
+		if (System.currentTimeMillis() - lastCheckpoint >= cryptoScanner.checkpointInterval()) {
+			save(false);
+		}
+	}
+
+	/**
+	 * @param complete <code>true</code> if the scan ended and analyzed all seeds
+	 */
+	public void save(boolean complete) {
+		synchronized (cryptoScanner) {
+			checkpoint.setComplete(complete);
+			List<ErrorRecord> missingPredicateErrors = Lists.newArrayList(restoredMissingPredicateErrors);
+			for (AnalysisSeedWithSpecification seed : analyzedSeeds) {
+				for (RequiredPredicateError error : cryptoScanner.getPredicateHandler().getMissingPredicateErrors(seed)) {
+					ErrorRecord record = toRecord(seed, error);
+					if (record != null) {
+						missingPredicateErrors.add(record);
+					}
+				}
+			}
+			checkpoint.setMissingPredicateErrors(missingPredicateErrors);
+			try {
+				checkpoint.save(directory);
+				LOGGER.info("Wrote checkpoint of " + checkpoint.getProcessedSeeds().size() + " analyzed seeds to " + directory);
+			} catch (IOException e) {
+				LOGGER.error("Failed to write checkpoint to " + directory, e);
+			}
+			lastCheckpoint = System.currentTimeMillis();
+		}
+	}
+
+	public void ensuredPredicate(IAnalysisSeed seed, Statement stmt, Val val, EnsuredCrySLPredicate ensPred) {
+		if (restoring || !(seed instanceof AnalysisSeedWithSpecification)) {
+			return;
+		}
+		Location location = toLocation(stmt, val);
+		if (location != null && location.getVariable() != null) {
+			checkpoint.getEnsuredPredicates().add(new PredicateRecord(seed.getObjectId(), ensPred.getPredicate().toString(), location, getParameterValues(ensPred)));
+		}
+	}
+
+	public void expectedPredicate(IAnalysisSeed seed, Statement stmt, CrySLPredicate predicate) {
+		if (restoring || !(seed instanceof AnalysisSeedWithSpecification)) {
+			return;
+		}
+		Location location = toLocation(stmt, null);
+		if (location != null) {
+			checkpoint.getExpectedPredicates().add(new PredicateRecord(seed.getObjectId(), predicate.toString(), location, Maps.newHashMap()));
+		}
+	}
+
+	void predicateOnOtherObject(AnalysisSeedWithSpecification seed, Statement stmt, Val val, EnsuredCrySLPredicate ensPred, boolean satisfied) {
+		if (restoring) {
+			return;
+		}
+		Location location = toLocation(stmt, val);
+		if (location != null && location.getVariable() != null) {
+			checkpoint.getPredicatesOnOtherObjects().add(new PredicateRecord(seed.getObjectId(), ensPred.getPredicate().toString(), location, getParameterValues(ensPred), satisfied));
+		}
+	}
+
+	@Override
+	public void reportError(AbstractError error) {
+		// The errors are recorded together with their seed by reportError(IAnalysisSeed, AbstractError)
+	}
+
+	/**
+	 * Records the error for the seed that reported it, or for the object the error is about.
+	 *
+	 * @param seed the seed that reported the error or <code>null</code> if it is not reported by a seed
+	 */
+	public void reportError(IAnalysisSeed seed, AbstractError error) {
+		if (restoring) {
+			return;
+		}
+		if (error instanceof ErrorWithObjectAllocation) {
+			seed = ((ErrorWithObjectAllocation) error).getObjectLocation();
+		}
+		if (seed instanceof AnalysisSeedWithSpecification) {
+			ErrorRecord record = toRecord(seed, error);
+			if (record != null) {
+				checkpoint.getErrors().add(record);
+			}
+		}
+	}
+
+	@Override
+	public void beforeConstraintCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+		// Nothing
+	}
+
+	@Override
+	public void onSeedFinished(IAnalysisSeed seed, ForwardBoomerangResults<TransitionFunction> analysisResults) {
+		if (seed instanceof AnalysisSeedWithSpecification) {
+			AnalysisSeedWithSpecification specSeed = (AnalysisSeedWithSpecification) seed;
+			checkpoint.getProcessedSeeds().add(seed.getObjectId());
+			analyzedSeeds.add(specSeed);
+			Map<String, String> methods = Maps.newHashMap();
+			for (SootMethod method : dependencies(specSeed)) {
+				methods.put(method.getSignature(), bodyHash(method));
+			}
+			checkpoint.getSeedMethods().put(seed.getObjectId(), methods);
+			List<Location> cells = Lists.newArrayList();
+			for (Cell<Statement, Val, Set<State>> c : specSeed.getResults().cellSet()) {
+				Location location = toLocation(c.getRowKey(), c.getColumnKey());
+				if (location != null && location.getVariable() != null) {
+					cells.add(location);
+				}
+			}
+			checkpoint.getSeedCells().put(seed.getObjectId(), cells);
+			if (specSeed.requiresPredicates()) {
+				checkpoint.getSeedsRequiringPredicates().add(seed.getObjectId());
+			}
+		}
+	}
+
+	private void indexCheckpoint() {
+		predicates = Maps.newHashMap();
+		for (ClassSpecification spec : cryptoScanner.getClassSpecifictions()) {
+			for (CrySLPredicate pred : spec.getRule().getPredicates()) {
+				predicates.put(pred.toString(), pred);
+			}
+		}
+		errorsBySeed = HashMultimap.create();
+		for (ErrorRecord record : checkpoint.getErrors()) {
+			errorsBySeed.put(record.getSeed(), record);
+		}
+		missingPredicateErrorsBySeed = HashMultimap.create();
+		for (ErrorRecord record : restoredMissingPredicateErrors) {
+			missingPredicateErrorsBySeed.put(record.getSeed(), record);
+		}
+		ensuredPredicatesBySeed = indexBySeed(checkpoint.getEnsuredPredicates());
+		expectedPredicatesBySeed = indexBySeed(checkpoint.getExpectedPredicates());
+		predicatesOnOtherObjectsBySeed = indexBySeed(checkpoint.getPredicatesOnOtherObjects());
+	}
+
+	private Multimap<String, PredicateRecord> indexBySeed(List<PredicateRecord> records) {
+		Multimap<String, PredicateRecord> index = HashMultimap.create();
+		for (PredicateRecord record : records) {
+			index.put(record.getSeed(), record);
+		}
+		return index;
+	}
+
+	private ErrorRecord toRecord(IAnalysisSeed seed, AbstractError error) {
+		if (error.getRule() == null) {
+			return null;
+		}
+		Location location = toLocation(error.getErrorLocation(), null);
+		if (location == null) {
+			return null;
+		}
+		return new ErrorRecord(seed.getObjectId(), error.getErrorClass().getName(), error.getRule().getClassName(), location, error.toErrorMarkerString());
+	}
+
+	private AbstractError toError(ErrorRecord record) {
+		Statement stmt = toStatement(record.getLocation());
+		CrySLRule rule = null;
+		for (ClassSpecification spec : cryptoScanner.getClassSpecifictions()) {
+			if (spec.getRule().getClassName().equals(record.getRule())) {
+				rule = spec.getRule();
+			}
+		}
+		if (stmt == null || rule == null) {
+			return null;
+		}
+		try {
+			Class<? extends AbstractError> errorClass = Class.forName(record.getType()).asSubclass(AbstractError.class);
+			return new RestoredError(stmt, rule, errorClass, record.getMessage());
+		} catch (ClassNotFoundException | ClassCastException e) {
+			LOGGER.warn("Cannot restore error of unknown type " + record.getType());
+			return null;
+		}
+	}
+
+	private EnsuredCrySLPredicate toPredicate(PredicateRecord record) {
+		CrySLPredicate pred = predicates.get(record.getPredicate());
+		if (pred == null) {
+			return null;
+		}
+		return new RestoredCrySLPredicate(pred, record.getParameterValues());
+	}
+
+	private Map<String, Collection<String>> getParameterValues(EnsuredCrySLPredicate ensPred) {
+		Map<String, Collection<String>> values = Maps.newHashMap();
+		for (ICrySLPredicateParameter param : ensPred.getPredicate().getParameters()) {
+			Collection<String> paramValues = AnalysisSeedWithSpecification.getParameterValues(ensPred, param.getName());
+			if (!paramValues.isEmpty()) {
+				values.put(param.getName(), Lists.newArrayList(paramValues));
+			}
+		}
+		return values;
+	}
+
+	private Location toLocation(Statement stmt, Val val) {
+		if (!stmt.getUnit().isPresent()) {
+			return null;
+		}
+		SootMethod method = stmt.getMethod();
+		Map<Unit, Integer> indices = unitIndices.get(method);
+		if (indices == null) {
+			indices = Maps.newHashMap();
+			int i = 0;
+			for (Unit u : method.getActiveBody().getUnits()) {
+				indices.put(u, i++);
+			}
+			unitIndices.put(method, indices);
+		}
+		Integer index = indices.get(stmt.getUnit().get());
+		if (index == null) {
+			return null;
+		}
+		String variable = null;
+		if (val != null && val.value() instanceof Local) {
+			variable = ((Local) val.value()).getName();
+		}
+		return new Location(method.getSignature(), index, variable);
+	}
+
+	private Statement toStatement(Location location) {
+		if (!Scene.v().containsMethod(location.getMethod())) {
+			return null;
+		}
+		SootMethod method = Scene.v().getMethod(location.getMethod());
+		if (!method.hasActiveBody()) {
+			return null;
+		}
+		int i = 0;
+		for (Unit u : method.getActiveBody().getUnits()) {
+			if (i++ == location.getUnit()) {
+				return new Statement((Stmt) u, method);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param allocation if <code>true</code>, a variable that is defined by the statement is restored as an
+	 *                   allocation site of that statement
+	 */
+	private Val toVal(Location location, boolean allocation) {
+		Statement stmt = toStatement(location);
+		if (stmt == null || location.getVariable() == null) {
+			return null;
+		}
+		SootMethod method = stmt.getMethod();
+		for (Local local : method.getActiveBody().getLocals()) {
+			if (local.getName().equals(location.getVariable())) {
+				Unit u = stmt.getUnit().get();
+				if (allocation && u instanceof AssignStmt && local.equals(((AssignStmt) u).getLeftOp())) {
+					Value rightOp = ((AssignStmt) u).getRightOp();
+					return new AllocVal(local, method, rightOp, stmt);
+				}
+				return new Val(local, method);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void checkedConstraints(AnalysisSeedWithSpecification analysisSeedWithSpecification, Collection<ISLConstraint> relConstraints) {
+		// Nothing
+	}
+
+	@Override
+	public void onSeedTimeout(Node<Statement, Val> seed) {
+		// Nothing
+	}
+
+	@Override
+	public void collectedValues(AnalysisSeedWithSpecification seed, Multimap<CallSiteWithParamIndex, ExtractedValue> collectedValues) {
+		// Nothing
+	}
+
+	@Override
+	public void discoveredSeed(IAnalysisSeed curr) {
+		// Nothing
+	}
+
+	@Override
+	public void onSecureObjectFound(IAnalysisSeed analysisObject) {
+		// Nothing
+	}
+
+	@Override
+	public void addProgress(int processedSeeds, int workListsize) {
+		// Nothing
+	}
+
+	@Override
+	public void beforeAnalysis() {
+		// Nothing
+	}
+
+	@Override
+	public void afterAnalysis() {
+		// Nothing
+	}
+
+	@Override
+	public void afterConstraintCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+		// Nothing
+	}
+
+	@Override
+	public void beforePredicateCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+		// Nothing
+	}
+
+	@Override
+	public void afterPredicateCheck(AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+		// Nothing
+	}
+
+	@Override
+	public void seedStarted(IAnalysisSeed analysisSeedWithSpecification) {
+		// Nothing
+	}
+
+	@Override
+	public void boomerangQueryStarted(Query seed, BackwardQuery q) {
+		// Nothing
+	}
+
+	@Override
+	public void boomerangQueryFinished(Query seed, BackwardQuery q) {
+		// Nothing
+	}
+
+	@Override
+	public void ensuredPredicates(Table<Statement, Val, Set<EnsuredCrySLPredicate>> existingPredicates, Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> expectedPredicates, Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> missingPredicates) {
+		// Nothing
+	}
+}
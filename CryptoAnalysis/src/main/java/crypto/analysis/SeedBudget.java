@@ -0,0 +1,126 @@
+package crypto.analysis;
+
+import crypto.exceptions.ScanDeadlineExceededException;
+import crypto.exceptions.SeedBudgetExceededException;
+
+/**
+ * Limits the resources the analysis of a single seed may consume. A budget consists of a wall-clock
+ * timeout, a maximal number of propagations of the typestate analysis and a maximal growth of the used
+ * heap. Each limit is disabled if it is not positive. Additionally, the time of a seed can be limited by
+ * the deadline of the whole scan (see {@link #limitTo(long)}).
+ * 
+ * The budget is enforced cooperatively: the typestate analysis reports each propagation via
+ * {@link #propagated()} and the remaining phases of a seed call {@link #check()} between their steps.
+ * Both throw a {@link SeedBudgetExceededException} once a limit is exceeded, or a
+ * {@link ScanDeadlineExceededException} once the deadline of the scan is reached. Note that the heap is shared
+ * by all threads, hence the heap limit is only an approximation if seeds are analyzed in parallel.
+ */
+public class SeedBudget {
+
+	private static final int TIME_CHECK_INTERVAL = 64;
+	private static final int HEAP_CHECK_INTERVAL = 1024;
+	private static final long BYTES_PER_MB = 1024 * 1024;
+
+	private final long timeoutInMs;
+	private final long maxPropagations;
+	private final long maxHeapDeltaInMB;
+	private long scanDeadline = Long.MAX_VALUE;
+	private long deadline;
+	private long initialHeap;
+	private long propagations;
+
+	/**
+	 * @param timeoutInMs the wall-clock time a seed may take in milliseconds
+	 * @param maxPropagations the number of propagations the typestate analysis of a seed may perform
+	 * @param maxHeapDeltaInMB the number of megabytes the used heap may grow while analyzing a seed
+	 */
+	public SeedBudget(long timeoutInMs, long maxPropagations, long maxHeapDeltaInMB) {
+		this.timeoutInMs = timeoutInMs;
+		this.maxPropagations = maxPropagations;
+		this.maxHeapDeltaInMB = maxHeapDeltaInMB;
+	}
+
+	public static SeedBudget unlimited() {
+		return new SeedBudget(0, 0, 0);
+	}
+
+	public boolean isUnlimited() {
+		return timeoutInMs <= 0 && maxPropagations <= 0 && maxHeapDeltaInMB <= 0 && scanDeadline == Long.MAX_VALUE;
+	}
+
+	/**
+	 * Limits the time of the seed to the deadline of the scan.
+	 * 
+	 * @param scanDeadline the point in time (in milliseconds since the epoch) at which the scan stops
+	 * @return this budget
+	 */
+	public SeedBudget limitTo(long scanDeadline) {
+		this.scanDeadline = scanDeadline;
+		return this;
+	}
+
+	/**
+	 * Starts the budget. Must be called once before the analysis of the seed begins.
+	 */
+	public void start() {
+		deadline = timeoutInMs > 0 ? Math.min(System.currentTimeMillis() + timeoutInMs, scanDeadline) : scanDeadline;
+		initialHeap = usedHeap();
+		propagations = 0;
+	}
+
+	/**
+	 * Accounts for a single propagation of the typestate analysis. The time and heap limits are only
+	 * checked every few propagations to keep the overhead low.
+	 */
+	public void propagated() {
+		propagations++;
+		if (maxPropagations > 0 && propagations > maxPropagations) {
+			throw new SeedBudgetExceededException("Seed exceeded its budget of " + maxPropagations + " propagations");
+		}
+		if (propagations % TIME_CHECK_INTERVAL == 0) {
+			checkTime();
+		}
+		if (propagations % HEAP_CHECK_INTERVAL == 0) {
+			checkHeap();
+		}
+	}
+
+	/**
+	 * Checks the time and heap limits of this budget.
+	 */
+	public void check() {
+		checkTime();
+		checkHeap();
+	}
+
+	public long getPropagations() {
+		return propagations;
+	}
+
+	private void checkTime() {
+		if (deadline == Long.MAX_VALUE) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		if (now > scanDeadline) {
+			throw new ScanDeadlineExceededException("Reached the deadline of the scan");
+		}
+		if (now > deadline) {
+			throw new SeedBudgetExceededException("Seed exceeded its time budget of " + timeoutInMs + " ms");
+		}
+	}
+
+	private void checkHeap() {
+		if (maxHeapDeltaInMB > 0 && usedHeap() - initialHeap > maxHeapDeltaInMB * BYTES_PER_MB) {
+			throw new SeedBudgetExceededException("Seed exceeded its heap budget of " + maxHeapDeltaInMB + " MB");
+		}
+	}
+
+	/**
+	 * @return the number of bytes currently used on the heap
+	 */
+	protected long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,87 @@
+package crypto.analysis;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Table;
+import com.google.common.collect.Table.Cell;
+
+import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import boomerang.results.ForwardBoomerangResults;
+import sync.pds.solver.nodes.Node;
+import typestate.TransitionFunction;
+import typestate.finiteautomata.ITransition;
+import typestate.finiteautomata.State;
+
+/**
+ * The part of the typestate results of a seed that is consulted after the seed has been analyzed: at which
+ * statements which variables hold the object, the states the object may be in there, and its data-flow path.
+ *
+ * The full {@link ForwardBoomerangResults} keep the weights, the state change statements and, through them,
+ * the solvers of the seed alive. A seed keeps this summary instead, such that these are released as soon as
+ * the seed is done. Equal sets of states are shared between the statements of a seed.
+ */
+public class SeedResultSummary {
+
+	private final Table<Statement, Val, Set<State>> states;
+	private final Set<Node<Statement, Val>> dataFlowPath;
+
+	public SeedResultSummary(ForwardBoomerangResults<TransitionFunction> results) {
+		ImmutableTable.Builder<Statement, Val, Set<State>> builder = ImmutableTable.builder();
+		Map<Set<State>, Set<State>> interned = Maps.newHashMap();
+		for (Cell<Statement, Val, TransitionFunction> c : results.asStatementValWeightTable().cellSet()) {
+			Set<State> targetStates = getTargetStates(c.getValue());
+			builder.put(c.getRowKey(), c.getColumnKey(), interned.computeIfAbsent(targetStates, s -> s));
+		}
+		this.states = builder.build();
+		this.dataFlowPath = ImmutableSet.copyOf(results.getDataFlowPath());
+	}
+
+	/**
+	 * Creates the summary of a seed that was restored from a checkpoint. Only the statements and variables
+	 * that hold the object are known, which also form its data-flow path, but not the states of the object.
+	 */
+	public SeedResultSummary(Collection<Node<Statement, Val>> cells) {
+		ImmutableTable.Builder<Statement, Val, Set<State>> builder = ImmutableTable.builder();
+		for (Node<Statement, Val> cell : ImmutableSet.copyOf(cells)) {
+			builder.put(cell.stmt(), cell.fact(), ImmutableSet.of());
+		}
+		this.states = builder.build();
+		this.dataFlowPath = ImmutableSet.copyOf(cells);
+	}
+
+	/**
+	 * @return the states the transitions of the weight lead to
+	 */
+	static Set<State> getTargetStates(TransitionFunction value) {
+		ImmutableSet.Builder<State> res = ImmutableSet.builder();
+		for (ITransition t : value.values()) {
+			if (t.to() != null)
+				res.add(t.to());
+		}
+		return res.build();
+	}
+
+	/**
+	 * @return <code>true</code> if the variable holds the object at the statement
+	 */
+	public boolean reaches(Statement stmt, Val val) {
+		return states.contains(stmt, val);
+	}
+
+	/**
+	 * @return for each statement and variable that holds the object, the states the object may be in
+	 */
+	public Set<Cell<Statement, Val, Set<State>>> cellSet() {
+		return states.cellSet();
+	}
+
+	public Set<Node<Statement, Val>> getDataFlowPath() {
+		return dataFlowPath;
+	}
+}
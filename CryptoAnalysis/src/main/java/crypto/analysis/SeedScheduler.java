@@ -0,0 +1,241 @@
+package crypto.analysis;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+import crypto.constraints.ConstraintSolver;
+import crypto.interfaces.ISLConstraint;
+import crypto.rules.CrySLConstraint;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+
+/**
+ * Orders the seeds of the analysis such that seeds of rules that ensure a predicate are analyzed before
+ * the seeds of rules that require it.
+ *
+ * The scheduler builds a dependency graph over the rules with an edge from rule A to rule B whenever A
+ * ensures a predicate that B requires. Rules that depend on each other cyclically are collapsed to
+ * their strongly connected component. Each rule is then ranked by the length of the longest producer
+ * chain that leads to its component. Seeds are ordered by the rank of their rule and, for equal ranks,
+ * by the order in which they were discovered. Seeds without a specification only carry ensured
+ * predicates to other objects and are therefore always scheduled first.
+ */
+public class SeedScheduler implements Comparator<IAnalysisSeed> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SeedScheduler.class);
+	private static final int PREDICATE_CARRIER_RANK = -1;
+
+	private final Map<String, Integer> ruleRanks = Maps.newHashMap();
+	private final Map<IAnalysisSeed, Long> discoveryOrder = Maps.newIdentityHashMap();
+	private long discoveredSeeds;
+
+	public SeedScheduler(Collection<ClassSpecification> specifications) {
+		this(getRules(specifications));
+	}
+
+	public SeedScheduler(List<CrySLRule> rules) {
+		computeRanks(rules);
+	}
+
+	private static List<CrySLRule> getRules(Collection<ClassSpecification> specifications) {
+		List<CrySLRule> rules = Lists.newArrayList();
+		for (ClassSpecification spec : specifications) {
+			rules.add(spec.getRule());
+		}
+		return rules;
+	}
+
+	/**
+	 * Records the discovery of a seed. Must be called before the seed is added to a queue ordered by this
+	 * scheduler.
+	 */
+	public synchronized void discovered(IAnalysisSeed seed) {
+		if (!discoveryOrder.containsKey(seed)) {
+			discoveryOrder.put(seed, discoveredSeeds++);
+		}
+	}
+
+	public int getRank(IAnalysisSeed seed) {
+		if (seed instanceof AnalysisSeedWithSpecification) {
+			return getRank(((AnalysisSeedWithSpecification) seed).getSpec().getRule());
+		}
+		return PREDICATE_CARRIER_RANK;
+	}
+
+	/**
+	 * @return the length of the longest producer chain that leads to the component of the rule
+	 */
+	public int getRank(CrySLRule rule) {
+		Integer rank = ruleRanks.get(rule.getClassName());
+		return rank == null ? 0 : rank;
+	}
+
+	@Override
+	public synchronized int compare(IAnalysisSeed seed1, IAnalysisSeed seed2) {
+		int rankOrder = Integer.compare(getRank(seed1), getRank(seed2));
+		if (rankOrder != 0) {
+			return rankOrder;
+		}
+		return Long.compare(discoveryOrder.getOrDefault(seed1, Long.MAX_VALUE), discoveryOrder.getOrDefault(seed2, Long.MAX_VALUE));
+	}
+
+	private void computeRanks(List<CrySLRule> rules) {
+		Multimap<String, CrySLRule> producers = HashMultimap.create();
+		for (CrySLRule rule : rules) {
+			for (CrySLPredicate ensured : rule.getPredicates()) {
+				if (!ensured.isNegated()) {
+					producers.put(ensured.getPredName(), rule);
+				}
+			}
+		}
+		Multimap<CrySLRule, CrySLRule> dependencies = HashMultimap.create();
+		for (CrySLRule consumer : rules) {
+			for (String required : getRequiredPredicateNames(consumer)) {
+				for (CrySLRule producer : producers.get(required)) {
+					if (!producer.equals(consumer)) {
+						dependencies.put(producer, consumer);
+					}
+				}
+			}
+		}
+
+		List<Set<CrySLRule>> components = new StronglyConnectedComponents(rules, dependencies).compute();
+		Map<CrySLRule, Integer> componentOf = Maps.newHashMap();
+		for (int i = 0; i < components.size(); i++) {
+			for (CrySLRule rule : components.get(i)) {
+				componentOf.put(rule, i);
+			}
+		}
+
+		// Tarjan's algorithm emits the components in reverse topological order, i.e., every component is
+		// emitted after all components it has an edge to. We therefore walk the list backwards.
+		int[] componentRanks = new int[components.size()];
+		int cyclicComponents = 0;
+		for (int i = components.size() - 1; i >= 0; i--) {
+			if (components.get(i).size() > 1) {
+				cyclicComponents++;
+			}
+			for (CrySLRule producer : components.get(i)) {
+				for (CrySLRule consumer : dependencies.get(producer)) {
+					int target = componentOf.get(consumer);
+					if (target != i) {
+						componentRanks[target] = Math.max(componentRanks[target], componentRanks[i] + 1);
+					}
+				}
+			}
+		}
+		for (CrySLRule rule : rules) {
+			ruleRanks.put(rule.getClassName(), componentRanks[componentOf.get(rule)]);
+		}
+		LOGGER.info("Scheduling seeds of " + rules.size() + " rules in " + components.size() + " dependency components (" + cyclicComponents + " cyclic)");
+	}
+
+	private Set<String> getRequiredPredicateNames(CrySLRule rule) {
+		Set<String> required = Sets.newHashSet();
+		for (ISLConstraint constraint : rule.getConstraints()) {
+			collectRequiredPredicateNames(constraint, required);
+		}
+		return required;
+	}
+
+	private void collectRequiredPredicateNames(ISLConstraint constraint, Set<String> required) {
+		if (constraint instanceof CrySLPredicate) {
+			String predName = ((CrySLPredicate) constraint).getPredName();
+			if (!ConstraintSolver.predefinedPreds.contains(predName)) {
+				required.add(predName);
+			}
+		} else if (constraint instanceof CrySLConstraint) {
+			collectRequiredPredicateNames(((CrySLConstraint) constraint).getLeft(), required);
+			collectRequiredPredicateNames(((CrySLConstraint) constraint).getRight(), required);
+		}
+	}
+
+	/**
+	 * Iterative variant of Tarjan's algorithm, such that deep rule chains cannot overflow the stack.
+	 */
+	private static class StronglyConnectedComponents {
+
+		private final List<CrySLRule> nodes;
+		private final Multimap<CrySLRule, CrySLRule> edges;
+		private final Map<CrySLRule, Integer> index = Maps.newHashMap();
+		private final Map<CrySLRule, Integer> lowLink = Maps.newHashMap();
+		private final Set<CrySLRule> onStack = Sets.newHashSet();
+		private final Deque<CrySLRule> stack = Lists.newLinkedList();
+		private final List<Set<CrySLRule>> components = Lists.newArrayList();
+		private int nextIndex;
+
+		StronglyConnectedComponents(List<CrySLRule> nodes, Multimap<CrySLRule, CrySLRule> edges) {
+			this.nodes = nodes;
+			this.edges = edges;
+		}
+
+		List<Set<CrySLRule>> compute() {
+			for (CrySLRule node : nodes) {
+				if (!index.containsKey(node)) {
+					visit(node);
+				}
+			}
+			return components;
+		}
+
+		private void visit(CrySLRule root) {
+			Deque<CrySLRule> callStack = Lists.newLinkedList();
+			Map<CrySLRule, Iterator<CrySLRule>> successors = Maps.newHashMap();
+			enter(root);
+			callStack.push(root);
+			successors.put(root, edges.get(root).iterator());
+			while (!callStack.isEmpty()) {
+				CrySLRule node = callStack.peek();
+				Iterator<CrySLRule> it = successors.get(node);
+				if (it.hasNext()) {
+					CrySLRule succ = it.next();
+					if (!index.containsKey(succ)) {
+						enter(succ);
+						callStack.push(succ);
+						successors.put(succ, edges.get(succ).iterator());
+					} else if (onStack.contains(succ)) {
+						lowLink.put(node, Math.min(lowLink.get(node), index.get(succ)));
+					}
+					continue;
+				}
+				callStack.pop();
+				if (!callStack.isEmpty()) {
+					CrySLRule parent = callStack.peek();
+					lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(node)));
+				}
+				if (lowLink.get(node).equals(index.get(node))) {
+					Set<CrySLRule> component = Sets.newHashSet();
+					CrySLRule member;
+					do {
+						member = stack.pop();
+						onStack.remove(member);
+						component.add(member);
+					} while (!member.equals(node));
+					components.add(component);
+				}
+			}
+		}
+
+		private void enter(CrySLRule node) {
+			index.put(node, nextIndex);
+			lowLink.put(node, nextIndex);
+			nextIndex++;
+			stack.push(node);
+			onStack.add(node);
+		}
+	}
+}
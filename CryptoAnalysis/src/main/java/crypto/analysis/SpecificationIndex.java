@@ -0,0 +1,143 @@
+package crypto.analysis;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+
+import crypto.rules.CrySLForbiddenMethod;
+import crypto.typestate.CrySLMethodToSootMethod;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+
+/**
+ * Maps each method that is referenced by a specification to the roles it plays in that specification, such
+ * that the statements of a method body can be matched against all specifications with a single lookup per
+ * call site.
+ *
+ * The entries of a method are ordered by the order of the specifications, and, within a specification, by
+ * the order in which the rule declares them.
+ */
+public class SpecificationIndex {
+
+	public enum Role {
+		/**
+		 * The method is a label of the initial transition, i.e., a call to it creates a seed.
+		 */
+		INITIAL_TRANSITION,
+		/**
+		 * The method is forbidden and calling it is reported as {@link crypto.analysis.errors.ForbiddenMethodError}.
+		 */
+		FORBIDDEN_METHOD
+	}
+
+	public static class Entry {
+		private final ClassSpecification spec;
+		private final Role role;
+		private final CrySLForbiddenMethod forbiddenMethod;
+
+		private Entry(ClassSpecification spec, Role role, CrySLForbiddenMethod forbiddenMethod) {
+			this.spec = spec;
+			this.role = role;
+			this.forbiddenMethod = forbiddenMethod;
+		}
+
+		public ClassSpecification getSpec() {
+			return spec;
+		}
+
+		public Role getRole() {
+			return role;
+		}
+
+		/**
+		 * @return the forbidden method declaration if the role is {@link Role#FORBIDDEN_METHOD}
+		 */
+		public CrySLForbiddenMethod getForbiddenMethod() {
+			return forbiddenMethod;
+		}
+	}
+
+	/**
+	 * A call site within a method body together with an entry of its invoked method.
+	 */
+	public static class Match {
+		private final Unit unit;
+		private final Entry entry;
+
+		private Match(Unit unit, Entry entry) {
+			this.unit = unit;
+			this.entry = entry;
+		}
+
+		public Unit getUnit() {
+			return unit;
+		}
+
+		public Entry getEntry() {
+			return entry;
+		}
+	}
+
+	private final ListMultimap<SootMethod, Entry> entries = ArrayListMultimap.create();
+
+	public SpecificationIndex(List<ClassSpecification> specifications) {
+		for (ClassSpecification spec : specifications) {
+			for (SootMethod method : spec.getFSM().initialTransitonLabel()) {
+				entries.put(method, new Entry(spec, Role.INITIAL_TRANSITION, null));
+			}
+			for (CrySLForbiddenMethod forbidden : spec.getRule().getForbiddenMethods()) {
+				if (forbidden.getSilent()) {
+					continue;
+				}
+				for (SootMethod method : CrySLMethodToSootMethod.v().convert(forbidden.getMethod())) {
+					if (!hasEntry(method, spec, Role.FORBIDDEN_METHOD)) {
+						// Only the first declaration is reported, just as ClassSpecification#isForbiddenMethod does.
+						entries.put(method, new Entry(spec, Role.FORBIDDEN_METHOD, forbidden));
+					}
+				}
+			}
+		}
+	}
+
+	private boolean hasEntry(SootMethod method, ClassSpecification spec, Role role) {
+		for (Entry e : entries.get(method)) {
+			if (e.getSpec().equals(spec) && e.getRole() == role) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the entries of the method, or an empty list if no specification refers to it
+	 */
+	public List<Entry> get(SootMethod method) {
+		return entries.get(method);
+	}
+
+	/**
+	 * Matches all call sites of the body against the index.
+	 *
+	 * @return the matches in the order of the statements in the body
+	 */
+	public List<Match> match(SootMethod method) {
+		List<Match> matches = Lists.newArrayList();
+		if (!method.hasActiveBody()) {
+			return matches;
+		}
+		for (Unit u : method.getActiveBody().getUnits()) {
+			if (!(u instanceof Stmt) || !((Stmt) u).containsInvokeExpr()) {
+				continue;
+			}
+			Collection<Entry> invoked = entries.get(((Stmt) u).getInvokeExpr().getMethod());
+			for (Entry e : invoked) {
+				matches.add(new Match(u, e));
+			}
+		}
+		return matches;
+	}
+}
@@ -0,0 +1,164 @@
+package crypto.analysis;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import boomerang.callgraph.CalleeListener;
+import boomerang.callgraph.CallerListener;
+import boomerang.callgraph.ObservableICFG;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.jimple.toolkits.callgraph.Edge;
+
+/**
+ * Serializes the accesses to an interprocedural control-flow graph that is shared by the workers of a
+ * {@link CryptoScanner}. The {@link boomerang.callgraph.ObservableDynamicICFG} resolves the call graph on
+ * demand and records the resolved edges and the registered callee and caller listeners in unsynchronized
+ * maps, hence concurrent seeds must not access it without a lock.
+ *
+ * The lock is reentrant, such that listeners that are notified while the lock is held may query the graph
+ * again. The lock is acquired after the monitor of the scanner, never before it.
+ */
+public class SynchronizedICFG implements ObservableICFG<Unit, SootMethod> {
+
+	private final ObservableICFG<Unit, SootMethod> icfg;
+
+	private SynchronizedICFG(ObservableICFG<Unit, SootMethod> icfg) {
+		this.icfg = icfg;
+	}
+
+	/**
+	 * @return a view of the graph that delegates every call to the graph while holding the monitor of the graph
+	 */
+	public static ObservableICFG<Unit, SootMethod> of(ObservableICFG<Unit, SootMethod> icfg) {
+		return new SynchronizedICFG(icfg);
+	}
+
+	@Override
+	public SootMethod getMethodOf(Unit unit) {
+		synchronized (icfg) {
+			return icfg.getMethodOf(unit);
+		}
+	}
+
+	@Override
+	public List<Unit> getPredsOf(Unit unit) {
+		synchronized (icfg) {
+			return icfg.getPredsOf(unit);
+		}
+	}
+
+	@Override
+	public List<Unit> getSuccsOf(Unit unit) {
+		synchronized (icfg) {
+			return icfg.getSuccsOf(unit);
+		}
+	}
+
+	@Override
+	public void addCalleeListener(CalleeListener<Unit, SootMethod> listener) {
+		synchronized (icfg) {
+			icfg.addCalleeListener(listener);
+		}
+	}
+
+	@Override
+	public void addCallerListener(CallerListener<Unit, SootMethod> listener) {
+		synchronized (icfg) {
+			icfg.addCallerListener(listener);
+		}
+	}
+
+	@Override
+	public Set<Unit> getCallsFromWithin(SootMethod method) {
+		synchronized (icfg) {
+			return icfg.getCallsFromWithin(method);
+		}
+	}
+
+	@Override
+	public Collection<Unit> getStartPointsOf(SootMethod method) {
+		synchronized (icfg) {
+			return icfg.getStartPointsOf(method);
+		}
+	}
+
+	@Override
+	public boolean isCallStmt(Unit unit) {
+		synchronized (icfg) {
+			return icfg.isCallStmt(unit);
+		}
+	}
+
+	@Override
+	public boolean isExitStmt(Unit unit) {
+		synchronized (icfg) {
+			return icfg.isExitStmt(unit);
+		}
+	}
+
+	@Override
+	public boolean isStartPoint(Unit unit) {
+		synchronized (icfg) {
+			return icfg.isStartPoint(unit);
+		}
+	}
+
+	@Override
+	public Set<Unit> allNonCallStartNodes() {
+		synchronized (icfg) {
+			return icfg.allNonCallStartNodes();
+		}
+	}
+
+	@Override
+	public Collection<Unit> getEndPointsOf(SootMethod method) {
+		synchronized (icfg) {
+			return icfg.getEndPointsOf(method);
+		}
+	}
+
+	@Override
+	public List<Value> getParameterRefs(SootMethod method) {
+		synchronized (icfg) {
+			return icfg.getParameterRefs(method);
+		}
+	}
+
+	@Override
+	public boolean isReachable(Unit unit) {
+		synchronized (icfg) {
+			return icfg.isReachable(unit);
+		}
+	}
+
+	@Override
+	public void addEdges(Edge edge) {
+		synchronized (icfg) {
+			icfg.addEdges(edge);
+		}
+	}
+
+	@Override
+	public int getNumberOfEdgesTakenFromPrecomputedGraph() {
+		synchronized (icfg) {
+			return icfg.getNumberOfEdgesTakenFromPrecomputedGraph();
+		}
+	}
+
+	@Override
+	public void resetCallGraph() {
+		synchronized (icfg) {
+			icfg.resetCallGraph();
+		}
+	}
+
+	@Override
+	public void computeFallback() {
+		synchronized (icfg) {
+			icfg.computeFallback();
+		}
+	}
+}
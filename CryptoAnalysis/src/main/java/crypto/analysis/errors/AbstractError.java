@@ -40,6 +40,14 @@ public abstract class AbstractError implements IError{
 	}
 	public abstract String toErrorMarkerString();
 
+	/**
+	 * @return the type under which this error is reported. This is the class of the error itself, except
+	 *         for errors that are restored from a checkpoint of an earlier scan.
+	 */
+	public Class<? extends AbstractError> getErrorClass() {
+		return getClass();
+	}
+
 	public String toString() {
 		return toErrorMarkerString();
 	}
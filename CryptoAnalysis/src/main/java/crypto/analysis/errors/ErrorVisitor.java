@@ -11,4 +11,11 @@ public interface ErrorVisitor {
 	public void visit(PredicateContradictionError predicateContradictionError);
 	public void visit(HardCodedError hardcodedError);
   public void visit(UncaughtExceptionError uncaughtExceptionError);
+
+	/**
+	 * Visits an error that was restored from a checkpoint. Does nothing by default, as a restored error only
+	 * carries the type, location and message of the original error.
+	 */
+	public default void visit(RestoredError restoredError) {
+	}
 }
@@ -0,0 +1,64 @@
+package crypto.analysis.errors;
+
+import boomerang.jimple.Statement;
+import crypto.rules.CrySLRule;
+
+/**
+ * An error that was reported by an earlier scan and restored from its checkpoint. The error only keeps
+ * the information required for reporting, i.e., its type, location, rule and message.
+ */
+public class RestoredError extends AbstractError {
+
+	private final Class<? extends AbstractError> errorClass;
+	private final String message;
+
+	public RestoredError(Statement errorLocation, CrySLRule rule, Class<? extends AbstractError> errorClass, String message) {
+		super(errorLocation, rule);
+		this.errorClass = errorClass;
+		this.message = message;
+	}
+
+	@Override
+	public Class<? extends AbstractError> getErrorClass() {
+		return errorClass;
+	}
+
+	@Override
+	public String toErrorMarkerString() {
+		return message;
+	}
+
+	@Override
+	public void accept(ErrorVisitor visitor) {
+		visitor.visit(this);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((errorClass == null) ? 0 : errorClass.hashCode());
+		result = prime * result + ((message == null) ? 0 : message.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		RestoredError other = (RestoredError) obj;
+		if (errorClass == null) {
+			if (other.errorClass != null)
+				return false;
+		} else if (!errorClass.equals(other.errorClass))
+			return false;
+		if (message == null) {
+			if (other.message != null)
+				return false;
+		} else if (!message.equals(other.message))
+			return false;
+		return true;
+	}
+}
@@ -0,0 +1,61 @@
+package crypto.boomerang;
+
+/**
+ * Trades the precision of the parameter value extraction for speed. A tier bounds the backward queries
+ * of the extraction and decides whether constraints on values whose query exceeded its budget are
+ * reported as {@link crypto.analysis.errors.ImpreciseValueExtractionError}.
+ */
+public enum AnalysisTier {
+	/**
+	 * Short queries that neither follow deep call chains nor deeply nested fields, e.g., for pull request checks.
+	 * Values whose query timed out are reported, values beyond the call or field depth are not extracted and
+	 * not reported.
+	 */
+	FAST(1000, 3, 2, true),
+	/**
+	 * The configuration CogniCrypt used before tiers were introduced.
+	 */
+	DEFAULT(5000, -1, -1, false),
+	/**
+	 * Long, unbounded queries, e.g., for nightly scans. Values that are nevertheless extracted incompletely
+	 * are reported.
+	 */
+	PRECISE(30000, -1, -1, true);
+
+	private final int analysisTimeoutMS;
+	private final int maxCallDepth;
+	private final int maxFieldDepth;
+	private final boolean reportImpreciseValues;
+
+	private AnalysisTier(int analysisTimeoutMS, int maxCallDepth, int maxFieldDepth, boolean reportImpreciseValues) {
+		this.analysisTimeoutMS = analysisTimeoutMS;
+		this.maxCallDepth = maxCallDepth;
+		this.maxFieldDepth = maxFieldDepth;
+		this.reportImpreciseValues = reportImpreciseValues;
+	}
+
+	public int getAnalysisTimeoutMS() {
+		return analysisTimeoutMS;
+	}
+
+	/**
+	 * @return the number of calls a query may descend into, or -1 for no limit
+	 */
+	public int getMaxCallDepth() {
+		return maxCallDepth;
+	}
+
+	/**
+	 * @return the number of nested fields a query distinguishes, or -1 for no limit
+	 */
+	public int getMaxFieldDepth() {
+		return maxFieldDepth;
+	}
+
+	/**
+	 * @return <code>true</code> if constraints on values whose query timed out are reported as imprecise
+	 */
+	public boolean reportsImpreciseValues() {
+		return reportImpreciseValues;
+	}
+}
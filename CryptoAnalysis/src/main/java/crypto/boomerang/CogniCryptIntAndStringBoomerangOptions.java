@@ -22,6 +22,17 @@ import soot.jimple.Stmt;
  * Created by johannesspath on 23.12.17.
  */
 public class CogniCryptIntAndStringBoomerangOptions extends IntAndStringBoomerangOptions {
+
+	private final AnalysisTier tier;
+
+	public CogniCryptIntAndStringBoomerangOptions() {
+		this(AnalysisTier.DEFAULT);
+	}
+
+	public CogniCryptIntAndStringBoomerangOptions(AnalysisTier tier) {
+		this.tier = tier;
+	}
+
 	@Override
 	public Optional<AllocVal> getAllocationVal(SootMethod m, Stmt stmt, Val fact,
 			ObservableICFG<Unit, SootMethod> icfg) {
@@ -111,7 +122,17 @@ public class CogniCryptIntAndStringBoomerangOptions extends IntAndStringBoomeran
 
 	@Override
 	public int analysisTimeoutMS() {
-		return 5000;
+		return tier.getAnalysisTimeoutMS();
+	}
+
+	@Override
+	public int maxCallDepth() {
+		return tier.getMaxCallDepth();
+	}
+
+	@Override
+	public int maxFieldDepth() {
+		return tier.getMaxFieldDepth();
 	}
 	
 	@Override
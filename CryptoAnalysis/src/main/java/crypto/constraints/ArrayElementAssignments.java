@@ -0,0 +1,49 @@
+package crypto.constraints;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+
+import soot.Local;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.jimple.ArrayRef;
+import soot.jimple.AssignStmt;
+
+/**
+ * The values assigned to the elements of the array locals of a method, e.g., the bytes of a hard-coded key or
+ * initialization vector. The assignments of a method are collected on first request and shared by all
+ * constraints that check its arrays. A scanner owns one instance per scan, such that the bodies are not
+ * referenced once the scan ends.
+ */
+public class ArrayElementAssignments {
+
+	private final Map<SootMethod, ListMultimap<Local, Value>> elementsByMethod = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the values assigned to elements of the array in the method, in the order of the assignments
+	 */
+	public Collection<Value> getElements(SootMethod method, Local array) {
+		return elementsByMethod.computeIfAbsent(method, ArrayElementAssignments::collect).get(array);
+	}
+
+	private static ListMultimap<Local, Value> collect(SootMethod method) {
+		ImmutableListMultimap.Builder<Local, Value> elements = ImmutableListMultimap.builder();
+		if (!method.hasActiveBody()) {
+			return elements.build();
+		}
+		for (Unit unit : method.getActiveBody().getUnits()) {
+			if (!(unit instanceof AssignStmt))
+				continue;
+			Value leftOp = ((AssignStmt) unit).getLeftOp();
+			if (leftOp instanceof ArrayRef && ((ArrayRef) leftOp).getBase() instanceof Local) {
+				elements.put((Local) ((ArrayRef) leftOp).getBase(), ((AssignStmt) unit).getRightOp());
+			}
+		}
+		return elements.build();
+	}
+}
@@ -7,12 +7,12 @@ import java.util.Map.Entry;
 import crypto.analysis.errors.AbstractError;
 import crypto.analysis.errors.ConstraintError;
 import crypto.analysis.errors.ImpreciseValueExtractionError;
+import crypto.constraints.CompiledConstraints.Operand;
 import crypto.extractparameter.CallSiteWithExtractedValue;
 import crypto.interfaces.ICrySLPredicateParameter;
 import crypto.interfaces.ISLConstraint;
 import crypto.rules.CrySLArithmeticConstraint;
 import crypto.rules.CrySLComparisonConstraint;
-import crypto.rules.CrySLPredicate;
 
 public class ComparisonConstraint extends EvaluableConstraint {
 
@@ -117,8 +117,9 @@ public class ComparisonConstraint extends EvaluableConstraint {
 
 	private Map<Integer, CallSiteWithExtractedValue> extractValueAsInt(ICrySLPredicateParameter par,
 			CrySLArithmeticConstraint arith) {
-		if (par instanceof CrySLPredicate) {
-			PredicateConstraint predicateConstraint = new PredicateConstraint((CrySLPredicate) par, context);
+		Operand operand = context.getCompiledConstraints().getOperand(par);
+		if (operand.getPredicate() != null) {
+			PredicateConstraint predicateConstraint = new PredicateConstraint(operand.getPredicate(), context);
 			predicateConstraint.evaluate();
 			if (!predicateConstraint.getErrors().isEmpty()) {
 				for (AbstractError err : predicateConstraint.getErrors()) {
@@ -127,48 +128,33 @@ public class ComparisonConstraint extends EvaluableConstraint {
 				predicateConstraint.errors.clear();
 			}
 			return new HashMap<Integer, CallSiteWithExtractedValue>();
-		} else {
-			return extractValueAsInt(par.getName(), arith);
 		}
-	}
-
-	private Map<Integer, CallSiteWithExtractedValue> extractValueAsInt(String exp, ISLConstraint cons) {
 		final HashMap<Integer, CallSiteWithExtractedValue> valuesInt = new HashMap<>();
-		// 0. exp may be true or false
-		if (exp.equalsIgnoreCase("true")) {
-			valuesInt.put(1, null);
+		// 0. The operand may be a literal, which is parsed once per rule
+		if (operand.getLiteral() != null) {
+			valuesInt.put(operand.getLiteral(), null);
 			return valuesInt;
 		}
-		if (exp.equalsIgnoreCase("false")) {
-			valuesInt.put(0, null);
+		// 1. If not, it's a variable name.
+		// Get value of variable left from map
+		final Map<String, CallSiteWithExtractedValue> valueCollection = extractValueAsString(operand.getVarName(), arith);
+		if (valueCollection.isEmpty()) {
 			return valuesInt;
 		}
 		try {
-			// 1. exp may (already) be an integer
-			valuesInt.put(Integer.parseInt(exp), null);
-			return valuesInt;
-		} catch (NumberFormatException ex) {
-			// 2. If not, it's a variable name.
-			// Get value of variable left from map
-			final Map<String, CallSiteWithExtractedValue> valueCollection = extractValueAsString(exp, cons);
-			if (valueCollection.isEmpty()) {
-				return valuesInt;
+			for (Entry<String, CallSiteWithExtractedValue> value : valueCollection.entrySet()) {
+				if (value.getKey().equals("true"))
+					valuesInt.put(1, value.getValue());
+				else if (value.getKey().equals("false"))
+					valuesInt.put(0, value.getValue());
+				else
+					valuesInt.put(Integer.parseInt(value.getKey()), value.getValue());
 			}
-			try {
-				for (Entry<String, CallSiteWithExtractedValue> value : valueCollection.entrySet()) {
-					if (value.getKey().equals("true"))
-						valuesInt.put(1, value.getValue());
-					else if (value.getKey().equals("false"))
-						valuesInt.put(0, value.getValue());
-					else
-						valuesInt.put(Integer.parseInt(value.getKey()), value.getValue());
-				}
-			} catch (NumberFormatException ex1) {
-				// If that does not work either, I'm out of ideas ...
-				LOGGER.error("An exception occured when extracting value as Integer.", ex1);
-			}
-			return valuesInt;
+		} catch (NumberFormatException ex1) {
+			// If that does not work either, I'm out of ideas ...
+			LOGGER.error("An exception occured when extracting value as Integer.", ex1);
 		}
+		return valuesInt;
 	}
 
 }
@@ -0,0 +1,156 @@
+package crypto.constraints;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+import crypto.interfaces.ICrySLPredicateParameter;
+import crypto.interfaces.ISLConstraint;
+import crypto.rules.CrySLArithmeticConstraint;
+import crypto.rules.CrySLComparisonConstraint;
+import crypto.rules.CrySLConstraint;
+import crypto.rules.CrySLExceptionConstraint;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+import crypto.rules.CrySLValueConstraint;
+import crypto.typestate.CrySLMethodToSootMethod;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+
+/**
+ * The parts of the constraints of a rule that do not depend on the analyzed object. These are computed once
+ * per rule instead of once per evaluation:
+ * <ul>
+ * <li>the lower-cased value ranges of value constraints,</li>
+ * <li>the operands of comparisons, i.e., literals or the names of the variables whose values are extracted,</li>
+ * <li>the methods and exceptions of exception constraints.</li>
+ * </ul>
+ * The evaluators that {@link EvaluableConstraint#getInstance(ISLConstraint, ConstraintSolver)} creates for a
+ * seed look up these parts and only bind the values extracted for the seed.
+ *
+ * The value ranges and operands are computed when the rule is compiled and never change afterwards, such that
+ * the evaluators of concurrent seeds read them without locking. They are identified by identity, as distinct
+ * operands of a rule may be equal. The parts of constraints that are not part of the rule are computed on
+ * each lookup.
+ */
+public class CompiledConstraints {
+
+	private final Map<CrySLValueConstraint, Set<String>> valueRanges = Maps.newIdentityHashMap();
+	private final Map<ICrySLPredicateParameter, Operand> operands = Maps.newIdentityHashMap();
+	private final Map<CrySLExceptionConstraint, Set<SootMethod>> exceptionMethods = new ConcurrentHashMap<>();
+	private final Map<CrySLExceptionConstraint, SootClass> exceptions = new ConcurrentHashMap<>();
+
+	public CompiledConstraints(CrySLRule rule) {
+		for (ISLConstraint con : rule.getConstraints()) {
+			compile(con);
+		}
+		for (CrySLPredicate pred : rule.getPredicates()) {
+			pred.getConstraint().ifPresent(this::compile);
+		}
+	}
+
+	private void compile(ISLConstraint con) {
+		if (con instanceof CrySLValueConstraint) {
+			valueRanges.put((CrySLValueConstraint) con, lowerCase((CrySLValueConstraint) con));
+		} else if (con instanceof CrySLComparisonConstraint) {
+			CrySLComparisonConstraint comparison = (CrySLComparisonConstraint) con;
+			for (CrySLArithmeticConstraint arith : new CrySLArithmeticConstraint[] { comparison.getLeft(), comparison.getRight() }) {
+				operands.put(arith.getLeft(), new Operand(arith.getLeft()));
+				operands.put(arith.getRight(), new Operand(arith.getRight()));
+			}
+		} else if (con instanceof CrySLConstraint) {
+			compile(((CrySLConstraint) con).getLeft());
+			compile(((CrySLConstraint) con).getRight());
+		}
+	}
+
+	private static Set<String> lowerCase(CrySLValueConstraint con) {
+		ImmutableSet.Builder<String> values = ImmutableSet.builder();
+		for (String value : con.getValueRange()) {
+			values.add(value.toLowerCase());
+		}
+		return values.build();
+	}
+
+	/**
+	 * @return the values of the constraint in lower case
+	 */
+	public Set<String> getValueRange(CrySLValueConstraint con) {
+		Set<String> values = valueRanges.get(con);
+		return values != null ? values : lowerCase(con);
+	}
+
+	public Operand getOperand(ICrySLPredicateParameter par) {
+		Operand operand = operands.get(par);
+		return operand != null ? operand : new Operand(par);
+	}
+
+	/**
+	 * The methods and the exception are resolved on first use, as the exception class may not be part of the
+	 * scene if the rule is never evaluated.
+	 */
+	public Set<SootMethod> getMethods(CrySLExceptionConstraint con) {
+		return exceptionMethods.computeIfAbsent(con, c -> ImmutableSet.copyOf(CrySLMethodToSootMethod.v().convert(c.getMethod())));
+	}
+
+	public SootClass getException(CrySLExceptionConstraint con) {
+		return exceptions.computeIfAbsent(con, c -> Scene.v().getSootClass(c.getException().getException()));
+	}
+
+	/**
+	 * An operand of an arithmetic constraint: a predicate, an integer or boolean literal, or a variable.
+	 */
+	public static class Operand {
+		private final CrySLPredicate predicate;
+		private final Integer literal;
+		private final String varName;
+
+		private Operand(ICrySLPredicateParameter par) {
+			Integer value = null;
+			if (par instanceof CrySLPredicate) {
+				this.predicate = (CrySLPredicate) par;
+			} else {
+				this.predicate = null;
+				String exp = par.getName();
+				if (exp.equalsIgnoreCase("true")) {
+					value = 1;
+				} else if (exp.equalsIgnoreCase("false")) {
+					value = 0;
+				} else {
+					try {
+						value = Integer.parseInt(exp);
+					} catch (NumberFormatException e) {
+						// The operand is the name of a variable.
+					}
+				}
+			}
+			this.literal = value;
+			this.varName = predicate == null && value == null ? par.getName() : null;
+		}
+
+		/**
+		 * @return the predicate or <code>null</code> if the operand is not a predicate
+		 */
+		public CrySLPredicate getPredicate() {
+			return predicate;
+		}
+
+		/**
+		 * @return the value of the literal or <code>null</code> if the operand is not a literal
+		 */
+		public Integer getLiteral() {
+			return literal;
+		}
+
+		/**
+		 * @return the name of the variable or <code>null</code> if the operand is not a variable
+		 */
+		public String getVarName() {
+			return varName;
+		}
+	}
+}
@@ -2,10 +2,15 @@ package crypto.constraints;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 
@@ -14,15 +19,18 @@ import crypto.analysis.AlternativeReqPredicate;
 import crypto.analysis.AnalysisSeedWithSpecification;
 import crypto.analysis.ClassSpecification;
 import crypto.analysis.CrySLResultsReporter;
+import crypto.analysis.CryptoScanner;
 import crypto.analysis.RequiredCrySLPredicate;
 import crypto.analysis.errors.AbstractError;
 import crypto.analysis.errors.ImpreciseValueExtractionError;
+import crypto.extractparameter.CallSiteWithExtractedValue;
 import crypto.extractparameter.CallSiteWithParamIndex;
 import crypto.extractparameter.ExtractedValue;
 import crypto.interfaces.ICrySLPredicateParameter;
 import crypto.interfaces.ISLConstraint;
 import crypto.rules.CrySLConstraint;
 import crypto.rules.CrySLPredicate;
+import soot.Body;
 import soot.Type;
 
 public class ConstraintSolver {
@@ -34,13 +42,39 @@ public class ConstraintSolver {
 	private final Collection<Statement> collectedCalls;
 	private final CrySLResultsReporter reporter;
 	private final AnalysisSeedWithSpecification object;
+	private final ArrayElementAssignments arrayElements;
+	private final CryptoScanner scanner;
+	private final Map<String, Map<String, CallSiteWithExtractedValue>> valuesAsString = Maps.newHashMap();
 
 	public ConstraintSolver(AnalysisSeedWithSpecification object, Collection<Statement> collectedCalls,
-			CrySLResultsReporter crySLResultsReporter) {
+			CryptoScanner scanner) {
 		this.object = object;
+		this.scanner = scanner;
+		this.arrayElements = scanner.getArrayElementAssignments();
 		this.collectedCalls = collectedCalls;
-		this.reporter = crySLResultsReporter;
+		this.reporter = scanner.getAnalysisListener();
 		partitionConstraints();
+		indexValuesAsString();
+	}
+
+	/**
+	 * Converts the values extracted for each variable to strings. The values of a seed are fixed once its
+	 * parameter analysis has run, which is before its solver is created, so they are converted once and
+	 * shared by the evaluators of all constraints of the seed.
+	 */
+	private void indexValuesAsString() {
+		Multimap<CallSiteWithParamIndex, ExtractedValue> parsAndVals = getParsAndVals();
+		ListMultimap<String, CallSiteWithParamIndex> callSitesByVarName = ArrayListMultimap.create();
+		for (CallSiteWithParamIndex callSite : parsAndVals.keySet()) {
+			callSitesByVarName.put(callSite.getVarName(), callSite);
+		}
+		for (String varName : callSitesByVarName.keySet()) {
+			Map<String, CallSiteWithExtractedValue> varVal = Maps.newHashMap();
+			for (CallSiteWithParamIndex callSite : callSitesByVarName.get(varName)) {
+				varVal.putAll(EvaluableConstraint.extractValuesAsString(arrayElements, callSite, parsAndVals.get(callSite)));
+			}
+			valuesAsString.put(varName, Collections.unmodifiableMap(varVal));
+		}
 	}
 
 	public Multimap<CallSiteWithParamIndex, Type> getPropagatedTypes() {
@@ -55,6 +89,10 @@ public class ConstraintSolver {
 		return this.object.getSpec();
 	}
 
+	public CompiledConstraints getCompiledConstraints() {
+		return this.object.getSpec().getCompiledConstraints();
+	}
+
 	public Collection<Statement> getCollectedCalls() {
 		return collectedCalls;
 	}
@@ -67,10 +105,31 @@ public class ConstraintSolver {
 		return object;
 	}
 
+	/**
+	 * @return the element assignments of the arrays of the scan the seed belongs to
+	 */
+	public ArrayElementAssignments getArrayElementAssignments() {
+		return arrayElements;
+	}
+
+	/**
+	 * @return the trap index of the body, shared by all seeds of the scan
+	 */
+	public TrapIndex getTrapIndex(Body body) {
+		return scanner.getTrapIndex(body);
+	}
+
 	public Multimap<CallSiteWithParamIndex, ExtractedValue> getParsAndVals() {
 		return this.object.getParameterAnalysis().getCollectedValues();
 	}
 
+	/**
+	 * @return the values extracted for the variable as strings, with the call sites they were extracted at
+	 */
+	public Map<String, CallSiteWithExtractedValue> getValuesAsString(String varName) {
+		return valuesAsString.getOrDefault(varName, Collections.emptyMap());
+	}
+
 	/**
 	 * @return the allConstraints
 	 */
@@ -92,6 +151,12 @@ public class ConstraintSolver {
 	public int evaluateRelConstraints() {
 		int fail = 0;
 		for (ISLConstraint con : getRelConstraints()) {
+			CallSiteWithParamIndex imprecise = getImpreciseQuerySite(con);
+			if (imprecise != null) {
+				getReporter().reportError(getObject(),
+						new ImpreciseValueExtractionError(con, imprecise.stmt(), getClassSpec().getRule()));
+				continue;
+			}
 			EvaluableConstraint currentConstraint = EvaluableConstraint.getInstance(con, this);
 			currentConstraint.evaluate();
 			for (AbstractError e : currentConstraint.getErrors()) {
@@ -108,6 +173,19 @@ public class ConstraintSolver {
 		return fail;
 	}
 
+	/**
+	 * @return a query site of a variable of the constraint whose values may be incomplete, or <code>null</code>
+	 */
+	private CallSiteWithParamIndex getImpreciseQuerySite(ISLConstraint con) {
+		Set<String> involvedVarNames = con.getInvolvedVarNames();
+		for (CallSiteWithParamIndex cwpi : this.object.getParameterAnalysis().getImpreciseQuerySites()) {
+			if (involvedVarNames.contains(cwpi.getVarName())) {
+				return cwpi;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * (Probably) partitions Cosntraints into required Predicates and "normal"
 	 * constraints (relConstraints).
@@ -1,7 +1,6 @@
 package crypto.constraints;
 
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -21,15 +20,15 @@ import crypto.rules.CrySLConstraint;
 import crypto.rules.CrySLExceptionConstraint;
 import crypto.rules.CrySLPredicate;
 import crypto.rules.CrySLValueConstraint;
-import soot.Body;
 import soot.IntType;
-import soot.Unit;
+import soot.Local;
 import soot.Value;
 import soot.jimple.AssignStmt;
 import soot.jimple.Constant;
 import soot.jimple.IntConstant;
 import soot.jimple.InvokeExpr;
 import soot.jimple.LongConstant;
+import soot.jimple.NewArrayExpr;
 import soot.jimple.Stmt;
 import soot.jimple.StringConstant;
 import soot.jimple.internal.JNewArrayExpr;
@@ -38,6 +37,12 @@ public abstract class EvaluableConstraint {
 
 	protected static final Logger LOGGER = LoggerFactory.getLogger(EvaluableConstraint.class);
 
+	/**
+	 * The string a value is extracted as if it is not a constant, e.g., an array element that is copied from
+	 * a parameter.
+	 */
+	protected static final String UNKNOWN_VALUE = "";
+
 	public static EvaluableConstraint getInstance(ISLConstraint con, ConstraintSolver context) {
 		if (con instanceof CrySLComparisonConstraint) {
 			return new ComparisonConstraint((CrySLComparisonConstraint) con, context);
@@ -75,41 +80,46 @@ public abstract class EvaluableConstraint {
 	}
 
 	protected Map<String, CallSiteWithExtractedValue> extractValueAsString(String varName, ISLConstraint cons) {
+		return context.getValuesAsString(varName);
+	}
+
+	/**
+	 * @param allocSites the values extracted at the call site
+	 * @return the values as strings
+	 */
+	static Map<String, CallSiteWithExtractedValue> extractValuesAsString(ArrayElementAssignments arrayElements,
+			CallSiteWithParamIndex wrappedCallSite, Collection<ExtractedValue> allocSites) {
 		Map<String, CallSiteWithExtractedValue> varVal = Maps.newHashMap();
-		for (CallSiteWithParamIndex wrappedCallSite : context.getParsAndVals().keySet()) {
-			final Stmt callSite = wrappedCallSite.stmt().getUnit().get();
-
-			for (ExtractedValue wrappedAllocSite : context.getParsAndVals().get(wrappedCallSite)) {
-				final Stmt allocSite = wrappedAllocSite.stmt().getUnit().get();
-				if (!wrappedCallSite.getVarName().equals(varName))
-					continue;
-
-				InvokeExpr invoker = callSite.getInvokeExpr();
-				if (callSite.equals(allocSite)) {
-					varVal.put(retrieveConstantFromValue(invoker.getArg(wrappedCallSite.getIndex())),
-							new CallSiteWithExtractedValue(wrappedCallSite, wrappedAllocSite));
-				} else if (allocSite instanceof AssignStmt) {
-					if (wrappedAllocSite.getValue() instanceof Constant) {
-						// varVal.put(retrieveConstantFromValue(wrappedAllocSite.getValue()), new
-						// CallSiteWithExtractedValue(wrappedCallSite, wrappedAllocSite));
-						String retrieveConstantFromValue = retrieveConstantFromValue(wrappedAllocSite.getValue());
-						int pos = -1;
-						for (int i = 0; i < invoker.getArgs().size(); i++) {
-							if (((AssignStmt) allocSite).getLeftOpBox().getValue().toString()
-									.equals(invoker.getArgs().get(i).toString())) {
-								pos = i;
-							}
-						}
-						if (pos > -1 && "boolean".equals(invoker.getMethodRef().getParameterType(pos).toQuotedString())) {
-							varVal.put("0".equals(retrieveConstantFromValue) ? "false" : "true",
-									new CallSiteWithExtractedValue(wrappedCallSite, wrappedAllocSite));
-						} else {
-							varVal.put(retrieveConstantFromValue,
-									new CallSiteWithExtractedValue(wrappedCallSite, wrappedAllocSite));
+		final Stmt callSite = wrappedCallSite.stmt().getUnit().get();
+
+		for (ExtractedValue wrappedAllocSite : allocSites) {
+			final Stmt allocSite = wrappedAllocSite.stmt().getUnit().get();
+
+			InvokeExpr invoker = callSite.getInvokeExpr();
+			if (callSite.equals(allocSite)) {
+				varVal.put(retrieveConstantFromValue(invoker.getArg(wrappedCallSite.getIndex())),
+						new CallSiteWithExtractedValue(wrappedCallSite, wrappedAllocSite));
+			} else if (allocSite instanceof AssignStmt) {
+				if (wrappedAllocSite.getValue() instanceof Constant) {
+					// varVal.put(retrieveConstantFromValue(wrappedAllocSite.getValue()), new
+					// CallSiteWithExtractedValue(wrappedCallSite, wrappedAllocSite));
+					String retrieveConstantFromValue = retrieveConstantFromValue(wrappedAllocSite.getValue());
+					int pos = -1;
+					for (int i = 0; i < invoker.getArgs().size(); i++) {
+						if (((AssignStmt) allocSite).getLeftOpBox().getValue().toString()
+								.equals(invoker.getArgs().get(i).toString())) {
+							pos = i;
 						}
-					} else if (wrappedAllocSite.getValue() instanceof JNewArrayExpr) {
-						varVal.putAll(extractSootArray(wrappedCallSite, wrappedAllocSite));
 					}
+					if (pos > -1 && "boolean".equals(invoker.getMethodRef().getParameterType(pos).toQuotedString())) {
+						varVal.put("0".equals(retrieveConstantFromValue) ? "false" : "true",
+								new CallSiteWithExtractedValue(wrappedCallSite, wrappedAllocSite));
+					} else {
+						varVal.put(retrieveConstantFromValue,
+								new CallSiteWithExtractedValue(wrappedCallSite, wrappedAllocSite));
+					}
+				} else if (wrappedAllocSite.getValue() instanceof JNewArrayExpr) {
+					varVal.putAll(extractSootArray(arrayElements, wrappedCallSite, wrappedAllocSite));
 				}
 			}
 		}
@@ -117,38 +127,43 @@ public abstract class EvaluableConstraint {
 	}
 
 	/***
-	 * Function that finds the values assigned to a soot array.
+	 * Function that finds the values assigned to the elements of a soot array.
 	 * 
-	 * @param callSite   call site at which sootValue is involved
-	 * @param allocSite  allocation site at which sootValue is involved
-	 * @param arrayLocal soot array local variable for which values are to be found
-	 * @return extracted array values
+	 * @param arrayElements the element assignments of the scan
+	 * @param callSite      call site at which the array is involved
+	 * @param allocSite     allocation site of the array, or the array local variable
+	 * @return extracted array values, with {@link #UNKNOWN_VALUE} for elements that are not constants
 	 */
-	protected Map<String, CallSiteWithExtractedValue> extractSootArray(CallSiteWithParamIndex callSite,
-			ExtractedValue allocSite) {
-		Value arrayLocal = allocSite.getValue();
-		Body methodBody = allocSite.stmt().getMethod().getActiveBody();
+	protected static Map<String, CallSiteWithExtractedValue> extractSootArray(ArrayElementAssignments arrayElements,
+			CallSiteWithParamIndex callSite, ExtractedValue allocSite) {
 		Map<String, CallSiteWithExtractedValue> arrVal = Maps.newHashMap();
-
-		if (methodBody == null)
+		Local arrayLocal = getArrayLocal(allocSite);
+		if (arrayLocal == null)
 			return arrVal;
 
-		Iterator<Unit> unitIterator = methodBody.getUnits().snapshotIterator();
-		while (unitIterator.hasNext()) {
-			final Unit unit = unitIterator.next();
-			if (!(unit instanceof AssignStmt))
-				continue;
-			AssignStmt uStmt = (AssignStmt) (unit);
-			Value leftValue = uStmt.getLeftOp();
-			Value rightValue = uStmt.getRightOp();
-			if (leftValue.toString().contains(arrayLocal.toString()) && !rightValue.toString().contains("newarray")) {
-				arrVal.put(retrieveConstantFromValue(rightValue), new CallSiteWithExtractedValue(callSite, allocSite));
-			}
+		for (Value element : arrayElements.getElements(allocSite.stmt().getMethod(), arrayLocal)) {
+			arrVal.put(retrieveConstantFromValue(element), new CallSiteWithExtractedValue(callSite, allocSite));
 		}
 		return arrVal;
 	}
 
-	private String retrieveConstantFromValue(Value val) {
+	/**
+	 * @return the local the array is assigned to at its allocation site, or <code>null</code>
+	 */
+	private static Local getArrayLocal(ExtractedValue allocSite) {
+		Value value = allocSite.getValue();
+		if (value instanceof Local) {
+			return (Local) value;
+		}
+		Stmt stmt = allocSite.stmt().getUnit().get();
+		if (value instanceof NewArrayExpr && stmt instanceof AssignStmt
+				&& ((AssignStmt) stmt).getLeftOp() instanceof Local) {
+			return (Local) ((AssignStmt) stmt).getLeftOp();
+		}
+		return null;
+	}
+
+	private static String retrieveConstantFromValue(Value val) {
 		if (val instanceof StringConstant) {
 			return ((StringConstant) val).value;
 		} else if (val instanceof IntConstant || val.getType() instanceof IntType) {
@@ -156,7 +171,7 @@ public abstract class EvaluableConstraint {
 		} else if (val instanceof LongConstant) {
 			return val.toString().replaceAll("L", "");
 		} else {
-			return "";
+			return UNKNOWN_VALUE;
 		}
 	}
 
@@ -2,20 +2,15 @@ package crypto.constraints;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
 
 import boomerang.jimple.Statement;
 import crypto.analysis.errors.UncaughtExceptionError;
 import crypto.rules.CrySLExceptionConstraint;
-import crypto.typestate.CrySLMethodToSootMethod;
 import crypto.typestate.LabeledMatcherTransition;
 import soot.Body;
-import soot.Scene;
 import soot.SootClass;
 import soot.SootMethod;
-import soot.Trap;
 import soot.Unit;
 import soot.UnitBox;
 import soot.jimple.Stmt;
@@ -27,8 +22,8 @@ public class ExceptionConstraint extends EvaluableConstraint {
 
 	public ExceptionConstraint(CrySLExceptionConstraint cons, ConstraintSolver context) {
 		super(cons, context);
-		this.method = new HashSet<>(CrySLMethodToSootMethod.v().convert(cons.getMethod()));
-		this.exception = Scene.v().getSootClass(cons.getException().getException());
+		this.method = context.getCompiledConstraints().getMethods(cons);
+		this.exception = context.getCompiledConstraints().getException(cons);
 	}
 
 	/**
@@ -51,49 +46,12 @@ public class ExceptionConstraint extends EvaluableConstraint {
 			Stmt stmt = call.getUnit().get();
 			if (!isSameMethod(stmt.getInvokeExpr().getMethod()))
 				return;
-			if (!getTrap(call.getMethod().getActiveBody(), stmt, this.exception).isPresent())
+			if (!context.getTrapIndex(call.getMethod().getActiveBody()).getTrap(stmt, this.exception).isPresent())
 				errors.add(new UncaughtExceptionError(call, context.getClassSpec().getRule(), this.exception));
 		} catch (Exception e) {
 		}
 	}
 
-	/**
-	 * Returns whether the `trapped` unit ins trapped in the method body.
-	 *
-	 * @param body
-	 * @param trap
-	 * @param trapped
-	 * @return Returns whether the `trapped` unit ins trapped in the method body.
-	 */
-	public static boolean trapsUnit(final Body body, final Trap trap, final Unit trapped) {
-		boolean begun = false;
-		for (final Unit unit : getUnits(body)) {
-			if (unit.equals(trap.getEndUnit()))
-				break;
-			if (unit.equals(trap.getBeginUnit()))
-				begun = true;
-			if (begun && unit.equals(trapped))
-				return true;
-		}
-		return false;
-	}
-
-	/**
-	 * Returns the handler, that catches the exception thrown by callee in the method.
-	 *
-	 * @param method in which callee is called.
-	 * @param callee The called Method, throwing the exception.
-	 * @param exception The called Method, throwing the exception.
-	 * @return Returns the handler, that catches the exception thrown by callee in the method.
-	 */
-	public static Optional<Trap> getTrap(final Body body, final Unit unit, final SootClass exception) {
-		for (final Trap trap : body.getTraps())
-			if (ExceptionConstraint.isCaughtAs(trap.getException(), exception))
-				if (trapsUnit(body, trap, unit))
-					return Optional.of(trap);
-		return Optional.empty();
-	}
-
 	/**
 	* Returns all units in the method body, excluding exception handlers.
 	*/
@@ -18,6 +18,8 @@ import crypto.rules.CrySLMethod;
 import crypto.rules.CrySLObject;
 import crypto.rules.CrySLPredicate;
 import crypto.typestate.CrySLMethodToSootMethod;
+import crypto.typestate.SubtypeOracle;
+import soot.ArrayType;
 import soot.SootMethod;
 import soot.Type;
 import soot.jimple.IntConstant;
@@ -46,16 +48,19 @@ public class PredicateConstraint extends EvaluableConstraint {
 						&& ((NewExpr) val.getValue()).getType().toString().equals("java.math.BigInteger"));
 	}
 
-	protected boolean isSubType(String typeOne, String typeTwo) {
-		boolean subTypes = typeOne.equals(typeTwo);
-		subTypes |= (typeOne + "[]").equals(typeTwo);
-		if (!subTypes) {
-			try {
-				subTypes = Class.forName(typeOne).isAssignableFrom(Class.forName(typeTwo));
-			} catch (ClassNotFoundException e) {
-			}
+	/**
+	 * @return <code>true</code> if a value of type typeTwo can be stored in a variable of type typeOne, or if
+	 *         typeTwo is an array of typeOne. A <code>null</code> type, i.e., a type name that the scene does
+	 *         not contain, matches no type, not even itself.
+	 */
+	protected boolean isSubType(Type typeOne, Type typeTwo) {
+		if (typeOne == null || typeTwo == null) {
+			return false;
 		}
-		return subTypes;
+		if (typeTwo instanceof ArrayType && ((ArrayType) typeTwo).getElementType().equals(typeOne)) {
+			return true;
+		}
+		return SubtypeOracle.v().isSubtype(typeTwo, typeOne);
 	}
 
 	private void handlePredefinedNames(CrySLPredicate pred) {
@@ -131,13 +136,14 @@ public class PredicateConstraint extends EvaluableConstraint {
 			case "notHardCoded":
 				CrySLObject varNotToBeHardCoded = (CrySLObject) pred.getParameters().get(0);
 				String name = varNotToBeHardCoded.getVarName();
-				String type = varNotToBeHardCoded.getJavaType();
+				Type type = SubtypeOracle.v().getType(varNotToBeHardCoded.getJavaType());
 				for (CallSiteWithParamIndex cs : context.getParsAndVals().keySet()) {
 					if (cs.getVarName().equals(name)) {
 						Collection<ExtractedValue> values = context.getParsAndVals().get(cs);
 						for (ExtractedValue v : values) {
-							if (isSubType(type, v.getValue().getType().toQuotedString())
-									&& (isHardCoded(v) || isHardCodedArray(extractSootArray(cs, v)))) {
+							if (isSubType(type, v.getValue().getType())
+									&& (isHardCoded(v) || isHardCodedArray(
+											extractSootArray(context.getArrayElementAssignments(), cs, v)))) {
 								errors.add(
 										new HardCodedError(new CallSiteWithExtractedValue(cs, v), context.getClassSpec().getRule(),
 												context.getObject(),
@@ -149,11 +155,11 @@ public class PredicateConstraint extends EvaluableConstraint {
 				return;
 			case "instanceOf":
 				varName = ((CrySLObject) parameters.get(0)).getVarName();
+				Type expected = SubtypeOracle.v().getType(parameters.get(1).getName());
 				for (CallSiteWithParamIndex cs : context.getParameterAnalysisQuerySites()) {
 					if (cs.getVarName().equals(varName)) {
 						Collection<Type> vals = context.getPropagatedTypes().get(cs);
-						if (!vals.parallelStream().anyMatch(e -> isSubType(e.toQuotedString(), parameters.get(1).getName())
-								|| isSubType(parameters.get(1).getName(), e.toQuotedString()))) {
+						if (!vals.parallelStream().anyMatch(e -> isSubType(e, expected) || isSubType(expected, e))) {
 							for (ExtractedValue v : context.getParsAndVals().get(cs)) {
 								errors.add(
 										new InstanceOfError(new CallSiteWithExtractedValue(cs, v), context.getClassSpec().getRule(),
@@ -170,6 +176,6 @@ public class PredicateConstraint extends EvaluableConstraint {
 	}
 
 	private boolean isHardCodedArray(Map<String, CallSiteWithExtractedValue> extractSootArray) {
-		return !(extractSootArray.keySet().size() == 1 && extractSootArray.containsKey(""));
+		return !(extractSootArray.keySet().size() == 1 && extractSootArray.containsKey(UNKNOWN_VALUE));
 	}
 }
@@ -0,0 +1,107 @@
+package crypto.constraints;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import soot.Body;
+import soot.SootClass;
+import soot.Trap;
+import soot.Unit;
+
+/**
+ * The ranges of the traps of a body, indexed by the positions of the units in the unit chain. A trap covers
+ * the units from its begin unit up to, but excluding, its end unit. The boundaries of all traps split the
+ * chain into segments that are covered by the same traps, such that the traps covering a unit are found by a
+ * binary search over the segments instead of walking the chain for each trap.
+ *
+ * The ranges follow the order of the chain, not the control flow: a unit that follows a goto within the range
+ * of a trap is covered, while the target of a jump out of the range is not.
+ *
+ * A scanner indexes each body once per scan and shares the index with all seeds.
+ */
+public class TrapIndex {
+
+	private final Map<Unit, Integer> positions = Maps.newIdentityHashMap();
+	private final int[] segmentStarts;
+	private final List<List<Trap>> segmentTraps;
+
+	/**
+	 * Indexes the body as it is now. Units that are added to the body later are not covered by any trap.
+	 */
+	public TrapIndex(Body body) {
+		int position = 0;
+		for (Unit unit : body.getUnits()) {
+			positions.put(unit, position++);
+		}
+		TreeSet<Integer> boundaries = new TreeSet<>();
+		for (Trap trap : body.getTraps()) {
+			boundaries.add(begin(trap));
+			boundaries.add(end(trap));
+		}
+		segmentStarts = new int[boundaries.size()];
+		segmentTraps = Lists.newArrayListWithCapacity(boundaries.size());
+		int segment = 0;
+		for (int start : boundaries) {
+			segmentStarts[segment++] = start;
+			List<Trap> covering = Lists.newArrayList();
+			for (Trap trap : body.getTraps()) {
+				if (begin(trap) <= start && start < end(trap)) {
+					covering.add(trap);
+				}
+			}
+			segmentTraps.add(covering);
+		}
+	}
+
+	private int begin(Trap trap) {
+		return positions.getOrDefault(trap.getBeginUnit(), -1);
+	}
+
+	private int end(Trap trap) {
+		return positions.getOrDefault(trap.getEndUnit(), -1);
+	}
+
+	/**
+	 * @return the traps covering the unit, in the order of the traps of the body
+	 */
+	public List<Trap> getTraps(Unit unit) {
+		Integer position = positions.get(unit);
+		if (position == null) {
+			return Collections.emptyList();
+		}
+		int segment = Arrays.binarySearch(segmentStarts, position);
+		if (segment < 0) {
+			segment = -segment - 2;
+		}
+		if (segment < 0) {
+			return Collections.emptyList();
+		}
+		return segmentTraps.get(segment);
+	}
+
+	/**
+	 * @return the first trap covering the unit whose handler catches the exception
+	 */
+	public Optional<Trap> getTrap(Unit unit, SootClass exception) {
+		for (Trap trap : getTraps(unit)) {
+			if (ExceptionConstraint.isCaughtAs(trap.getException(), exception)) {
+				return Optional.of(trap);
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * @return <code>true</code> if the trap covers the unit
+	 */
+	public boolean traps(Trap trap, Unit unit) {
+		return getTraps(unit).contains(trap);
+	}
+}
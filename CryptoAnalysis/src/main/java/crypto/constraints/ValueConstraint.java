@@ -5,7 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import crypto.analysis.errors.ConstraintError;
 import crypto.extractparameter.CallSiteWithExtractedValue;
@@ -30,9 +30,8 @@ public class ValueConstraint extends EvaluableConstraint {
 			// TODO: Check whether this works as desired
 			return;
 		}
+		Set<String> values = context.getCompiledConstraints().getValueRange(valCons);
 		for (Entry<String, CallSiteWithExtractedValue> val : vals) {
-			List<String> values = valCons.getValueRange().parallelStream().map(e -> e.toLowerCase())
-					.collect(Collectors.toList());
 			if (!values.contains(val.getKey().toLowerCase())) {
 				errors.add(new ConstraintError(val.getValue(), context.getClassSpec().getRule(), context.getObject(), valCons));
 			}
@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 
 import com.google.common.collect.Sets;
 
+import crypto.rules.CompiledStateMachine;
 import crypto.rules.CrySLMethod;
 import crypto.rules.StateMachineGraph;
 import crypto.rules.StateNode;
@@ -44,7 +45,7 @@ public class StateMachineGraphBuilder {
 		this.result.addNode(initialNode);
 		SubStateMachine subSmg = buildSubSMG(this.order, Collections.singleton(initialNode));
 		subSmg.getEndNodes().parallelStream().forEach(StateNode::makeAccepting);
-		return this.result;
+		return CompiledStateMachine.minimize(this.result);
 	}
 
 	/**
@@ -0,0 +1,21 @@
+package crypto.exceptions;
+
+/**
+ * This exception is thrown when the analysis of a seed is cut off by the deadline of the whole scan. Unlike
+ * other budget violations, the seed is not abandoned but reported as unprocessed, as the results of the scan
+ * are partial.
+ *
+ */
+public class ScanDeadlineExceededException extends SeedBudgetExceededException {
+
+	private static final long serialVersionUID = -4712009235488316352L;
+
+	/**
+	 * Constructs a new exception with the specified detail message.
+	 * 
+	 * @param message a detail message.
+	 */
+	public ScanDeadlineExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,21 @@
+package crypto.exceptions;
+
+/**
+ * This exception is thrown when the analysis of a single seed exceeds its {@link crypto.analysis.SeedBudget}.
+ * It is unchecked, because it has to travel through the typestate and pointer analyses that drive the
+ * analysis of the seed.
+ *
+ */
+public class SeedBudgetExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 2618523346316880724L;
+
+	/**
+	 * Constructs a new exception with the specified detail message.
+	 * 
+	 * @param message a detail message.
+	 */
+	public SeedBudgetExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,188 @@
+package crypto.extractparameter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import boomerang.BackwardQuery;
+import boomerang.Boomerang;
+import boomerang.BoomerangOptions;
+import boomerang.ForwardQuery;
+import boomerang.callgraph.ObservableICFG;
+import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import boomerang.results.BackwardBoomerangResults;
+import crypto.analysis.CryptoScanner;
+import crypto.boomerang.AnalysisTier;
+import crypto.boomerang.CogniCryptIntAndStringBoomerangOptions;
+import soot.SootMethod;
+import soot.Type;
+import soot.Unit;
+import sync.pds.solver.nodes.Node;
+import wpds.impl.Weight.NoWeight;
+
+/**
+ * Solves the backward queries of the parameter analyses of all seeds of a scan. Queries for the same
+ * statement and variable, e.g., for a key or an initialization vector that is passed to several objects,
+ * are solved only once. The cache is safe to use from concurrent seed analyses: a query that is being
+ * solved by one thread is awaited by all other threads that request it.
+ *
+ * Only the parts of a result that the parameter analysis consumes are kept, such that the solvers of a
+ * query are released as soon as the query, or the {@link Batch} it belongs to, is solved. The number of
+ * cached results is bounded, the least recently used results are evicted first.
+ */
+public class BackwardQueryCache {
+
+	private final CryptoScanner cryptoScanner;
+	private final AnalysisTier tier;
+	private final BoomerangOptions options;
+	private final Cache<BackwardQuery, Result> results;
+	private final boolean batchQueries;
+	private final AtomicLong solvers = new AtomicLong();
+
+	/**
+	 * @param batchQueries <code>true</code> if the queries of a {@link Batch} are solved by a single solver
+	 */
+	public BackwardQueryCache(CryptoScanner cryptoScanner, long maximumSize, boolean batchQueries, AnalysisTier tier) {
+		this.cryptoScanner = cryptoScanner;
+		this.results = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+		this.batchQueries = batchQueries;
+		this.tier = tier;
+		this.options = new CogniCryptIntAndStringBoomerangOptions(tier);
+	}
+
+	public AnalysisTier getTier() {
+		return tier;
+	}
+
+	public Result solve(Statement stmt, Val variable) {
+		return solve(new BackwardQuery(stmt, variable), this::newSolver);
+	}
+
+	/**
+	 * @return a new batch for the queries of a single seed
+	 */
+	public Batch newBatch() {
+		return new Batch();
+	}
+
+	private Result solve(BackwardQuery query, Supplier<Boomerang> solver) {
+		try {
+			return results.get(query, () -> compute(query, solver.get()));
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	private Boomerang newSolver() {
+		solvers.incrementAndGet();
+		return new Boomerang(options) {
+			@Override
+			public ObservableICFG<Unit, SootMethod> icfg() {
+				return cryptoScanner.icfg();
+			}
+		};
+	}
+
+	private Result compute(BackwardQuery query, Boomerang boomerang) {
+		BackwardBoomerangResults<NoWeight> res = boomerang.solve(query);
+		ImmutableMap.Builder<ForwardQuery, Set<Node<Statement, Val>>> allocationSites = ImmutableMap.builder();
+		for (ForwardQuery v : res.getAllocationSites().keySet()) {
+			allocationSites.put(v, ImmutableSet.copyOf(res.getDataFlowPath(v)));
+		}
+		return new Result(ImmutableSet.copyOf(res.getPropagationType()), allocationSites.build(), res.isTimedout());
+	}
+
+	/**
+	 * @return the number of results currently cached
+	 */
+	public long size() {
+		return results.size();
+	}
+
+	/**
+	 * @return the number of queries that were answered from the cache, that were solved, and the number of
+	 *         results that were evicted so far
+	 */
+	public CacheStats stats() {
+		return results.stats();
+	}
+
+	/**
+	 * @return the number of solvers that were created so far
+	 */
+	public long solverCount() {
+		return solvers.get();
+	}
+
+	/**
+	 * The queries that one seed issues. If batching is enabled, all queries of a batch that are not cached
+	 * yet are submitted to the same solver, such that the backward exploration of the call graph and the
+	 * field summaries they share are computed only once. The solver then keeps its state until the batch
+	 * is discarded. A batch must not be used by several threads at once.
+	 */
+	public class Batch {
+		private Boomerang solver;
+
+		private Batch() {
+		}
+
+		public Result solve(Statement stmt, Val variable) {
+			if (!batchQueries) {
+				return BackwardQueryCache.this.solve(stmt, variable);
+			}
+			return BackwardQueryCache.this.solve(new BackwardQuery(stmt, variable), () -> {
+				if (solver == null) {
+					solver = newSolver();
+				}
+				return solver;
+			});
+		}
+	}
+
+	/**
+	 * The allocation sites a backward query reaches, together with the data-flow path to each of them, and
+	 * the types the queried variable is propagated as.
+	 */
+	public static class Result {
+		private final Set<Type> propagationTypes;
+		private final Map<ForwardQuery, Set<Node<Statement, Val>>> allocationSites;
+		private final boolean timedOut;
+
+		private Result(Set<Type> propagationTypes, Map<ForwardQuery, Set<Node<Statement, Val>>> allocationSites, boolean timedOut) {
+			this.propagationTypes = propagationTypes;
+			this.allocationSites = allocationSites;
+			this.timedOut = timedOut;
+		}
+
+		/**
+		 * @return <code>true</code> if the query exceeded its budget, i.e., the allocation sites may be incomplete
+		 */
+		public boolean isTimedOut() {
+			return timedOut;
+		}
+
+		public Set<Type> getPropagationType() {
+			return propagationTypes;
+		}
+
+		public Set<ForwardQuery> getAllocationSites() {
+			return allocationSites.keySet();
+		}
+
+		public Set<Node<Statement, Val>> getDataFlowPath(ForwardQuery allocationSite) {
+			return allocationSites.get(allocationSite);
+		}
+	}
+}
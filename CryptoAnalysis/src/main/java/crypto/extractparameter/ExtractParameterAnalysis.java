@@ -9,19 +9,17 @@ import java.util.Set;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 
 import boomerang.BackwardQuery;
-import boomerang.Boomerang;
 import boomerang.ForwardQuery;
-import boomerang.callgraph.ObservableICFG;
 import boomerang.jimple.AllocVal;
 import boomerang.jimple.Statement;
 import boomerang.jimple.Val;
-import boomerang.results.BackwardBoomerangResults;
 import crypto.analysis.CryptoScanner;
-import crypto.boomerang.CogniCryptIntAndStringBoomerangOptions;
+import crypto.analysis.SeedBudget;
 import crypto.rules.CrySLMethod;
 import crypto.typestate.LabeledMatcherTransition;
 import crypto.typestate.SootBasedStateMachineGraph;
@@ -32,19 +30,23 @@ import soot.SootMethod;
 import soot.Type;
 import soot.Unit;
 import soot.Value;
+import soot.ValueBox;
+import soot.jimple.AssignStmt;
+import soot.jimple.IntConstant;
 import soot.jimple.Stmt;
+import soot.jimple.StringConstant;
 import sync.pds.solver.nodes.Node;
-import typestate.finiteautomata.MatcherTransition;
-import wpds.impl.Weight.NoWeight;
 
 public class ExtractParameterAnalysis {
 
 	private Map<Statement, SootMethod> allCallsOnObject;
-	private Collection<LabeledMatcherTransition> events = Sets.newHashSet();
+	private SootBasedStateMachineGraph fsm;
 	private CryptoScanner cryptoScanner;
 	private Multimap<CallSiteWithParamIndex, ExtractedValue> collectedValues = HashMultimap.create();
 	private Collection<CallSiteWithParamIndex> querySites = Sets.newHashSet();
 	private Multimap<CallSiteWithParamIndex, Type> propagatedTypes = HashMultimap.create();
+	private Map<SootMethod, Multimap<Local, Unit>> definitions = Maps.newHashMap();
+	private Collection<CallSiteWithParamIndex> impreciseQuerySites = Sets.newHashSet();
 	private DefaultValueMap<AdditionalBoomerangQuery, AdditionalBoomerangQuery> additionalBoomerangQuery = new DefaultValueMap<AdditionalBoomerangQuery, AdditionalBoomerangQuery>() {
 		@Override
 		protected AdditionalBoomerangQuery createItem(AdditionalBoomerangQuery key) {
@@ -56,29 +58,45 @@ public class ExtractParameterAnalysis {
 			SootBasedStateMachineGraph fsm) {
 		this.cryptoScanner = cryptoScanner;
 		this.allCallsOnObject = allCallsOnObject;
-		for (MatcherTransition m : fsm.getAllTransitions()) {
-			if (m instanceof LabeledMatcherTransition) {
-				this.events.add((LabeledMatcherTransition) m);
-			}
-		}
+		this.fsm = fsm;
 	}
 
 	public void run() {
+		run(SeedBudget.unlimited());
+	}
+
+	/**
+	 * Extracts the parameters of all calls on the object. The budget is checked before each backward query.
+	 * 
+	 * @param budget the budget of the seed the calls belong to
+	 */
+	public void run(SeedBudget budget) {
 		for (Map.Entry<Statement,SootMethod> stmt : allCallsOnObject.entrySet()) {
 			if (!stmt.getKey().isCallsite())
 				continue;
 
-			for (LabeledMatcherTransition e : events) {
+			for (LabeledMatcherTransition e : fsm.getMatchingTransitions(stmt.getValue())) {
 				e.getMatching(stmt.getValue())
 					.ifPresent(method -> injectQueryAtCallSite(method, stmt.getKey()));
 			}
 		}
 
+		BackwardQueryCache.Batch batch = cryptoScanner.getBackwardQueryCache().newBatch();
 		for (AdditionalBoomerangQuery q : additionalBoomerangQuery.keySet()) {
-			q.solve();
+			budget.check();
+			q.solve(batch);
 		}
 	}
 
+	/**
+	 * Releases the state that is only needed while the analysis runs, i.e., the backward queries with the
+	 * results they received and the definitions of locals. The collected values and query sites remain.
+	 */
+	public void compact() {
+		additionalBoomerangQuery.clear();
+		definitions.clear();
+	}
+
 	public Multimap<CallSiteWithParamIndex, ExtractedValue> getCollectedValues() {
 		return collectedValues;
 	}
@@ -91,6 +109,14 @@ public class ExtractParameterAnalysis {
 		return querySites;
 	}
 
+	/**
+	 * @return the query sites whose values may be incomplete, as their query exceeded its budget. These are only
+	 *         collected if the {@link crypto.boomerang.AnalysisTier} of the scan reports imprecise values.
+	 */
+	public Collection<CallSiteWithParamIndex> getImpreciseQuerySites() {
+		return impreciseQuerySites;
+	}
+
 	private void injectQueryAtCallSite(CrySLMethod match, Statement callSite) {
 		int index = 0;
 		for (Entry<String, String> param : match.getParameters())
@@ -111,6 +137,9 @@ public class ExtractParameterAnalysis {
 			return;
 		}
 		Val queryVal = new Val((Local) parameter, stmt.getMethod());
+		if (resolveLocally(varNameInSpecification, stmt, queryVal, index)) {
+			return;
+		}
 
 		for (Unit pred : cryptoScanner.icfg().getPredsOf(stmt.getUnit().get())) {
 			AdditionalBoomerangQuery query = additionalBoomerangQuery
@@ -120,9 +149,12 @@ public class ExtractParameterAnalysis {
 			querySites.add(callSiteWithParamIndex);
 			query.addListener(new QueryListener() {
 				@Override
-				public void solved(AdditionalBoomerangQuery q, BackwardBoomerangResults<NoWeight> res) {
+				public void solved(AdditionalBoomerangQuery q, BackwardQueryCache.Result res) {
 					propagatedTypes.putAll(callSiteWithParamIndex, res.getPropagationType());
-					for (ForwardQuery v : res.getAllocationSites().keySet()) {
+					if (res.isTimedOut() && cryptoScanner.getBackwardQueryCache().getTier().reportsImpreciseValues()) {
+						impreciseQuerySites.add(callSiteWithParamIndex);
+					}
+					for (ForwardQuery v : res.getAllocationSites()) {
 						ExtractedValue extractedValue = null;
 						if (v.var() instanceof AllocVal) {
 							AllocVal allocVal = (AllocVal) v.var();
@@ -146,6 +178,66 @@ public class ExtractParameterAnalysis {
 		}
 	}
 
+	/**
+	 * Resolves the value of a local that is, directly or via copies, assigned a constant exactly once within its
+	 * method. As no other statement or method can change such a local, its value is determined without a
+	 * Boomerang query. This covers most arguments, as the Boomerang pre-transformer moves each constant
+	 * argument into a local of its own.
+	 * 
+	 * @return <code>false</code> if the value of the local depends on other methods
+	 */
+	private boolean resolveLocally(String varNameInSpecification, Statement stmt, Val queryVal, int index) {
+		SootMethod method = stmt.getMethod();
+		if (!method.hasActiveBody()) {
+			return false;
+		}
+		Multimap<Local, Unit> defs = definitions.computeIfAbsent(method, ExtractParameterAnalysis::collectDefinitions);
+		Set<Node<Statement, Val>> dataFlowPath = Sets.newHashSet();
+		dataFlowPath.add(new Node<Statement, Val>(stmt, queryVal));
+		Set<Type> types = Sets.newHashSet();
+		Set<Local> visited = Sets.newHashSet();
+		Local local = (Local) queryVal.value();
+		while (visited.add(local)) {
+			Collection<Unit> localDefs = defs.get(local);
+			if (localDefs.size() != 1) {
+				return false;
+			}
+			Unit def = localDefs.iterator().next();
+			if (!(def instanceof AssignStmt)) {
+				// Parameters, this and caught exceptions are defined by identity statements.
+				return false;
+			}
+			types.add(local.getType());
+			Statement defStmt = new Statement((Stmt) def, method);
+			dataFlowPath.add(new Node<Statement, Val>(defStmt, new Val(local, method)));
+			Value rightOp = ((AssignStmt) def).getRightOp();
+			if (rightOp instanceof StringConstant || rightOp instanceof IntConstant) {
+				CallSiteWithParamIndex cs = new CallSiteWithParamIndex(stmt, queryVal, index, varNameInSpecification);
+				querySites.add(cs);
+				collectedValues.put(cs, new ExtractedValue(defStmt, rightOp, dataFlowPath));
+				propagatedTypes.putAll(cs, types);
+				return true;
+			}
+			if (!(rightOp instanceof Local)) {
+				return false;
+			}
+			local = (Local) rightOp;
+		}
+		return false;
+	}
+
+	private static Multimap<Local, Unit> collectDefinitions(SootMethod method) {
+		Multimap<Local, Unit> defs = HashMultimap.create();
+		for (Unit u : method.getActiveBody().getUnits()) {
+			for (ValueBox box : u.getDefBoxes()) {
+				if (box.getValue() instanceof Local) {
+					defs.put((Local) box.getValue(), u);
+				}
+			}
+		}
+		return defs;
+	}
+
 	public void addAdditionalBoomerangQuery(AdditionalBoomerangQuery q, QueryListener listener) {
 		AdditionalBoomerangQuery query = additionalBoomerangQuery.getOrCreate(q);
 		query.addListener(listener);
@@ -158,16 +250,25 @@ public class ExtractParameterAnalysis {
 
 		protected boolean solved;
 		private List<QueryListener> listeners = Lists.newLinkedList();
-		private BackwardBoomerangResults<NoWeight> res;
+		private BackwardQueryCache.Result res;
 
+		/**
+		 * Solves the query via the {@link BackwardQueryCache} of the scan, which shares the result with the
+		 * parameter analyses of other seeds that issue the same query.
+		 */
 		public void solve() {
-			Boomerang boomerang = new Boomerang(new CogniCryptIntAndStringBoomerangOptions()) {
-				@Override
-				public ObservableICFG<Unit, SootMethod> icfg() {
-					return ExtractParameterAnalysis.this.cryptoScanner.icfg();
-				}
-			};
-			res = boomerang.solve(this);
+			notifySolved(ExtractParameterAnalysis.this.cryptoScanner.getBackwardQueryCache().solve(stmt(), var()));
+		}
+
+		/**
+		 * Solves the query as part of the batch of queries of a seed.
+		 */
+		public void solve(BackwardQueryCache.Batch batch) {
+			notifySolved(batch.solve(stmt(), var()));
+		}
+
+		private void notifySolved(BackwardQueryCache.Result res) {
+			this.res = res;
 			for (QueryListener l : Lists.newLinkedList(listeners)) {
 				l.solved(this, res);
 			}
@@ -185,7 +286,7 @@ public class ExtractParameterAnalysis {
 	}
 
 	private static interface QueryListener {
-		public void solved(AdditionalBoomerangQuery q, BackwardBoomerangResults<NoWeight> res);
+		public void solved(AdditionalBoomerangQuery q, BackwardQueryCache.Result res);
 	}
 
 }
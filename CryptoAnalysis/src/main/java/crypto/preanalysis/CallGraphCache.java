@@ -0,0 +1,268 @@
+package crypto.preanalysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import crypto.analysis.CryptoScannerSettings.ControlGraph;
+import crypto.rules.CrySLRule;
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.jimple.toolkits.callgraph.Kind;
+import soot.util.queue.QueueReader;
+
+/**
+ * Stores the call graph of a scan on disk, such that a later scan of the same application, with the same
+ * class path, call graph algorithm and rules, restores it instead of constructing it again.
+ *
+ * The entries are keyed by a hash over these inputs, where the files of the application and class path
+ * contribute the hashes of their contents. The content of a file is only hashed again if its size or
+ * modification time changed since the last scan that used the same directory (see {@link ClassPathDigests}).
+ * Call sites are identified by the index of their statement
+ * within the body of the calling method, hence, the call graph must be stored and restored at the same
+ * stage of the body transformations.
+ */
+public class CallGraphCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CallGraphCache.class);
+	private static final Gson GSON = new GsonBuilder().create();
+
+	private final File file;
+
+	private CallGraphCache(File directory, String key) {
+		this.file = new File(directory, key + ".cg.json.gz");
+	}
+
+	public static CallGraphCache create(File directory, String applicationClassPath, String sootClassPath, ControlGraph callGraphAlgorithm, List<CrySLRule> rules) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(callGraphAlgorithm.name(), StandardCharsets.UTF_8);
+		putApplication(hasher, applicationClassPath, sootClassPath, rules, directory);
+		return new CallGraphCache(directory, hasher.hash().toString());
+	}
+
+	/**
+	 * @param directory the directory in which the content hashes of the class path files are recorded or
+	 *                  <code>null</code> to hash all files
+	 * @return a hash that identifies the application, class path and rules of a scan in the same way as the
+	 *         key of a cache entry
+	 */
+	public static String fingerprint(File directory, String applicationClassPath, String sootClassPath, List<CrySLRule> rules) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		putApplication(hasher, applicationClassPath, sootClassPath, rules, directory);
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * @param directory the directory in which the content hashes of the class path files are recorded or
+	 *                  <code>null</code> to hash all files
+	 * @return a hash that identifies the class path and rules of a scan, but not the application, i.e., the
+	 *         entries of the class path that are also on the application class path are not hashed
+	 */
+	public static String environmentFingerprint(File directory, String applicationClassPath, String sootClassPath, List<CrySLRule> rules) {
+		Set<String> application = Sets.newHashSet();
+		if (applicationClassPath != null) {
+			for (String entry : applicationClassPath.split(File.pathSeparator)) {
+				application.add(new File(entry).getAbsolutePath());
+			}
+		}
+		String libraries = null;
+		if (sootClassPath != null) {
+			libraries = Arrays.stream(sootClassPath.split(File.pathSeparator))
+					.filter(entry -> !application.contains(new File(entry).getAbsolutePath()))
+					.collect(Collectors.joining(File.pathSeparator));
+		}
+		return fingerprint(directory, null, libraries, rules);
+	}
+
+	private static void putApplication(Hasher hasher, String applicationClassPath, String sootClassPath, List<CrySLRule> rules, File directory) {
+		ClassPathDigests digests = ClassPathDigests.load(directory);
+		hasher.putString(System.getProperty("java.version"), StandardCharsets.UTF_8);
+		putPath(hasher, applicationClassPath, digests);
+		putPath(hasher, sootClassPath, digests);
+		for (CrySLRule rule : rules) {
+			hasher.putString(rule.toString(), StandardCharsets.UTF_8);
+		}
+		digests.save();
+	}
+
+	private static void putPath(Hasher hasher, String path, ClassPathDigests digests) {
+		if (path == null) {
+			return;
+		}
+		hasher.putString(path, StandardCharsets.UTF_8);
+		for (String entry : path.split(File.pathSeparator)) {
+			if (entry.isEmpty() || !new File(entry).exists()) {
+				continue;
+			}
+			try (Stream<Path> files = Files.walk(new File(entry).toPath())) {
+				for (Path f : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+					hasher.putString(f.toString(), StandardCharsets.UTF_8);
+					hasher.putString(digests.digest(f), StandardCharsets.UTF_8);
+				}
+			} catch (IOException e) {
+				// An entry that cannot be read does not identify the application, hence, it never matches.
+				hasher.putLong(System.nanoTime());
+			}
+		}
+	}
+
+	public boolean exists() {
+		return file.exists();
+	}
+
+	/**
+	 * Restores the call graph of the scene. The bodies of all methods reachable in the restored call graph
+	 * are created, just as the call graph construction does.
+	 *
+	 * @return <code>false</code> if the cache does not contain a call graph that matches the scene
+	 */
+	public boolean load() {
+		if (!exists()) {
+			return false;
+		}
+		StoredCallGraph stored;
+		try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(file.toPath())), StandardCharsets.UTF_8)) {
+			stored = GSON.fromJson(reader, StoredCallGraph.class);
+		} catch (IOException | JsonParseException e) {
+			LOGGER.warn("Failed to read call graph cache " + file, e);
+			return false;
+		}
+		if (stored == null) {
+			return false;
+		}
+		SootMethod[] methods = new SootMethod[stored.methods.size()];
+		for (int i = 0; i < methods.length; i++) {
+			methods[i] = Scene.v().grabMethod(stored.methods.get(i));
+			if (methods[i] == null) {
+				return stale("method " + stored.methods.get(i) + " does not exist");
+			}
+		}
+		Map<SootMethod, List<Unit>> units = Maps.newHashMap();
+		CallGraph callGraph = new CallGraph();
+		for (int[] e : stored.edges) {
+			SootMethod src = methods[e[0]];
+			Stmt srcUnit = null;
+			if (e[1] >= 0) {
+				if (!src.isConcrete()) {
+					return stale("method " + src + " has no body");
+				}
+				List<Unit> body = units.computeIfAbsent(src, m -> Lists.newArrayList(m.retrieveActiveBody().getUnits()));
+				if (e[1] >= body.size() || !(body.get(e[1]) instanceof Stmt)) {
+					return stale("the body of " + src + " changed");
+				}
+				srcUnit = (Stmt) body.get(e[1]);
+			}
+			callGraph.addEdge(new Edge(src, srcUnit, methods[e[2]], Kind.valueOf(stored.kinds.get(e[3]))));
+		}
+		Scene.v().setCallGraph(callGraph);
+		QueueReader<MethodOrMethodContext> reachable = Scene.v().getReachableMethods().listener();
+		while (reachable.hasNext()) {
+			SootMethod method = reachable.next().method();
+			if (method.isConcrete() && method.getDeclaringClass().resolvingLevel() >= SootClass.BODIES) {
+				method.retrieveActiveBody();
+			}
+		}
+		LOGGER.info("Restored call graph with {} edges from {}", stored.edges.size(), file);
+		return true;
+	}
+
+	private boolean stale(String reason) {
+		LOGGER.info("Ignoring call graph cache {}, as {}", file, reason);
+		return false;
+	}
+
+	/**
+	 * Stores the call graph of the scene. The cache is first written to a temporary file that then replaces
+	 * the previous entry, such that concurrent or interrupted scans never leave a corrupt entry behind.
+	 */
+	public void store() {
+		StoredCallGraph stored = new StoredCallGraph();
+		Map<SootMethod, Integer> methodIds = Maps.newHashMap();
+		Map<Kind, Integer> kindIds = Maps.newHashMap();
+		Map<SootMethod, Map<Unit, Integer>> unitIds = Maps.newHashMap();
+		for (Edge e : Scene.v().getCallGraph()) {
+			int src = methodIds.computeIfAbsent(e.src(), m -> add(stored.methods, m.getSignature()));
+			int tgt = methodIds.computeIfAbsent(e.tgt(), m -> add(stored.methods, m.getSignature()));
+			int kind = kindIds.computeIfAbsent(e.kind(), k -> add(stored.kinds, k.name()));
+			int unit = -1;
+			if (e.srcUnit() != null) {
+				Integer index = unitIds.computeIfAbsent(e.src(), CallGraphCache::indexUnits).get(e.srcUnit());
+				if (index == null) {
+					LOGGER.warn("Not caching the call graph, as the call site {} is not part of the body of {}", e.srcUnit(), e.src());
+					return;
+				}
+				unit = index;
+			}
+			stored.edges.add(new int[] { src, unit, tgt, kind });
+		}
+		try {
+			File directory = file.getParentFile();
+			Files.createDirectories(directory.toPath());
+			Path tmp = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+			try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8)) {
+				GSON.toJson(stored, writer);
+			}
+			Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOGGER.warn("Failed to write call graph cache " + file, e);
+		}
+	}
+
+	private static int add(List<String> table, String value) {
+		table.add(value);
+		return table.size() - 1;
+	}
+
+	private static Map<Unit, Integer> indexUnits(SootMethod method) {
+		Map<Unit, Integer> index = Maps.newHashMap();
+		if (method.hasActiveBody()) {
+			for (Unit u : method.getActiveBody().getUnits()) {
+				index.put(u, index.size());
+			}
+		}
+		return index;
+	}
+
+	private static class StoredCallGraph {
+		private final List<String> methods = Lists.newArrayList();
+		private final List<String> kinds = Lists.newArrayList();
+		/**
+		 * Each edge is stored as the index of its source method, the index of its call site within the body of
+		 * the source method or -1 for implicit edges, the index of its target method and the index of its kind.
+		 */
+		private final List<int[]> edges = Lists.newArrayList();
+	}
+}
@@ -0,0 +1,124 @@
+package crypto.preanalysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Records the content hashes of the files on a class path together with their size and modification time.
+ * A file is only read and hashed again if its size or modification time differs from the recorded ones, such
+ * that an unchanged class path is identified by its file attributes alone, while a file that is rewritten
+ * with the same content still has the same hash.
+ *
+ * The records are stored in a directory, such that later scans reuse them. Only the records of the files
+ * that were looked up since the records were loaded are stored again.
+ */
+class ClassPathDigests {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ClassPathDigests.class);
+	private static final Gson GSON = new GsonBuilder().create();
+	private static final String FILE_NAME = "classpath-digests.json";
+
+	private final File file;
+	private final Map<String, Digest> recorded;
+	private final Map<String, Digest> used = Maps.newHashMap();
+	private boolean changed;
+
+	private ClassPathDigests(File file, Map<String, Digest> recorded) {
+		this.file = file;
+		this.recorded = recorded;
+	}
+
+	/**
+	 * @param directory the directory the records are stored in or <code>null</code> to hash every file
+	 */
+	static ClassPathDigests load(File directory) {
+		Map<String, Digest> recorded = Maps.newHashMap();
+		if (directory == null) {
+			return new ClassPathDigests(null, recorded);
+		}
+		File file = new File(directory, FILE_NAME);
+		if (file.exists()) {
+			try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+				StoredDigests stored = GSON.fromJson(reader, StoredDigests.class);
+				if (stored != null && stored.digests != null) {
+					recorded.putAll(stored.digests);
+				}
+			} catch (IOException | JsonParseException e) {
+				LOGGER.warn("Failed to read class path digests " + file + ", hashing all files", e);
+			}
+		}
+		return new ClassPathDigests(file, recorded);
+	}
+
+	/**
+	 * @return the hash of the content of the file
+	 */
+	String digest(Path path) throws IOException {
+		String key = path.toAbsolutePath().toString();
+		long size = Files.size(path);
+		long modified = Files.getLastModifiedTime(path).toMillis();
+		Digest digest = recorded.get(key);
+		if (digest == null || digest.size != size || digest.modified != modified) {
+			digest = new Digest(size, modified, com.google.common.io.Files.asByteSource(path.toFile()).hash(Hashing.sha256()).toString());
+			recorded.put(key, digest);
+			changed = true;
+		}
+		used.put(key, digest);
+		return digest.hash;
+	}
+
+	/**
+	 * Stores the records of the files that were looked up, if any of them was hashed again.
+	 */
+	void save() {
+		if (file == null || !changed) {
+			return;
+		}
+		StoredDigests stored = new StoredDigests();
+		stored.digests = used;
+		try {
+			Path directory = file.getParentFile().toPath();
+			Files.createDirectories(directory);
+			Path tmp = Files.createTempFile(directory, FILE_NAME, ".tmp");
+			try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+				GSON.toJson(stored, writer);
+			}
+			Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			changed = false;
+		} catch (IOException e) {
+			LOGGER.warn("Failed to write class path digests " + file, e);
+		}
+	}
+
+	private static class StoredDigests {
+		private Map<String, Digest> digests;
+	}
+
+	private static class Digest {
+		private final long size;
+		private final long modified;
+		private final String hash;
+
+		private Digest(long size, long modified, String hash) {
+			this.size = size;
+			this.modified = modified;
+			this.hash = hash;
+		}
+	}
+}
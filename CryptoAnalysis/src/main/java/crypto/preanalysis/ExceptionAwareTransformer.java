@@ -4,11 +4,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
-import crypto.constraints.ExceptionConstraint;
+import crypto.constraints.TrapIndex;
 import crypto.rules.CrySLExceptionConstraint;
 import crypto.rules.CrySLRule;
 import crypto.typestate.CrySLMethodToSootMethod;
@@ -31,44 +32,51 @@ import soot.jimple.internal.JIfStmt;
 /**
  * This transformer adds a branch after each statement, that may throw an
  * Exception, to the handler of that Exception.
- * The exceptions that a statement may throw are declared in the CrySLRule.
+ * The exceptions that a statement may throw are declared in the CrySLRules.
+ * One transformer handles the rules of all classes, such that each body is
+ * visited once.
  */
 public class ExceptionAwareTransformer extends BodyTransformer {
 
+	private static final String PHASE_NAME = "jap.etr";
+
 	public static void setup(final List<CrySLRule> rules) {
-		for (final CrySLRule rule : rules) {
-			final String phaseName = "jap.etr-" + rule.getClassName();
-			PackManager.v().getPack("jap").remove(phaseName);
-			PackManager.v().getPack("jap").add(new Transform(phaseName, new ExceptionAwareTransformer(rule)));
-			PhaseOptions.v().setPhaseOption(phaseName, "on");
-		}
+		PackManager.v().getPack("jap").remove(PHASE_NAME);
+		PackManager.v().getPack("jap").add(new Transform(PHASE_NAME, new ExceptionAwareTransformer(rules)));
+		PhaseOptions.v().setPhaseOption(PHASE_NAME, "on");
 		PackManager.v().runPacks();
 	}
 
-	private final SootClass spec;
+	/**
+	 * For each class with a rule, the methods declared in its exception constraints and the exceptions they throw.
+	 */
+	private final Map<SootClass, Multimap<SootMethod, SootClass>> exceptions = new HashMap<>();
 
-	private final Multimap<SootMethod, SootClass> exceptions;
+	private final Map<SootMethod, Optional<SootMethod>> lookupCache = new ConcurrentHashMap<>();
 
-	private final Map<SootMethod, SootMethod> lookupCache = new HashMap<>();
-
-	public ExceptionAwareTransformer(final CrySLRule rule) {
-		this.exceptions = HashMultimap.create();
-		this.spec = Scene.v().getSootClass(rule.getClassName());
-		rule.getConstraints().stream()
-				.filter(constraint -> constraint instanceof CrySLExceptionConstraint)
-				.map(constraint -> (CrySLExceptionConstraint) constraint)
-				.forEach(constraint -> CrySLMethodToSootMethod.v().convert(constraint.getMethod()).stream()
-						.forEach(
-								method -> exceptions.put(method, Scene.v().getSootClass(constraint.getException().getException()))));
+	public ExceptionAwareTransformer(final List<CrySLRule> rules) {
+		for (final CrySLRule rule : rules) {
+			rule.getConstraints().stream()
+					.filter(constraint -> constraint instanceof CrySLExceptionConstraint)
+					.map(constraint -> (CrySLExceptionConstraint) constraint)
+					.forEach(constraint -> CrySLMethodToSootMethod.v().convert(constraint.getMethod()).stream()
+							.forEach(method -> exceptions
+									.computeIfAbsent(Scene.v().getSootClass(rule.getClassName()), spec -> HashMultimap.create())
+									.put(method, Scene.v().getSootClass(constraint.getException().getException()))));
+		}
 	}
 
 	protected void internalTransform(final Body body, final String phase, final Map<String, String> options) {
+		if (exceptions.isEmpty())
+			return;
 		if (body.getMethod().getDeclaringClass().getName().startsWith("java."))
 			return;
 		if (!body.getMethod().getDeclaringClass().isApplicationClass())
 			return;
 
 		final UnitPatchingChain units = body.getUnits();
+		// Indexes the traps before branches are added, the added branches are never looked up.
+		final TrapIndex traps = new TrapIndex(body);
 		units.snapshotIterator().forEachRemaining(unit -> {
 			if (!(unit instanceof Stmt))
 				return;
@@ -76,13 +84,13 @@ public class ExceptionAwareTransformer extends BodyTransformer {
 				return;
 
 			final SootMethod called = ((Stmt) unit).getInvokeExpr().getMethod();
-
-			if (!called.getDeclaringClass().equals(this.spec))
+			final Multimap<SootMethod, SootClass> declaredExceptions = exceptions.get(called.getDeclaringClass());
+			if (declaredExceptions == null)
 				return;
 
-			lookup(called).ifPresent(declared -> {
-				for (final SootClass exception : exceptions.get(declared))
-					ExceptionConstraint.getTrap(body, unit, exception)
+			lookup(called, declaredExceptions).ifPresent(declared -> {
+				for (final SootClass exception : declaredExceptions.get(declared))
+					traps.getTrap(unit, exception)
 							.ifPresent(trap -> addBranch(units, unit, trap.getHandlerUnit()));
 			});
 		});
@@ -93,16 +101,15 @@ public class ExceptionAwareTransformer extends BodyTransformer {
 		units.insertOnEdge(new JIfStmt(condition, to), after, null);
 	}
 
-	private Optional<SootMethod> lookup(final SootMethod called) {
-		if (lookupCache.containsKey(called))
-			return Optional.of(lookupCache.get(called));
-		for (final SootMethod declared : exceptions.keySet()) {
-			if (LabeledMatcherTransition.matches(called, declared)) {
-				lookupCache.put(called, declared);
-				return Optional.of(declared);
+	private Optional<SootMethod> lookup(final SootMethod called, final Multimap<SootMethod, SootClass> declaredExceptions) {
+		return lookupCache.computeIfAbsent(called, c -> {
+			for (final SootMethod declared : declaredExceptions.keySet()) {
+				if (LabeledMatcherTransition.matches(c, declared)) {
+					return Optional.of(declared);
+				}
 			}
-		}
-		return Optional.empty();
+			return Optional.empty();
+		});
 	}
 
 }
@@ -4,37 +4,86 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import boomerang.Query;
 import boomerang.WeightedForwardQuery;
+import crypto.analysis.ParallelMap;
 import crypto.rules.CrySLRule;
 import crypto.typestate.FiniteStateMachineToTypestateChangeFunction;
 import crypto.typestate.SootBasedStateMachineGraph;
 import soot.SootMethod;
 import soot.Unit;
+import soot.jimple.Stmt;
 import typestate.TransitionFunction;
 
 public class SeedFactory {
 
-	private List<FiniteStateMachineToTypestateChangeFunction> idealAnalysisDefs = Lists.newLinkedList();
-	private Set<Query> seeds = Sets.newHashSet();
+	/**
+	 * Maps each method labeling an initial transition to the typestate definitions of the rules it starts.
+	 */
+	private final ListMultimap<SootMethod, FiniteStateMachineToTypestateChangeFunction> idealAnalysisDefs = ArrayListMultimap.create();
+	private Set<Query> seeds = Sets.newLinkedHashSet();
 
 	public SeedFactory(List<CrySLRule> rules) {
 		for(CrySLRule rule : rules){
-			idealAnalysisDefs.add(new FiniteStateMachineToTypestateChangeFunction(new SootBasedStateMachineGraph(rule.getUsagePattern())));
+			SootBasedStateMachineGraph fsm = new SootBasedStateMachineGraph(rule.getUsagePattern());
+			FiniteStateMachineToTypestateChangeFunction defs = new FiniteStateMachineToTypestateChangeFunction(fsm);
+			for (SootMethod method : fsm.initialTransitonLabel()) {
+				idealAnalysisDefs.put(method, defs);
+			}
 		}
 	}
 
-	public void generate(SootMethod method, Unit unit) {
-		for(FiniteStateMachineToTypestateChangeFunction defs : idealAnalysisDefs){
-			Collection<WeightedForwardQuery<TransitionFunction>> found = defs.generateSeed(method, unit);
-			seeds.addAll(found);
+	public synchronized void generate(SootMethod method, Unit unit) {
+		seeds.addAll(seedsOf(method, unit));
+	}
+
+	/**
+	 * Generates the seeds of all given method bodies. The bodies are scanned on a fork-join pool with the
+	 * given parallelism. The seeds found per method are merged in the order of the methods, such that the
+	 * result does not depend on the scheduling of the threads.
+	 */
+	public void generate(List<SootMethod> methods, int parallelism) {
+		List<List<Query>> seedsPerMethod = ParallelMap.map(methods, this::seedsOf, parallelism, "generating seeds");
+		synchronized (this) {
+			for (List<Query> found : seedsPerMethod) {
+				seeds.addAll(found);
+			}
+		}
+	}
+
+	private List<Query> seedsOf(SootMethod method) {
+		List<Query> found = Lists.newArrayList();
+		for (Unit unit : method.getActiveBody().getUnits()) {
+			found.addAll(seedsOf(method, unit));
 		}
+		return found;
+	}
+
+	private List<Query> seedsOf(SootMethod method, Unit unit) {
+		List<Query> found = Lists.newArrayList();
+		if (!(unit instanceof Stmt) || !((Stmt) unit).containsInvokeExpr()) {
+			return found;
+		}
+		for(FiniteStateMachineToTypestateChangeFunction defs : idealAnalysisDefs.get(((Stmt) unit).getInvokeExpr().getMethod())){
+			Collection<WeightedForwardQuery<TransitionFunction>> generated = defs.generateSeed(method, unit);
+			found.addAll(generated);
+		}
+		return found;
 	}
 	
-	public boolean hasSeeds(){
+	public synchronized boolean hasSeeds(){
 		return !seeds.isEmpty();
 	}
+
+	/**
+	 * @return the generated seeds in the order in which they were generated
+	 */
+	public synchronized List<Query> getSeeds() {
+		return Lists.newArrayList(seeds);
+	}
 }
@@ -2,6 +2,7 @@ package crypto.predicates;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import com.google.common.collect.HashBasedTable;
@@ -11,7 +12,6 @@ import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
 import boomerang.jimple.Statement;
 import boomerang.jimple.Val;
-import boomerang.results.ForwardBoomerangResults;
 import crypto.analysis.AlternativeReqPredicate;
 import crypto.analysis.AnalysisSeedWithSpecification;
 import crypto.analysis.ClassSpecification;
@@ -20,6 +20,7 @@ import crypto.analysis.EnsuredCrySLPredicate;
 import crypto.analysis.IAnalysisSeed;
 import crypto.analysis.RequiredCrySLPredicate;
 import crypto.analysis.ResultsHandler;
+import crypto.analysis.SeedResultSummary;
 import crypto.analysis.errors.PredicateContradictionError;
 import crypto.analysis.errors.RequiredPredicateError;
 import crypto.extractparameter.CallSiteWithExtractedValue;
@@ -36,8 +37,11 @@ import soot.jimple.InstanceInvokeExpr;
 import soot.jimple.InvokeExpr;
 import soot.jimple.StaticInvokeExpr;
 import soot.jimple.Stmt;
-import typestate.TransitionFunction;
 
+/**
+ * Keeps track of the predicates that are ensured and expected by the analyzed seeds. All tables are
+ * guarded by the monitor of the {@link CryptoScanner} that owns this handler.
+ */
 public class PredicateHandler {
 
 	private final class AddPredicateToOtherSeed implements ResultsHandler {
@@ -56,8 +60,8 @@ public class PredicateHandler {
 		}
 
 		@Override
-		public void done(ForwardBoomerangResults<TransitionFunction> results) {
-			if (results.asStatementValWeightTable().row(statement).containsKey(new Val(base, callerMethod))) {
+		public void done(SeedResultSummary results) {
+			if (results.reaches(statement, new Val(base, callerMethod))) {
 				secondSeed.addEnsuredPredicate(ensPred);
 			}
 		}
@@ -130,31 +134,38 @@ public class PredicateHandler {
 	}
 
 	public boolean addNewPred(IAnalysisSeed seedObj, Statement statement, Val variable, EnsuredCrySLPredicate ensPred) {
-		Set<EnsuredCrySLPredicate> set = getExistingPredicates(statement, variable);
-		boolean added = set.add(ensPred);
-		assert existingPredicates.get(statement, variable).contains(ensPred);
-		if (added) {
-			onPredicateAdded(seedObj, statement, variable, ensPred);
+		synchronized (cryptoScanner) {
+			Set<EnsuredCrySLPredicate> set = getExistingPredicates(statement, variable);
+			boolean added = set.add(ensPred);
+			assert existingPredicates.get(statement, variable).contains(ensPred);
+			if (added) {
+				onPredicateAdded(seedObj, statement, variable, ensPred);
+			}
+			cryptoScanner.getAnalysisListener().onSecureObjectFound(seedObj);
+			Set<EnsuredCrySLPredicate> predsObjBased = existingPredicatesObjectBased.get(statement, seedObj);
+			if (predsObjBased == null)
+				predsObjBased = Sets.newHashSet();
+			predsObjBased.add(ensPred);
+			existingPredicatesObjectBased.put(statement, seedObj, predsObjBased);
+			if (cryptoScanner.getCheckpointer() != null) {
+				cryptoScanner.getCheckpointer().ensuredPredicate(seedObj, statement, variable, ensPred);
+			}
+			return added;
 		}
-		cryptoScanner.getAnalysisListener().onSecureObjectFound(seedObj);
-		Set<EnsuredCrySLPredicate> predsObjBased = existingPredicatesObjectBased.get(statement, seedObj);
-		if (predsObjBased == null)
-			predsObjBased = Sets.newHashSet();
-		predsObjBased.add(ensPred);
-		existingPredicatesObjectBased.put(statement, seedObj, predsObjBased);
-		return added;
 	}
 
 	/**
 	 * @return the existingPredicates
 	 */
 	public Set<EnsuredCrySLPredicate> getExistingPredicates(Statement stmt, Val seed) {
-		Set<EnsuredCrySLPredicate> set = existingPredicates.get(stmt, seed);
-		if (set == null) {
-			set = Sets.newHashSet();
-			existingPredicates.put(stmt, seed, set);
+		synchronized (cryptoScanner) {
+			Set<EnsuredCrySLPredicate> set = existingPredicates.get(stmt, seed);
+			if (set == null) {
+				set = Sets.newHashSet();
+				existingPredicates.put(stmt, seed, set);
+			}
+			return set;
 		}
-		return set;
 	}
 
 	private void onPredicateAdded(IAnalysisSeed seedObj, Statement statement, Val seed, EnsuredCrySLPredicate ensPred) {
@@ -171,7 +182,7 @@ public class PredicateHandler {
 						paramMatch = true;
 				}
 				if (paramMatch) {
-					for (AnalysisSeedWithSpecification secondSeed : Lists.newArrayList(cryptoScanner.getAnalysisSeeds())) {
+					for (AnalysisSeedWithSpecification secondSeed : cryptoScanner.getAnalysisSeeds()) {
 						secondSeed.registerResultsHandler(new AddPredicateToOtherSeed(statement, base, callerMethod, ensPred, secondSeed));
 
 					}
@@ -186,7 +197,7 @@ public class PredicateHandler {
 						paramMatch = true;
 				}
 				if (paramMatch) {
-					for (AnalysisSeedWithSpecification spec : Lists.newArrayList(cryptoScanner.getAnalysisSeeds())) {
+					for (AnalysisSeedWithSpecification spec : cryptoScanner.getAnalysisSeeds()) {
 						if (spec.stmt().equals(statement)) {
 							spec.addEnsuredPredicate(ensPred);
 						}
@@ -198,43 +209,65 @@ public class PredicateHandler {
 	}
 
 	public void expectPredicate(IAnalysisSeed object, Statement stmt, CrySLPredicate predToBeEnsured) {
-		for (Unit succ : cryptoScanner.icfg().getSuccsOf(stmt.getUnit().get())) {
-			Set<CrySLPredicate> set = expectedPredicateObjectBased.get(succ, object);
-			if (set == null)
-				set = Sets.newHashSet();
-			set.add(predToBeEnsured);
-			expectedPredicateObjectBased.put(new Statement((Stmt) succ, stmt.getMethod()), object, set);
+		synchronized (cryptoScanner) {
+			for (Unit succ : cryptoScanner.icfg().getSuccsOf(stmt.getUnit().get())) {
+				Set<CrySLPredicate> set = expectedPredicateObjectBased.get(succ, object);
+				if (set == null)
+					set = Sets.newHashSet();
+				set.add(predToBeEnsured);
+				expectedPredicateObjectBased.put(new Statement((Stmt) succ, stmt.getMethod()), object, set);
+			}
+			if (cryptoScanner.getCheckpointer() != null) {
+				cryptoScanner.getCheckpointer().expectedPredicate(object, stmt, predToBeEnsured);
+			}
 		}
 	}
 
 	public void checkPredicates() {
-		checkMissingRequiredPredicates();
-		checkForContradictions();
-		cryptoScanner.getAnalysisListener().ensuredPredicates(this.existingPredicates, expectedPredicateObjectBased, computeMissingPredicates());
+		synchronized (cryptoScanner) {
+			checkMissingRequiredPredicates();
+			checkForContradictions();
+			cryptoScanner.getAnalysisListener().ensuredPredicates(this.existingPredicates, expectedPredicateObjectBased, computeMissingPredicates());
+		}
 	}
 
 	private void checkMissingRequiredPredicates() {
 		for (AnalysisSeedWithSpecification seed : cryptoScanner.getAnalysisSeeds()) {
-			Set<ISLConstraint> missingPredicates = seed.getMissingPredicates();
-			for (ISLConstraint pred : missingPredicates) {
+			for (RequiredPredicateError error : getMissingPredicateErrors(seed)) {
+				cryptoScanner.getAnalysisListener().reportError(seed, error);
+			}
+		}
+	}
+
+	/**
+	 * @return the errors for the predicates that are required by the seed but have not been ensured so far
+	 */
+	public List<RequiredPredicateError> getMissingPredicateErrors(AnalysisSeedWithSpecification seed) {
+		synchronized (cryptoScanner) {
+			List<RequiredPredicateError> errors = Lists.newArrayList();
+			if (seed.getParameterAnalysis() == null) {
+				// The seed was not analyzed, e.g., because it timed out or was restored from a checkpoint.
+				return errors;
+			}
+			for (ISLConstraint pred : seed.getMissingPredicates()) {
 				if (pred instanceof RequiredCrySLPredicate) {
-					reportMissingPred(seed, (RequiredCrySLPredicate) pred);
+					collectMissingPred(seed, (RequiredCrySLPredicate) pred, errors);
 				} else if (pred instanceof CrySLConstraint) {
 					for (CrySLPredicate altPred : ((AlternativeReqPredicate) pred).getAlternatives()) {
-						reportMissingPred(seed, new RequiredCrySLPredicate(altPred, altPred.getLocation()));
+						collectMissingPred(seed, new RequiredCrySLPredicate(altPred, altPred.getLocation()), errors);
 					}
 				}
 			}
+			return errors;
 		}
 	}
 
-	private void reportMissingPred(AnalysisSeedWithSpecification seed, RequiredCrySLPredicate missingPred) {
+	private void collectMissingPred(AnalysisSeedWithSpecification seed, RequiredCrySLPredicate missingPred, List<RequiredPredicateError> errors) {
 		CrySLRule rule = seed.getSpec().getRule();
 		if (!rule.getPredicates().parallelStream().anyMatch(e -> missingPred.getPred().getPredName().equals(e.getPredName()) && missingPred.getPred().getParameters().get(0).equals(e.getParameters().get(0)))) {
 			for (CallSiteWithParamIndex v : seed.getParameterAnalysis().getAllQuerySites()) {
 				if (missingPred.getPred().getInvolvedVarNames().contains(v.getVarName()) && v.stmt().equals(missingPred.getLocation())) {
-					cryptoScanner.getAnalysisListener().reportError(seed,
-							new RequiredPredicateError(missingPred.getPred(), missingPred.getLocation(), seed.getSpec().getRule(), new CallSiteWithExtractedValue(v, null)));
+					errors.add(new RequiredPredicateError(missingPred.getPred(), missingPred.getLocation(), seed.getSpec().getRule(), new CallSiteWithExtractedValue(v, null)));
 				}
 			}
 		}
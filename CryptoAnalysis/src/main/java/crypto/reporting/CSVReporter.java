@@ -76,7 +76,7 @@ public class CSVReporter extends ErrorMarkerListener {
 	 */
 	private enum Headers{
 		SoftwareID,SeedObjectCount,CallGraphTime_ms,CryptoAnalysisTime_ms,CallGraphReachableMethods,
-		CallGraphReachableMethods_ActiveBodies,DataflowVisitedMethod
+		CallGraphReachableMethods_ActiveBodies,DataflowVisitedMethod,Partial,UnprocessedSeedObjectCount,UnprocessedSeedObjects
 	}
 
 	/**
@@ -137,15 +137,22 @@ public class CSVReporter extends ErrorMarkerListener {
 		put(Headers.DataflowVisitedMethod, dataflowReachableMethods.size());
 		put(Headers.CryptoAnalysisTime_ms, analysisTime.elapsed(TimeUnit.MILLISECONDS));
 		put(Headers.SeedObjectCount, seeds);
+		put(Headers.Partial, isPartial());
+		put(Headers.UnprocessedSeedObjectCount, unprocessedObjects.size());
+		List<String> unprocessedObjectIds = Lists.newArrayList();
+		for (IAnalysisSeed seed : unprocessedObjects) {
+			unprocessedObjectIds.add(seed.getObjectId());
+		}
+		put(Headers.UnprocessedSeedObjects, Joiner.on(",").join(unprocessedObjectIds));
 		
 		Table<Class, CrySLRule, Integer> errorTable = HashBasedTable.create(); 
 		for(AbstractError err : errors){
-			Integer integer = errorTable.get(err.getClass(), err.getRule());
+			Integer integer = errorTable.get(err.getErrorClass(), err.getRule());
 			if(integer == null){
 				integer = 0;
 			}
 			integer++;
-			errorTable.put(err.getClass(), err.getRule(),integer);
+			errorTable.put(err.getErrorClass(), err.getRule(),integer);
 		}
 
 
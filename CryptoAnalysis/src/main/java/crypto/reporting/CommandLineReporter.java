@@ -46,7 +46,7 @@ public class CommandLineReporter extends ErrorMarkerListener {
 	}
 	@Override
 	public void afterAnalysis() {
-		this.analysisReport = ReporterHelper.generateReport(this.rules, this.objects, this.secureObjects, this.errorMarkers, this.errorMarkerCount);
+		this.analysisReport = ReporterHelper.generateReport(this.rules, this.objects, this.secureObjects, this.unprocessedObjects, this.errorMarkers, this.errorMarkerCount);
 		System.out.println(analysisReport);
 	}
 }
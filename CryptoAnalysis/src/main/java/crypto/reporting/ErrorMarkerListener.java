@@ -32,6 +32,7 @@ import crypto.analysis.errors.IncompleteOperationError;
 import crypto.analysis.errors.NeverTypeOfError;
 import crypto.analysis.errors.PredicateContradictionError;
 import crypto.analysis.errors.RequiredPredicateError;
+import crypto.analysis.errors.RestoredError;
 import crypto.analysis.errors.TypestateError;
 import crypto.analysis.errors.UncaughtExceptionError;
 import crypto.extractparameter.CallSiteWithParamIndex;
@@ -55,6 +56,7 @@ public class ErrorMarkerListener extends CrySLAnalysisListener {
 	protected final Table<SootClass, SootMethod, Set<AbstractError>> errorMarkers = HashBasedTable.create();
 	protected final Map<Class, Integer> errorMarkerCount = new HashMap<Class, Integer>();
 	protected final List<IAnalysisSeed> secureObjects = new ArrayList<IAnalysisSeed>();
+	protected final List<IAnalysisSeed> unprocessedObjects = new ArrayList<IAnalysisSeed>();
 
 	private void addMarker(AbstractError error) {
 		SootMethod method = error.getErrorLocation().getMethod();
@@ -65,12 +67,12 @@ public class ErrorMarkerListener extends CrySLAnalysisListener {
 			set = Sets.newHashSet();
 		}
 		if (set.add(error)) {
-			Integer integer = errorMarkerCount.get(error.getClass());
+			Integer integer = errorMarkerCount.get(error.getErrorClass());
 			if (integer == null) {
 				integer = 0;
 			}
 			integer++;
-			errorMarkerCount.put(error.getClass(), integer);
+			errorMarkerCount.put(error.getErrorClass(), integer);
 		}
 		errorMarkers.put(sootClass, method, set);
 	}
@@ -128,6 +130,11 @@ public class ErrorMarkerListener extends CrySLAnalysisListener {
 			public void visit(HardCodedError hardcodedError) {
 				addMarker(hardcodedError);
 			}
+
+			@Override
+			public void visit(RestoredError restoredError) {
+				addMarker(restoredError);
+			}
 		});
 	}
 
@@ -210,6 +217,18 @@ public class ErrorMarkerListener extends CrySLAnalysisListener {
 		// Nothing
 	}
 
+	@Override
+	public void onAnalysisIncomplete(final Collection<IAnalysisSeed> unprocessedSeeds) {
+		unprocessedObjects.addAll(unprocessedSeeds);
+	}
+
+	/**
+	 * @return <code>true</code> if the analysis stopped before all discovered objects were analyzed
+	 */
+	protected boolean isPartial() {
+		return !unprocessedObjects.isEmpty();
+	}
+
 	@Override
 	public void seedStarted(final IAnalysisSeed arg0) {
 		// Nothing
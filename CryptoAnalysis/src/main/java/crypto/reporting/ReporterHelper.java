@@ -21,6 +21,8 @@ public class ReporterHelper{
 	 * @param rules a {@link List} with {@link CrySLRule} rules
 	 * @param objects a{@link Collection} with {@link IAnalysisSeed} objects
 	 * @param secureObjects a {@link List} with {@link IAnalysisSeed} secureObjects
+	 * @param unprocessedObjects a {@link List} with {@link IAnalysisSeed} objects that were not analyzed, 
+	 * because the analysis stopped early. If it is not empty, the report is marked as partial
 	 * @param errorMarkers a {@link Table} containing {@link SootClass},{@link SootMethod} 
 	 * and a {@link Set} of {@link AbstractError} of the errors found during analysis
 	 * @param errorMarkerCount a {@link Map} containing {@link Class} class of error and 
@@ -28,7 +30,7 @@ public class ReporterHelper{
 	 * @return report {@link String} of the analysis
 	 */
 	public static String generateReport(List<CrySLRule> rules, Collection<IAnalysisSeed> objects, 
-			List<IAnalysisSeed> secureObjects, Table<SootClass, SootMethod, Set<AbstractError>> errorMarkers, 
+			List<IAnalysisSeed> secureObjects, List<IAnalysisSeed> unprocessedObjects, Table<SootClass, SootMethod, Set<AbstractError>> errorMarkers, 
 			Map<Class, Integer> errorMarkerCount){
 		String report = "";
 
@@ -49,7 +51,19 @@ public class ReporterHelper{
 			report += String.format("\t\tSHA-256: %s\n", r.getObjectId());
 			report += String.format("\t\tSecure: %s\n", secureObjects.contains(r));
 		}
-		
+
+		if (!unprocessedObjects.isEmpty()) {
+			report += "\n";
+			report += "Unprocessed Objects (the analysis stopped before these objects were analyzed): \n";
+			for (IAnalysisSeed r : unprocessedObjects) {
+				report += String.format("\tObject:\n");
+				report += String.format("\t\tVariable: %s\n", r.var().value());
+				report += String.format("\t\tType: %s\n", r.getType());
+				report += String.format("\t\tStatement: %s\n", r.stmt().getUnit().get());
+				report += String.format("\t\tMethod: %s\n", r.getMethod());
+				report += String.format("\t\tSHA-256: %s\n", r.getObjectId());
+			}
+		}
 		
 		report += "\n";
 		for (SootClass c : errorMarkers.rowKeySet()) {
@@ -57,7 +71,7 @@ public class ReporterHelper{
 			for (Entry<SootMethod, Set<AbstractError>> e : errorMarkers.row(c).entrySet()) {
 				report += String.format("\n\t in Method: %s\n", e.getKey().getSubSignature());
 				for (AbstractError marker : e.getValue()) {
-					report += String.format("\t\t%s violating CrySL rule for %s", marker.getClass().getSimpleName() ,marker.getRule().getClassName());
+					report += String.format("\t\t%s violating CrySL rule for %s", marker.getErrorClass().getSimpleName() ,marker.getRule().getClassName());
 					if(marker instanceof ErrorWithObjectAllocation) {
 						report += String.format(" (on Object #%s)\n", ((ErrorWithObjectAllocation) marker).getObjectLocation().getObjectId());
 					} else {
@@ -72,6 +86,9 @@ public class ReporterHelper{
 		report += "======================= CryptoAnalysis Summary ==========================\n";
 		report += String.format("\tNumber of CrySL rules: %s\n", rules.size());
 		report += String.format("\tNumber of Objects Analyzed: %s\n", objects.size());
+		if (!unprocessedObjects.isEmpty()) {
+			report += String.format("\tPARTIAL REPORT: %s objects were not analyzed\n", unprocessedObjects.size());
+		}
 		if(errorMarkers.rowKeySet().isEmpty()){
 			report += "No violation of any of the rules found.\n";
 		} else{
@@ -43,6 +43,14 @@ public class SARIFConfig {
 	public static final String RULES_ID_KEY = "id";
 	public static final String FULL_DESCRIPTION_KEY = "fullDescription";
 	
+	public static final String PROPERTIES_KEY = "properties";
+	public static final String PARTIAL_KEY = "partial";
+	public static final String UNPROCESSED_OBJECTS_KEY = "unprocessedObjects";
+	public static final String OBJECT_TYPE_KEY = "type";
+	public static final String OBJECT_METHOD_KEY = "method";
+	public static final String OBJECT_STATEMENT_KEY = "statement";
+	public static final String OBJECT_ID_KEY = "objectId";
+	
 	//rules and their descriptions
 	public static final String CONSTRAINT_ERROR_KEY = "ConstraintError";
 	public static final String CONSTRAINT_ERROR_VALUE = "A constraint of a CrySL rule is violated, e.g., a key is generated with the wrong key size.";
@@ -117,11 +117,30 @@ public class SARIFReporter extends ErrorMarkerListener {
 		run.put(SARIFConfig.FILES_KEY, this.files);
 		run.put(SARIFConfig.RESULTS_KEY, this.results);
 		run.put(SARIFConfig.RESOURCES_KEY, this.resources);
+		run.put(SARIFConfig.PROPERTIES_KEY, makeProperties());
 		runs.add(run);
 		sarif.put(SARIFConfig.RUNS_KEY, runs);
 		return sarif;
 	}
 
+	private JSONObject makeProperties() {
+		JSONObject properties = new JSONObject();
+		properties.put(SARIFConfig.PARTIAL_KEY, isPartial());
+		if (isPartial()) {
+			JSONArray unprocessed = new JSONArray();
+			for (IAnalysisSeed seed : this.unprocessedObjects) {
+				JSONObject object = new JSONObject();
+				object.put(SARIFConfig.OBJECT_TYPE_KEY, seed.getType().toString());
+				object.put(SARIFConfig.OBJECT_METHOD_KEY, seed.getMethod().getSignature());
+				object.put(SARIFConfig.OBJECT_STATEMENT_KEY, seed.stmt().getUnit().get().toString());
+				object.put(SARIFConfig.OBJECT_ID_KEY, seed.getObjectId());
+				unprocessed.add(object);
+			}
+			properties.put(SARIFConfig.UNPROCESSED_OBJECTS_KEY, unprocessed);
+		}
+		return properties;
+	}
+
 	@Override
 	public void discoveredSeed(IAnalysisSeed object) {
 		this.objects.add(object);
@@ -134,9 +153,9 @@ public class SARIFReporter extends ErrorMarkerListener {
 
 			for (Entry<SootMethod, Set<AbstractError>> e : this.errorMarkers.row(c).entrySet()) {
 				for (AbstractError marker : e.getValue()) {
-					String errorType = marker.getClass().getSimpleName();
+					String errorType = marker.getErrorClass().getSimpleName();
 					String richText = String.format("%s violating CrySL rule for %s.",
-							marker.getClass().getSimpleName(), marker.getRule().getClassName());
+							marker.getErrorClass().getSimpleName(), marker.getRule().getClassName());
 					String text = String.format("%s.", marker.toErrorMarkerString());
 					int lineNumber = marker.getErrorLocation().getUnit().get().getJavaSourceStartLineNumber();
 					this.addResults(errorType, c, e.getKey().getName(), lineNumber, text, richText);
@@ -49,7 +49,7 @@ public class TXTReporter extends ErrorMarkerListener{
 	}
 	@Override
 	public void afterAnalysis() {
-		this.analysisReport = ReporterHelper.generateReport(rules, objects, this.secureObjects, this.errorMarkers, this.errorMarkerCount);
+		this.analysisReport = ReporterHelper.generateReport(rules, objects, this.secureObjects, this.unprocessedObjects, this.errorMarkers, this.errorMarkerCount);
 
 		try {
 			FileWriter writer = new FileWriter(outputFolder + File.separator + REPORT_NAME);
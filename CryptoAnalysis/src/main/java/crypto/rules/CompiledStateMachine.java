@@ -0,0 +1,324 @@
+package crypto.rules;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * A deterministic state machine over the labels of a {@link StateMachineGraph}, stored as an integer-indexed
+ * transition table. The {@link StateMachineGraphBuilder} creates a nondeterministic graph with redundant
+ * nodes for complex ORDER expressions, for which the typestate analysis tracks sets of states and reports
+ * errors for each of them. Determinizing and minimizing the graph yields fewer states and transitions that
+ * accept the same sequences of events.
+ *
+ * Each distinct label of the graph, i.e., the methods of one event, is a symbol of the alphabet. State 0 is
+ * the initial state, a missing transition is encoded as -1 and leads to the error state.
+ */
+public final class CompiledStateMachine {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CompiledStateMachine.class);
+	private static final int NONE = -1;
+
+	private final List<List<CrySLMethod>> alphabet;
+	private final int[][] transitions;
+	private final boolean[] accepting;
+
+	private CompiledStateMachine(List<List<CrySLMethod>> alphabet, int[][] transitions, boolean[] accepting) {
+		this.alphabet = alphabet;
+		this.transitions = transitions;
+		this.accepting = accepting;
+	}
+
+	/**
+	 * Replaces the graph by its minimal deterministic equivalent.
+	 *
+	 * @return the minimized graph, or the given graph if it cannot be minimized without changing the events it
+	 *         matches, if minimization does not shrink it, or if the minimized graph is not equivalent to it
+	 */
+	public static StateMachineGraph minimize(StateMachineGraph graph) {
+		CompiledStateMachine dfa = determinize(graph);
+		if (dfa == null) {
+			return graph;
+		}
+		CompiledStateMachine minimal = dfa.minimize();
+		StateMachineGraph minimized = minimal.toStateMachineGraph(graph.getInitialTransition().getLabel());
+		if (minimized.getNodes().size() >= graph.getNodes().size() && minimized.getEdges().size() >= graph.getEdges().size()) {
+			return graph;
+		}
+		if (!minimal.isEquivalentTo(graph)) {
+			LOGGER.warn("Minimized state machine is not equivalent to the original one, keeping the original:\n" + graph);
+			return graph;
+		}
+		return minimized;
+	}
+
+	/**
+	 * Applies the subset construction to the nodes reachable from the initial node.
+	 *
+	 * @return the deterministic state machine, or <code>null</code> if the graph has no transitions or if
+	 *         several labels share a method, as a call to that method would then match several symbols
+	 */
+	static CompiledStateMachine determinize(StateMachineGraph graph) {
+		if (graph.getEdges().isEmpty()) {
+			return null;
+		}
+		List<List<CrySLMethod>> alphabet = Lists.newArrayList();
+		Set<CrySLMethod> methods = Sets.newHashSet();
+		for (TransitionEdge edge : graph.getEdges()) {
+			if (alphabet.contains(edge.getLabel())) {
+				continue;
+			}
+			for (CrySLMethod method : edge.getLabel()) {
+				if (!methods.add(method)) {
+					return null;
+				}
+			}
+			alphabet.add(edge.getLabel());
+		}
+		Map<Set<StateNode>, Integer> ids = Maps.newHashMap();
+		List<Set<StateNode>> subsets = Lists.newArrayList();
+		List<int[]> rows = Lists.newArrayList();
+		Set<StateNode> initial = Collections.singleton(graph.getInitialTransition().from());
+		ids.put(initial, 0);
+		subsets.add(initial);
+		for (int state = 0; state < subsets.size(); state++) {
+			int[] row = new int[alphabet.size()];
+			for (int symbol = 0; symbol < alphabet.size(); symbol++) {
+				Set<StateNode> target = step(graph, subsets.get(state), alphabet.get(symbol));
+				if (target.isEmpty()) {
+					row[symbol] = NONE;
+					continue;
+				}
+				Integer id = ids.get(target);
+				if (id == null) {
+					id = subsets.size();
+					ids.put(target, id);
+					subsets.add(target);
+				}
+				row[symbol] = id;
+			}
+			rows.add(row);
+		}
+		boolean[] accepting = new boolean[subsets.size()];
+		for (int state = 0; state < subsets.size(); state++) {
+			accepting[state] = isAccepting(subsets.get(state));
+		}
+		return new CompiledStateMachine(alphabet, rows.toArray(new int[rows.size()][]), accepting);
+	}
+
+	private static Set<StateNode> step(StateMachineGraph graph, Set<StateNode> from, List<CrySLMethod> label) {
+		Set<StateNode> target = Sets.newHashSet();
+		for (TransitionEdge edge : graph.getEdges()) {
+			if (from.contains(edge.from()) && edge.getLabel().equals(label)) {
+				target.add(edge.to());
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * @return the symbols of the edges of the graph that enter any of the states
+	 */
+	private Set<Integer> incomingSymbols(StateMachineGraph graph, Set<StateNode> states) {
+		Set<Integer> incoming = Sets.newTreeSet();
+		for (TransitionEdge edge : graph.getEdges()) {
+			if (states.contains(edge.to())) {
+				incoming.add(alphabet.indexOf(edge.getLabel()));
+			}
+		}
+		return incoming;
+	}
+
+	private static boolean isAccepting(Set<StateNode> states) {
+		for (StateNode node : states) {
+			if (node.getAccepting()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Merges equivalent states by partition refinement. States are equivalent if they agree on acceptance, are
+	 * entered by the same symbols and their transitions lead to equivalent states for every symbol. The
+	 * missing transitions are kept apart from all states, such that a call that was an error remains an error
+	 * immediately. As the predicates ensured <code>after</code> an event are generated in the states that the
+	 * event enters, states entered by different events are never merged.
+	 */
+	CompiledStateMachine minimize() {
+		List<Set<Integer>> incoming = incomingSymbols();
+		Map<List<Object>, Integer> initialClasses = Maps.newHashMap();
+		int[] partition = new int[transitions.length];
+		for (int state = 0; state < transitions.length; state++) {
+			List<Object> signature = Arrays.asList(accepting[state], incoming.get(state));
+			Integer id = initialClasses.get(signature);
+			if (id == null) {
+				id = initialClasses.size();
+				initialClasses.put(signature, id);
+			}
+			partition[state] = id;
+		}
+		int classes = -1;
+		while (true) {
+			Map<List<Integer>, Integer> signatures = Maps.newHashMap();
+			int[] refined = new int[transitions.length];
+			for (int state = 0; state < transitions.length; state++) {
+				List<Integer> signature = Lists.newArrayListWithCapacity(alphabet.size() + 1);
+				signature.add(partition[state]);
+				for (int target : transitions[state]) {
+					signature.add(target == NONE ? NONE : partition[target]);
+				}
+				Integer id = signatures.get(signature);
+				if (id == null) {
+					id = signatures.size();
+					signatures.put(signature, id);
+				}
+				refined[state] = id;
+			}
+			partition = refined;
+			if (signatures.size() == classes) {
+				break;
+			}
+			classes = signatures.size();
+		}
+		// Renumber the classes in the order they are reached from the initial state.
+		int[] order = new int[classes];
+		Arrays.fill(order, NONE);
+		int[] representative = new int[classes];
+		Deque<Integer> worklist = new ArrayDeque<>();
+		order[partition[0]] = 0;
+		representative[0] = 0;
+		worklist.add(0);
+		int next = 1;
+		while (!worklist.isEmpty()) {
+			int state = worklist.poll();
+			for (int target : transitions[state]) {
+				if (target != NONE && order[partition[target]] == NONE) {
+					order[partition[target]] = next;
+					representative[next++] = target;
+					worklist.add(target);
+				}
+			}
+		}
+		int[][] minimalTransitions = new int[next][];
+		boolean[] minimalAccepting = new boolean[next];
+		for (int state = 0; state < next; state++) {
+			int[] row = transitions[representative[state]];
+			minimalTransitions[state] = new int[row.length];
+			for (int symbol = 0; symbol < row.length; symbol++) {
+				minimalTransitions[state][symbol] = row[symbol] == NONE ? NONE : order[partition[row[symbol]]];
+			}
+			minimalAccepting[state] = accepting[representative[state]];
+		}
+		return new CompiledStateMachine(alphabet, minimalTransitions, minimalAccepting);
+	}
+
+	/**
+	 * @return for each state, the symbols of the transitions that enter it
+	 */
+	private List<Set<Integer>> incomingSymbols() {
+		List<Set<Integer>> incoming = Lists.newArrayListWithCapacity(transitions.length);
+		for (int state = 0; state < transitions.length; state++) {
+			incoming.add(Sets.newTreeSet());
+		}
+		for (int state = 0; state < transitions.length; state++) {
+			for (int symbol = 0; symbol < alphabet.size(); symbol++) {
+				if (transitions[state][symbol] != NONE) {
+					incoming.get(transitions[state][symbol]).add(symbol);
+				}
+			}
+		}
+		return incoming;
+	}
+
+	/**
+	 * Checks that this state machine accepts the same sequences of events as the graph and that, after each
+	 * sequence, both expect the same events and are in states entered by the same labels, such that the same
+	 * conditional predicates are generated. The check explores the product of this state machine with the
+	 * subset construction of the graph.
+	 */
+	boolean isEquivalentTo(StateMachineGraph graph) {
+		List<Set<Integer>> incoming = incomingSymbols();
+		Map<Set<StateNode>, Set<Integer>> visited = Maps.newHashMap();
+		Deque<Set<StateNode>> subsets = new ArrayDeque<>();
+		Deque<Integer> states = new ArrayDeque<>();
+		subsets.add(Collections.singleton(graph.getInitialTransition().from()));
+		states.add(0);
+		while (!subsets.isEmpty()) {
+			Set<StateNode> subset = subsets.poll();
+			int state = states.poll();
+			if (!visited.computeIfAbsent(subset, s -> Sets.newHashSet()).add(state)) {
+				continue;
+			}
+			if (isAccepting(subset) != accepting[state] || !incomingSymbols(graph, subset).equals(incoming.get(state))) {
+				return false;
+			}
+			for (int symbol = 0; symbol < alphabet.size(); symbol++) {
+				Set<StateNode> target = step(graph, subset, alphabet.get(symbol));
+				if (target.isEmpty() != (transitions[state][symbol] == NONE)) {
+					return false;
+				}
+				if (!target.isEmpty()) {
+					subsets.add(target);
+					states.add(transitions[state][symbol]);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the state reached from the state by the symbol, or -1 if the symbol leads to the error state
+	 */
+	public int next(int state, int symbol) {
+		return transitions[state][symbol];
+	}
+
+	public boolean isAccepting(int state) {
+		return accepting[state];
+	}
+
+	public int getNumberOfStates() {
+		return transitions.length;
+	}
+
+	public List<List<CrySLMethod>> getAlphabet() {
+		return alphabet;
+	}
+
+	/**
+	 * Converts the table into a graph. The transition of the initial state labeled with the initial label
+	 * becomes the initial transition of the graph, as it determines which calls create seeds.
+	 */
+	StateMachineGraph toStateMachineGraph(List<CrySLMethod> initialLabel) {
+		StateMachineGraph graph = new StateMachineGraph();
+		StateNode[] nodes = new StateNode[transitions.length];
+		nodes[0] = new StateNode("-1", true, accepting[0]);
+		graph.addNode(nodes[0]);
+		for (int state = 1; state < transitions.length; state++) {
+			nodes[state] = new StateNode(String.valueOf(state - 1), false, accepting[state]);
+			graph.addNode(nodes[state]);
+		}
+		int initialSymbol = alphabet.indexOf(initialLabel);
+		graph.createNewEdge(initialLabel, nodes[0], nodes[transitions[0][initialSymbol]]);
+		for (int state = 0; state < transitions.length; state++) {
+			for (int symbol = 0; symbol < alphabet.size(); symbol++) {
+				if (transitions[state][symbol] != NONE && !(state == 0 && symbol == initialSymbol)) {
+					graph.createNewEdge(alphabet.get(symbol), nodes[state], nodes[transitions[state][symbol]]);
+				}
+			}
+		}
+		return graph;
+	}
+}
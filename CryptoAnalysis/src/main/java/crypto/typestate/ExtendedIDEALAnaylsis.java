@@ -18,7 +18,10 @@ import boomerang.jimple.Val;
 import boomerang.results.ForwardBoomerangResults;
 import crypto.analysis.CrySLResultsReporter;
 import crypto.analysis.IAnalysisSeed;
+import crypto.analysis.SeedBudget;
 import crypto.boomerang.CogniCryptBoomerangOptions;
+import crypto.exceptions.ScanDeadlineExceededException;
+import crypto.exceptions.SeedBudgetExceededException;
 import ideal.IDEALAnalysis;
 import ideal.IDEALAnalysisDefinition;
 import ideal.IDEALSeedSolver;
@@ -82,13 +85,30 @@ public abstract class ExtendedIDEALAnaylsis {
 	public abstract SootBasedStateMachineGraph getStateMachine();
 
 	public void run(ForwardQuery query) {
+		run(query, SeedBudget.unlimited());
+	}
+
+	/**
+	 * Runs the typestate analysis for the query. If the analysis times out or exceeds the budget, the
+	 * query is reported as timed out and no results are available. If the deadline of the scan is reached,
+	 * the {@link ScanDeadlineExceededException} is passed on, as the query is not analyzed at all.
+	 * 
+	 * @param query the query to analyze
+	 * @param budget the budget that is charged for each propagation of the analysis
+	 */
+	public void run(ForwardQuery query, SeedBudget budget) {
 		CrySLResultsReporter reports = analysisListener();
+		getOrCreateTypestateChangeFunction().setBudget(budget);
 		try {
 			results = analysis.run(query);
-		} catch (IDEALSeedTimeout e) {
+		} catch (ScanDeadlineExceededException e) {
+			throw e;
+		} catch (IDEALSeedTimeout | SeedBudgetExceededException e) {
 			if (reports != null && query instanceof IAnalysisSeed) {
 				reports.onSeedTimeout(((IAnalysisSeed) query).asNode());
 			}
+		} finally {
+			getOrCreateTypestateChangeFunction().setBudget(SeedBudget.unlimited());
 		}
 	}
 
@@ -107,11 +127,15 @@ public abstract class ExtendedIDEALAnaylsis {
 		if (!method.hasActiveBody())
 			return seeds;
 		for (Unit u : method.getActiveBody().getUnits()) {
-			seeds.addAll(getOrCreateTypestateChangeFunction().generateSeed(method, u));
+			seeds.addAll(computeSeeds(method, u));
 		}
 		return seeds;
 	}
 
+	public Collection<WeightedForwardQuery<TransitionFunction>> computeSeeds(SootMethod method, Unit unit) {
+		return getOrCreateTypestateChangeFunction().generateSeed(method, unit);
+	}
+
 	/**
 	 * Only use this method for testing
 	 * 
@@ -1,7 +1,9 @@
 package crypto.typestate;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -10,6 +12,8 @@ import org.slf4j.LoggerFactory;
 import boomerang.WeightedForwardQuery;
 import boomerang.jimple.AllocVal;
 import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import crypto.analysis.SeedBudget;
 import soot.RefType;
 import soot.SootMethod;
 import soot.Unit;
@@ -17,8 +21,8 @@ import soot.jimple.AssignStmt;
 import soot.jimple.InstanceInvokeExpr;
 import soot.jimple.InvokeExpr;
 import soot.jimple.Stmt;
+import sync.pds.solver.nodes.Node;
 import typestate.TransitionFunction;
-import typestate.finiteautomata.MatcherTransition;
 import typestate.finiteautomata.State;
 import typestate.finiteautomata.TypeStateMachineWeightFunctions;
 
@@ -29,11 +33,15 @@ public class FiniteStateMachineToTypestateChangeFunction extends TypeStateMachin
 	private RefType analyzedType = null;
 
 	private SootBasedStateMachineGraph fsm;
+	
+	private SeedBudget budget = SeedBudget.unlimited();
 
+	/**
+	 * The transitions are not added to the {@link TypeStateMachineWeightFunctions}, as the weights of calls
+	 * are looked up in the transitions of the called method, see
+	 * {@link SootBasedStateMachineGraph#getMatchingTransitions(SootMethod)}.
+	 */
 	public FiniteStateMachineToTypestateChangeFunction(SootBasedStateMachineGraph fsm) {
-		for(MatcherTransition trans : fsm.getAllTransitions()){
-			this.addTransition(trans);
-		}
 		for(SootMethod m : fsm.initialTransitonLabel()){
 			if(m.isConstructor()){
 				if (analyzedType == null){
@@ -50,6 +58,58 @@ public class FiniteStateMachineToTypestateChangeFunction extends TypeStateMachin
 	}
 
 
+	/**
+	 * Sets the budget that is charged for each propagation of the typestate analysis.
+	 * 
+	 * @param budget the budget of the seed that is currently analyzed
+	 */
+	public void setBudget(SeedBudget budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * A call on the tracked object changes its state by the transitions of the called method.
+	 */
+	@Override
+	public TransitionFunction normal(Node<Statement, Val> curr, Node<Statement, Val> succ) {
+		budget.propagated();
+		if (!succ.stmt().getUnit().isPresent() || !succ.stmt().getUnit().get().containsInvokeExpr())
+			return getOne();
+		InvokeExpr invokeExpr = succ.stmt().getUnit().get().getInvokeExpr();
+		if (!(invokeExpr instanceof InstanceInvokeExpr) || !((InstanceInvokeExpr) invokeExpr).getBase().equals(succ.fact().value()))
+			return getOne();
+		return getMatchingTransitions(invokeExpr.getMethod(), succ.stmt());
+	}
+
+	/**
+	 * Entering a method as its <code>this</code> object changes the state by the transitions of the method.
+	 */
+	@Override
+	public TransitionFunction push(Node<Statement, Val> curr, Node<Statement, Val> succ, Statement push) {
+		budget.propagated();
+		SootMethod callee = succ.stmt().getMethod();
+		if (callee.isStatic() || !callee.hasActiveBody() || !callee.getActiveBody().getThisLocal().equals(succ.fact().value()))
+			return getOne();
+		return getMatchingTransitions(callee, push);
+	}
+
+	/**
+	 * All transitions of a {@link SootBasedStateMachineGraph} change the state of the <code>this</code> object
+	 * on call and on call-to-return, hence, only the method of the transitions has to match.
+	 */
+	private TransitionFunction getMatchingTransitions(SootMethod method, Statement stmt) {
+		List<LabeledMatcherTransition> matching = fsm.getMatchingTransitions(method);
+		if (matching.isEmpty())
+			return getOne();
+		return new TransitionFunction(new HashSet<>(matching), Collections.singleton(stmt));
+	}
+
+	@Override
+	public TransitionFunction pop(Node<Statement, Val> curr, Statement pop) {
+		budget.propagated();
+		return super.pop(curr, pop);
+	}
+
 	@Override
 	public Collection<WeightedForwardQuery<TransitionFunction>> generateSeed(SootMethod method, Unit unit) {
 		Set<WeightedForwardQuery<TransitionFunction>> out = new HashSet<>();
@@ -4,13 +4,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
 import crypto.cryslhandler.CrySLReaderUtils;
 import crypto.rules.CrySLMethod;
-import soot.Scene;
 import soot.SootClass;
 import soot.SootMethod;
 import typestate.finiteautomata.MatcherTransition;
@@ -55,20 +55,18 @@ public class LabeledMatcherTransition extends MatcherTransition {
 	/**
 	 * Returns whether parent is a supertype of child, i.e. if they
 	 * are the same, child implements or extends parent transitivly.
+	 * 
+	 * @see SubtypeOracle
 	 */
 	public static boolean isSubtype(SootClass child, SootClass parent) {
-		if (child.equals(parent))
-			return true;
-
-		if (child.isInterface()) {
-			return parent.isInterface() &&
-					Scene.v().getActiveHierarchy().isInterfaceSubinterfaceOf(child, parent);
-		}
-		return Scene.v().getActiveHierarchy().isClassSubclassOf(child, parent)
-				|| child.getInterfaces().contains(parent);
+		return SubtypeOracle.v().isSubtype(child, parent);
 	}
 
 	private final Multimap<CrySLMethod, SootMethod> label;
+	/**
+	 * The matching of each called method, as the IDE solver queries the transitions on every call edge.
+	 */
+	private final Map<SootMethod, Optional<CrySLMethod>> matchingCache = new ConcurrentHashMap<>();
 	private final CrySLMethod NO_METHOD = new CrySLMethod("", Collections.emptyList(),
 			CrySLReaderUtils.resolveObject(null));
 
@@ -106,10 +104,7 @@ public class LabeledMatcherTransition extends MatcherTransition {
 	 */
 	@Override
 	public boolean matches(SootMethod method) {
-		for (SootMethod m : this.label.values())
-			if (matches(method, m))
-				return true;
-		return false;
+		return getMatching(method).isPresent();
 	}
 
 	/**
@@ -122,6 +117,10 @@ public class LabeledMatcherTransition extends MatcherTransition {
 	 * @return The {@link CrySLMethod}'s matching the given soot method.
 	 */
 	public Optional<CrySLMethod> getMatching(SootMethod method) {
+		return matchingCache.computeIfAbsent(method, this::computeMatching);
+	}
+
+	private Optional<CrySLMethod> computeMatching(SootMethod method) {
 		for (Map.Entry<CrySLMethod, SootMethod> m : this.label.entries())
 			if (matches(method, m.getValue()))
 				return Optional.of(m.getKey());
@@ -4,9 +4,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
@@ -16,6 +20,7 @@ import crypto.rules.CrySLMethod;
 import crypto.rules.StateMachineGraph;
 import crypto.rules.StateNode;
 import crypto.rules.TransitionEdge;
+import soot.Scene;
 import soot.SootMethod;
 import typestate.TransitionFunction;
 import typestate.finiteautomata.MatcherTransition;
@@ -25,14 +30,18 @@ import typestate.finiteautomata.State;
 
 public class SootBasedStateMachineGraph {
 
+	private static SootBasedStateMachineGraph trackingOnly;
+	private static Scene trackingOnlyScene;
+
 	private Set<MatcherTransition> transition = new HashSet<>();
 	private Collection<SootMethod> edgeLabelMethods = Sets.newHashSet();
 
 	private final StateMachineGraph stateMachineGraph;
 	private Multimap<State, SootMethod> outTransitions = HashMultimap.create();
-	private Collection<SootMethod> initialTransitonLabel;
+	private ImmutableSet<SootMethod> initialTransitonLabel;
 	private List<CrySLMethod> crySLinitialTransitionLabel;
 	private LabeledMatcherTransition initialTransiton;
+	private final Map<SootMethod, List<LabeledMatcherTransition>> matchingTransitions = new ConcurrentHashMap<>();
 
 
 	public SootBasedStateMachineGraph(StateMachineGraph fsm) {
@@ -51,7 +60,7 @@ public class SootBasedStateMachineGraph {
 		}
 		crySLinitialTransitionLabel = stateMachineGraph.getInitialTransition().getLabel();
 
-		initialTransitonLabel = convert(stateMachineGraph.getInitialTransition().getLabel());
+		initialTransitonLabel = ImmutableSet.copyOf(convert(stateMachineGraph.getInitialTransition().getLabel()));
 		// All transitions that are not in the state machine
 		for (StateNode t : this.stateMachineGraph.getNodes()) {
 			State wrapped = wrappedState(t);
@@ -70,6 +79,28 @@ public class SootBasedStateMachineGraph {
 		}
 	}
 
+	/**
+	 * @return the state machine of objects that are only tracked to propagate ensured predicates. It has a
+	 *         single accepting state without any transition that changes it, hence, it is shared by all
+	 *         {@link crypto.analysis.AnalysisSeedWithEnsuredPredicate}s of a scene.
+	 */
+	public static synchronized SootBasedStateMachineGraph trackingOnly() {
+		if (trackingOnly == null || trackingOnlyScene != Scene.v()) {
+			StateMachineGraph m = new StateMachineGraph();
+			StateNode s = new StateNode("0", true, true) {
+				@Override
+				public String toString() {
+					return "";
+				}
+			};
+			m.addNode(s);
+			m.createNewEdge(Lists.newLinkedList(), s, s);
+			trackingOnly = new SootBasedStateMachineGraph(m);
+			trackingOnlyScene = Scene.v();
+		}
+		return trackingOnly;
+	}
+
 	private WrappedState wrappedState(StateNode t) {
 		return new WrappedState(t, stateMachineGraph.getInitialTransition().from().equals(t));
 	}
@@ -100,8 +131,30 @@ public class SootBasedStateMachineGraph {
 		return Lists.newArrayList(transition);
 	}
 
-	public Collection<SootMethod> initialTransitonLabel() {
-		return Lists.newArrayList(initialTransitonLabel);
+	/**
+	 * @return the transitions whose label matches the called method. The transitions of a method are computed
+	 *         once, later lookups are a single hash lookup.
+	 */
+	public List<LabeledMatcherTransition> getMatchingTransitions(SootMethod method) {
+		return matchingTransitions.computeIfAbsent(method, this::computeMatchingTransitions);
+	}
+
+	private List<LabeledMatcherTransition> computeMatchingTransitions(SootMethod method) {
+		ImmutableList.Builder<LabeledMatcherTransition> matching = ImmutableList.builder();
+		for (MatcherTransition t : transition) {
+			if (t instanceof LabeledMatcherTransition && t.matches(method)) {
+				matching.add((LabeledMatcherTransition) t);
+			}
+		}
+		return matching.build();
+	}
+
+	/**
+	 * @return an immutable view of the methods labeling the initial transition. Lookups are constant time
+	 *         and do not allocate, as this is queried for every call site during seed generation.
+	 */
+	public Set<SootMethod> initialTransitonLabel() {
+		return initialTransitonLabel;
 	}
 
 	public List<CrySLMethod> getInitialTransition() {
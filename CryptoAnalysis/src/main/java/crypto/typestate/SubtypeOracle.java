@@ -0,0 +1,172 @@
+package crypto.typestate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.ArrayType;
+import soot.BooleanType;
+import soot.ByteType;
+import soot.CharType;
+import soot.DoubleType;
+import soot.FastHierarchy;
+import soot.FloatType;
+import soot.IntType;
+import soot.LongType;
+import soot.RefType;
+import soot.Scene;
+import soot.ShortType;
+import soot.SootClass;
+import soot.Type;
+
+/**
+ * Answers subtype queries over the classes and types of the current Soot scene. The answers are computed
+ * from the {@link FastHierarchy} of the scene and memoized, such that the typestate and constraint checks,
+ * which repeatedly ask for the same pairs, do not walk the hierarchy again.
+ *
+ * The oracle is shared by all analyses of a scene and replaced as soon as the scene or its hierarchy changes.
+ * Looking up the shared oracle does not lock, such that the workers of a scan do not wait for each other.
+ */
+public class SubtypeOracle {
+
+	private static volatile SubtypeOracle instance;
+
+	private final Scene scene;
+	private final FastHierarchy hierarchy;
+	private final Map<Pair, Boolean> subtypes = new ConcurrentHashMap<>();
+	private final Map<String, Optional<Type>> types = new ConcurrentHashMap<>();
+
+	private SubtypeOracle(Scene scene, FastHierarchy hierarchy) {
+		this.scene = scene;
+		this.hierarchy = hierarchy;
+	}
+
+	public static SubtypeOracle v() {
+		SubtypeOracle oracle = instance;
+		if (oracle != null && oracle.isCurrent()) {
+			return oracle;
+		}
+		synchronized (SubtypeOracle.class) {
+			Scene scene = Scene.v();
+			FastHierarchy hierarchy = scene.getOrMakeFastHierarchy();
+			if (instance == null || instance.scene != scene || instance.hierarchy != hierarchy) {
+				instance = new SubtypeOracle(scene, hierarchy);
+			}
+			return instance;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the scene has not been reset and its hierarchy has not been replaced since
+	 *         the oracle was created
+	 */
+	private boolean isCurrent() {
+		Scene current = Scene.v();
+		return scene == current && current.hasFastHierarchy() && current.getFastHierarchy() == hierarchy;
+	}
+
+	/**
+	 * @return <code>true</code> if child is parent or extends or implements parent, directly or transitively
+	 */
+	public boolean isSubtype(SootClass child, SootClass parent) {
+		if (child.equals(parent)) {
+			return true;
+		}
+		return subtypes.computeIfAbsent(new Pair(child, parent), p -> hierarchy.canStoreClass(child, parent));
+	}
+
+	/**
+	 * @return <code>true</code> if a value of type child can be stored in a variable of type parent, and
+	 *         <code>false</code> if either type is <code>null</code>, e.g., because {@link #getType(String)}
+	 *         did not find it in the scene
+	 */
+	public boolean isSubtype(Type child, Type parent) {
+		if (child == null || parent == null) {
+			return false;
+		}
+		if (child.equals(parent)) {
+			return true;
+		}
+		if (child instanceof RefType && parent instanceof RefType) {
+			return isSubtype(((RefType) child).getSootClass(), ((RefType) parent).getSootClass());
+		}
+		return subtypes.computeIfAbsent(new Pair(child, parent), p -> hierarchy.canStoreType(child, parent));
+	}
+
+	/**
+	 * Resolves a type name as it is written in CrySL rules, e.g., <code>int</code>, <code>byte[]</code> or
+	 * <code>java.lang.String</code>, against the scene. Class names are never loaded into the analyzer.
+	 *
+	 * @return the type, or <code>null</code> if the scene does not contain the class
+	 */
+	public Type getType(String name) {
+		return types.computeIfAbsent(name, SubtypeOracle::resolveType).orElse(null);
+	}
+
+	private static Optional<Type> resolveType(String name) {
+		String baseName = name.trim();
+		int dimensions = 0;
+		while (baseName.endsWith("[]")) {
+			baseName = baseName.substring(0, baseName.length() - 2).trim();
+			dimensions++;
+		}
+		Type type;
+		switch (baseName) {
+			case "boolean":
+				type = BooleanType.v();
+				break;
+			case "byte":
+				type = ByteType.v();
+				break;
+			case "char":
+				type = CharType.v();
+				break;
+			case "short":
+				type = ShortType.v();
+				break;
+			case "int":
+				type = IntType.v();
+				break;
+			case "long":
+				type = LongType.v();
+				break;
+			case "float":
+				type = FloatType.v();
+				break;
+			case "double":
+				type = DoubleType.v();
+				break;
+			default:
+				if (!Scene.v().containsClass(baseName)) {
+					return Optional.empty();
+				}
+				type = Scene.v().getSootClass(baseName).getType();
+		}
+		return Optional.of(dimensions == 0 ? type : ArrayType.v(type, dimensions));
+	}
+
+	private static final class Pair {
+		private final Object child;
+		private final Object parent;
+
+		private Pair(Object child, Object parent) {
+			this.child = child;
+			this.parent = parent;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(child, parent);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Pair)) {
+				return false;
+			}
+			Pair other = (Pair) obj;
+			return child.equals(other.child) && parent.equals(other.parent);
+		}
+	}
+}
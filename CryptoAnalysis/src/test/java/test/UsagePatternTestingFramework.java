@@ -103,6 +103,16 @@ public abstract class UsagePatternTestingFramework extends AbstractTestingFramew
 						return icfg;
 					}
 
+					@Override
+					protected long backwardQueryCacheSize() {
+						return UsagePatternTestingFramework.this.backwardQueryCacheSize();
+					}
+
+					@Override
+					protected boolean batchBackwardQueries() {
+						return UsagePatternTestingFramework.this.batchBackwardQueries();
+					}
+
 					@Override
 					public CrySLResultsReporter getAnalysisListener() {
 						CrySLAnalysisListener cryslListener = new CrySLAnalysisListener() {
@@ -334,6 +344,7 @@ public abstract class UsagePatternTestingFramework extends AbstractTestingFramew
 					}
 				};
 				scanner.scan(getRules());
+				scanFinished(scanner);
 				
 				List<Assertion> unsound = Lists.newLinkedList();
 				List<Assertion> imprecise = Lists.newLinkedList();
@@ -380,6 +391,20 @@ public abstract class UsagePatternTestingFramework extends AbstractTestingFramew
 	
 	protected abstract Ruleset getRuleSet();
 
+	protected long backwardQueryCacheSize() {
+		return 10_000;
+	}
+
+	protected boolean batchBackwardQueries() {
+		return false;
+	}
+
+	/**
+	 * Called after the scan of the test method, before the assertions of the test method are checked.
+	 */
+	protected void scanFinished(CryptoScanner scanner) {
+	}
+
 
 
 	private Set<Assertion> extractBenchmarkMethods(SootMethod sootTestMethod) {
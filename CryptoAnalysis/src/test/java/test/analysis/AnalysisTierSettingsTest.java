@@ -0,0 +1,39 @@
+package test.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import crypto.analysis.CryptoScannerSettings;
+import crypto.boomerang.AnalysisTier;
+import crypto.exceptions.CryptoAnalysisParserException;
+
+public class AnalysisTierSettingsTest {
+
+	private static CryptoScannerSettings parse(String... tier) throws CryptoAnalysisParserException {
+		String[] mandatory = { "--rulesDir", "rules", "--appPath", "app" };
+		String[] settings = new String[mandatory.length + tier.length];
+		System.arraycopy(mandatory, 0, settings, 0, mandatory.length);
+		System.arraycopy(tier, 0, settings, mandatory.length, tier.length);
+		CryptoScannerSettings scannerSettings = new CryptoScannerSettings();
+		scannerSettings.parseSettingsFromCLI(settings);
+		return scannerSettings;
+	}
+
+	@Test
+	public void defaultTierWithoutOption() throws CryptoAnalysisParserException {
+		assertEquals(AnalysisTier.DEFAULT, parse().getAnalysisTier());
+	}
+
+	@Test
+	public void tierIsParsedIgnoringCase() throws CryptoAnalysisParserException {
+		assertEquals(AnalysisTier.FAST, parse("--analysisTier", "fast").getAnalysisTier());
+		assertEquals(AnalysisTier.DEFAULT, parse("--analysisTier", "Default").getAnalysisTier());
+		assertEquals(AnalysisTier.PRECISE, parse("--ANALYSISTIER", "PRECISE").getAnalysisTier());
+	}
+
+	@Test(expected = CryptoAnalysisParserException.class)
+	public void invalidTierIsRejected() throws CryptoAnalysisParserException {
+		parse("--analysisTier", "thorough");
+	}
+}
@@ -0,0 +1,86 @@
+package test.analysis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import crypto.analysis.SeedBudget;
+import crypto.exceptions.SeedBudgetExceededException;
+
+public class SeedBudgetTest {
+
+	private static final long BYTES_PER_MB = 1024 * 1024;
+
+	/**
+	 * A budget that reads the used heap from a field instead of the runtime.
+	 */
+	private static class HeapBudget extends SeedBudget {
+
+		private long usedHeap;
+
+		private HeapBudget(long maxHeapDeltaInMB) {
+			super(0, 0, maxHeapDeltaInMB);
+		}
+
+		@Override
+		protected long usedHeap() {
+			return usedHeap;
+		}
+	}
+
+	@Test(expected = SeedBudgetExceededException.class)
+	public void propagationBudget() {
+		SeedBudget budget = new SeedBudget(0, 10, 0);
+		budget.start();
+		for (int i = 0; i < 10; i++) {
+			budget.propagated();
+		}
+		Assert.assertEquals(10, budget.getPropagations());
+		budget.propagated();
+	}
+
+	@Test(expected = SeedBudgetExceededException.class)
+	public void timeBudget() throws InterruptedException {
+		SeedBudget budget = new SeedBudget(50, 0, 0);
+		budget.start();
+		budget.check();
+		Thread.sleep(100);
+		budget.check();
+	}
+
+	@Test(expected = SeedBudgetExceededException.class)
+	public void heapBudget() {
+		HeapBudget budget = new HeapBudget(1);
+		budget.usedHeap = 10 * BYTES_PER_MB;
+		budget.start();
+		budget.usedHeap += BYTES_PER_MB;
+		budget.check();
+		budget.usedHeap++;
+		budget.check();
+	}
+
+	@Test
+	public void heapBudgetIgnoresHeapUsedBeforeStart() {
+		HeapBudget budget = new HeapBudget(1);
+		budget.usedHeap = 100 * BYTES_PER_MB;
+		budget.start();
+		budget.check();
+	}
+
+	@Test(expected = SeedBudgetExceededException.class)
+	public void scanDeadline() {
+		SeedBudget budget = SeedBudget.unlimited().limitTo(System.currentTimeMillis() - 1);
+		budget.start();
+		budget.check();
+	}
+
+	@Test
+	public void unlimitedBudget() {
+		SeedBudget budget = SeedBudget.unlimited();
+		Assert.assertTrue(budget.isUnlimited());
+		budget.start();
+		for (int i = 0; i < 10_000; i++) {
+			budget.propagated();
+		}
+		budget.check();
+	}
+}
@@ -0,0 +1,80 @@
+package test.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import crypto.analysis.SeedScheduler;
+import crypto.interfaces.ICrySLPredicateParameter;
+import crypto.interfaces.ISLConstraint;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+
+public class SeedSchedulerTest {
+
+	private static CrySLPredicate predicate(String name) {
+		return new CrySLPredicate(null, name, Collections.<ICrySLPredicateParameter>emptyList(), false);
+	}
+
+	/**
+	 * @return a rule without usage pattern that requires and ensures the given predicates
+	 */
+	private static CrySLRule rule(String className, List<String> required, List<String> ensured) {
+		List<ISLConstraint> constraints = Lists.newArrayList();
+		for (String name : required) {
+			constraints.add(predicate(name));
+		}
+		List<CrySLPredicate> predicates = Lists.newArrayList();
+		for (String name : ensured) {
+			predicates.add(predicate(name));
+		}
+		return new CrySLRule(className, Collections.emptyList(), Collections.emptyList(), null, constraints, predicates);
+	}
+
+	private static final CrySLRule KEY_GENERATOR = rule("KeyGenerator", Collections.emptyList(), Lists.newArrayList("generatedKey"));
+	private static final CrySLRule CIPHER = rule("Cipher", Lists.newArrayList("generatedKey"), Lists.newArrayList("encrypted"));
+	private static final CrySLRule MAC = rule("Mac", Lists.newArrayList("encrypted"), Collections.emptyList());
+
+	// KeyStore and KeyManagerFactory require each other's predicates
+	private static final CrySLRule KEY_STORE = rule("KeyStore", Lists.newArrayList("generatedKeyManager"), Lists.newArrayList("generatedKeyStore"));
+	private static final CrySLRule KEY_MANAGER_FACTORY = rule("KeyManagerFactory", Lists.newArrayList("generatedKeyStore"), Lists.newArrayList("generatedKeyManager"));
+	private static final CrySLRule SSL_CONTEXT = rule("SSLContext", Lists.newArrayList("generatedKeyManager"), Collections.emptyList());
+
+	@Test
+	public void dependenciesAreScheduledBeforeDependents() {
+		SeedScheduler scheduler = new SeedScheduler(Lists.newArrayList(MAC, CIPHER, KEY_GENERATOR));
+		assertEquals(0, scheduler.getRank(KEY_GENERATOR));
+		assertEquals(1, scheduler.getRank(CIPHER));
+		assertEquals(2, scheduler.getRank(MAC));
+	}
+
+	@Test
+	public void cycleIsScheduledAsOneComponent() {
+		SeedScheduler scheduler = new SeedScheduler(Lists.newArrayList(SSL_CONTEXT, KEY_STORE, KEY_MANAGER_FACTORY));
+		assertEquals(scheduler.getRank(KEY_STORE), scheduler.getRank(KEY_MANAGER_FACTORY));
+		assertTrue(scheduler.getRank(KEY_MANAGER_FACTORY) < scheduler.getRank(SSL_CONTEXT));
+	}
+
+	@Test
+	public void ranksDoNotDependOnOrderOfRules() {
+		List<CrySLRule> rules = Lists.newArrayList(KEY_GENERATOR, CIPHER, MAC, KEY_STORE, KEY_MANAGER_FACTORY, SSL_CONTEXT);
+		SeedScheduler scheduler = new SeedScheduler(rules);
+		for (int i = 0; i < rules.size(); i++) {
+			Collections.rotate(rules, 1);
+			SeedScheduler rotated = new SeedScheduler(rules);
+			for (CrySLRule rule : rules) {
+				assertEquals(rule.getClassName(), scheduler.getRank(rule), rotated.getRank(rule));
+			}
+			SeedScheduler reversed = new SeedScheduler(Lists.reverse(rules));
+			for (CrySLRule rule : rules) {
+				assertEquals(rule.getClassName(), scheduler.getRank(rule), reversed.getRank(rule));
+			}
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package test.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import crypto.analysis.ClassSpecification;
+import crypto.analysis.SpecificationIndex;
+import crypto.analysis.SpecificationIndex.Match;
+import crypto.analysis.SpecificationIndex.Role;
+import crypto.exceptions.CryptoAnalysisException;
+import crypto.rules.CrySLRule;
+import crypto.rules.CrySLRuleReader;
+import crypto.typestate.CrySLMethodToSootMethod;
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.jimple.Stmt;
+import soot.options.Options;
+
+public class SpecificationIndexTest {
+
+	/**
+	 * The method whose calls are matched.
+	 */
+	public static class CryptoCalls {
+
+		public static void calls(char[] password, byte[] salt) throws GeneralSecurityException {
+			KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+			keyGenerator.init(128);
+			keyGenerator.generateKey();
+			PBEKeySpec insecure = new PBEKeySpec(password);
+			insecure.clearPassword();
+			PBEKeySpec spec = new PBEKeySpec(password, salt, 10000, 128);
+			spec.clearPassword();
+		}
+	}
+
+	private SpecificationIndex index;
+
+	@Before
+	public void setupSoot() throws CryptoAnalysisException {
+		G.reset();
+		CrySLMethodToSootMethod.reset();
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Options.v().set_soot_classpath("target/test-classes");
+		Scene.v().forceResolve(CryptoCalls.class.getName(), SootClass.BODIES);
+		Scene.v().forceResolve(KeyGenerator.class.getName(), SootClass.SIGNATURES);
+		Scene.v().forceResolve(PBEKeySpec.class.getName(), SootClass.SIGNATURES);
+		Scene.v().loadNecessaryClasses();
+
+		List<ClassSpecification> specifications = Lists.newArrayList();
+		File ruleset = new File("src/test/resources/crySL/JavaCryptographicArchitecture-1.5.1-ruleset.zip");
+		for (CrySLRule rule : CrySLRuleReader.readFromZipFile(ruleset)) {
+			if (rule.getClassName().equals(KeyGenerator.class.getName()) || rule.getClassName().equals(PBEKeySpec.class.getName())) {
+				specifications.add(new ClassSpecification(rule, null));
+			}
+		}
+		assertEquals(2, specifications.size());
+		index = new SpecificationIndex(specifications);
+	}
+
+	private static SootMethod method(String name) {
+		SootMethod method = Scene.v().getSootClass(CryptoCalls.class.getName()).getMethodByName(name);
+		method.retrieveActiveBody();
+		return method;
+	}
+
+	private static String invoked(Match match) {
+		SootMethod invoked = ((Stmt) match.getUnit()).getInvokeExpr().getMethod();
+		return invoked.getDeclaringClass().getShortName() + "." + invoked.getName() + invoked.getParameterCount();
+	}
+
+	@Test
+	public void callsAreMatchedInOrderOfStatements() {
+		List<Match> matches = index.match(method("calls"));
+		assertEquals(3, matches.size());
+
+		assertEquals("KeyGenerator.getInstance1", invoked(matches.get(0)));
+		assertEquals(Role.INITIAL_TRANSITION, matches.get(0).getEntry().getRole());
+		assertEquals(KeyGenerator.class.getName(), matches.get(0).getEntry().getSpec().getRule().getClassName());
+		assertNull(matches.get(0).getEntry().getForbiddenMethod());
+
+		assertEquals("PBEKeySpec.<init>1", invoked(matches.get(1)));
+		assertEquals(Role.FORBIDDEN_METHOD, matches.get(1).getEntry().getRole());
+		assertEquals(PBEKeySpec.class.getName(), matches.get(1).getEntry().getSpec().getRule().getClassName());
+		assertNotNull(matches.get(1).getEntry().getForbiddenMethod());
+
+		assertEquals("PBEKeySpec.<init>4", invoked(matches.get(2)));
+		assertEquals(Role.INITIAL_TRANSITION, matches.get(2).getEntry().getRole());
+		assertEquals(PBEKeySpec.class.getName(), matches.get(2).getEntry().getSpec().getRule().getClassName());
+	}
+
+	@Test
+	public void methodsWithoutRoleHaveNoEntries() {
+		SootClass keyGenerator = Scene.v().getSootClass(KeyGenerator.class.getName());
+		assertTrue(index.get(keyGenerator.getMethod("void init(int)")).isEmpty());
+		assertTrue(index.get(keyGenerator.getMethod("javax.crypto.SecretKey generateKey()")).isEmpty());
+		assertTrue(index.get(method("calls")).isEmpty());
+	}
+}
@@ -0,0 +1,85 @@
+package test.finitestatemachine;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import crypto.typestate.LabeledMatcherTransition;
+import crypto.typestate.SubtypeOracle;
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.options.Options;
+
+public class LabeledMatcherTransitionTest {
+
+	@Before
+	public void setupSoot() {
+		G.reset();
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Scene.v().loadNecessaryClasses();
+	}
+
+	private static SootClass load(String name) {
+		return Scene.v().loadClassAndSupport(name);
+	}
+
+	@Test
+	public void classIsSubtypeOfItself() {
+		SootClass cipher = load("javax.crypto.Cipher");
+		assertTrue(LabeledMatcherTransition.isSubtype(cipher, cipher));
+	}
+
+	@Test
+	public void classIsSubtypeOfImplementedInterfaces() {
+		SootClass secretKeySpec = load("javax.crypto.spec.SecretKeySpec");
+		assertTrue(LabeledMatcherTransition.isSubtype(secretKeySpec, load("javax.crypto.SecretKey")));
+		// SecretKey extends Key
+		assertTrue(LabeledMatcherTransition.isSubtype(secretKeySpec, load("java.security.Key")));
+		assertTrue(LabeledMatcherTransition.isSubtype(secretKeySpec, load("java.security.spec.KeySpec")));
+	}
+
+	@Test
+	public void classIsSubtypeOfInterfacesOfSuperclasses() {
+		// ArrayList extends AbstractList, which implements List, which extends Collection and Iterable
+		SootClass arrayList = load("java.util.ArrayList");
+		assertTrue(LabeledMatcherTransition.isSubtype(arrayList, load("java.util.AbstractList")));
+		assertTrue(LabeledMatcherTransition.isSubtype(arrayList, load("java.util.Collection")));
+		assertTrue(LabeledMatcherTransition.isSubtype(arrayList, load("java.lang.Iterable")));
+	}
+
+	@Test
+	public void interfaceIsSubtypeOfExtendedInterfaces() {
+		SootClass list = load("java.util.List");
+		assertTrue(LabeledMatcherTransition.isSubtype(list, load("java.util.Collection")));
+		assertTrue(LabeledMatcherTransition.isSubtype(list, load("java.lang.Iterable")));
+	}
+
+	@Test
+	public void supertypeIsNoSubtype() {
+		assertFalse(LabeledMatcherTransition.isSubtype(load("java.util.Collection"), load("java.util.List")));
+		assertFalse(LabeledMatcherTransition.isSubtype(load("java.security.Key"), load("javax.crypto.SecretKey")));
+		assertFalse(LabeledMatcherTransition.isSubtype(load("java.util.AbstractList"), load("java.util.ArrayList")));
+	}
+
+	@Test
+	public void unrelatedTypesAreNoSubtypes() {
+		assertFalse(LabeledMatcherTransition.isSubtype(load("java.util.ArrayList"), load("java.util.Map")));
+		assertFalse(LabeledMatcherTransition.isSubtype(load("javax.crypto.spec.SecretKeySpec"), load("java.security.PublicKey")));
+		assertFalse(LabeledMatcherTransition.isSubtype(load("javax.crypto.Cipher"), load("javax.crypto.Mac")));
+	}
+
+	@Test
+	public void oracleIsReplacedWithScene() {
+		SubtypeOracle oracle = SubtypeOracle.v();
+		assertSame(oracle, SubtypeOracle.v());
+		setupSoot();
+		assertNotSame(oracle, SubtypeOracle.v());
+	}
+}
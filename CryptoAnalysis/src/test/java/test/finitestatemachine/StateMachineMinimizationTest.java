@@ -0,0 +1,150 @@
+package test.finitestatemachine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import crypto.exceptions.CryptoAnalysisException;
+import crypto.rules.CompiledStateMachine;
+import crypto.rules.CrySLCondPredicate;
+import crypto.rules.CrySLMethod;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+import crypto.rules.CrySLRuleReader;
+import crypto.rules.StateMachineGraph;
+import crypto.rules.StateNode;
+import crypto.rules.TransitionEdge;
+
+public class StateMachineMinimizationTest {
+
+	private static List<CrySLMethod> label(String methodName) {
+		return Collections.singletonList(new CrySLMethod(methodName, Collections.emptyList(), new SimpleEntry<>("_", CrySLMethod.VOID)));
+	}
+
+	@Test
+	public void redundantBranchesAreMerged() {
+		// init (a b | a b), as it is built for an ORDER with duplicated alternatives
+		StateMachineGraph smg = new StateMachineGraph();
+		StateNode init = new StateNode("-1", true, false);
+		StateNode left = new StateNode("0", false, false);
+		StateNode right = new StateNode("1", false, false);
+		StateNode leftEnd = new StateNode("2", false, true);
+		StateNode rightEnd = new StateNode("3", false, true);
+		for (StateNode node : new StateNode[] { init, left, right, leftEnd, rightEnd }) {
+			smg.addNode(node);
+		}
+		smg.createNewEdge(label("a"), init, left);
+		smg.createNewEdge(label("a"), init, right);
+		smg.createNewEdge(label("b"), left, leftEnd);
+		smg.createNewEdge(label("b"), right, rightEnd);
+
+		StateMachineGraph minimized = CompiledStateMachine.minimize(smg);
+		assertEquals(3, minimized.getNodes().size());
+		assertEquals(2, minimized.getEdges().size());
+		TransitionEdge initial = minimized.getInitialTransition();
+		assertTrue(initial.from().isInitialState());
+		assertEquals(label("a"), initial.getLabel());
+		TransitionEdge last = minimized.getAllOutgoingEdges(initial.to()).iterator().next();
+		assertEquals(label("b"), last.getLabel());
+		assertTrue(last.to().getAccepting());
+	}
+
+	@Test
+	public void overlappingLabelsAreKept() {
+		StateMachineGraph smg = new StateMachineGraph();
+		StateNode init = new StateNode("-1", true, false);
+		StateNode left = new StateNode("0", false, true);
+		StateNode right = new StateNode("1", false, true);
+		smg.addNode(init);
+		smg.addNode(left);
+		smg.addNode(right);
+		smg.createNewEdge(label("a"), init, left);
+		smg.createNewEdge(Arrays.asList(label("a").get(0), label("b").get(0)), init, right);
+
+		assertSame(smg, CompiledStateMachine.minimize(smg));
+	}
+
+	@Test
+	public void statesEnteredByDifferentEventsAreKept() {
+		// init (a | a) b*, where the state after a and the state after b expect the same events
+		StateMachineGraph smg = new StateMachineGraph();
+		StateNode init = new StateNode("-1", true, false);
+		StateNode left = new StateNode("0", false, true);
+		StateNode right = new StateNode("1", false, true);
+		StateNode loop = new StateNode("2", false, true);
+		for (StateNode node : new StateNode[] { init, left, right, loop }) {
+			smg.addNode(node);
+		}
+		smg.createNewEdge(label("a"), init, left);
+		smg.createNewEdge(label("a"), init, right);
+		smg.createNewEdge(label("b"), left, loop);
+		smg.createNewEdge(label("b"), right, loop);
+		smg.createNewEdge(label("b"), loop, loop);
+
+		StateMachineGraph minimized = CompiledStateMachine.minimize(smg);
+		assertEquals(3, minimized.getNodes().size());
+		StateNode afterA = minimized.getInitialTransition().to();
+		TransitionEdge b = minimized.getAllOutgoingEdges(afterA).iterator().next();
+		assertEquals(label("b"), b.getLabel());
+		assertNotEquals(afterA, b.to());
+	}
+
+	@Test
+	public void predicatesAreGeneratedAfterTheirEvents() throws CryptoAnalysisException {
+		// ORDER Ins, (Seed?, End*)* where End := gS | nB | nI | nIR
+		// ENSURES randomized[this] after Ins; randomized[bytes] after nB;
+		CrySLRule rule = readRule("java.security.SecureRandom");
+		StateMachineGraph smg = rule.getUsagePattern();
+		StateNode instantiated = smg.getInitialTransition().to();
+		StateNode randomized = null;
+		for (TransitionEdge edge : smg.getAllOutgoingEdges(instantiated)) {
+			for (CrySLMethod method : edge.getLabel()) {
+				if (method.getShortMethodName().equals("nextBytes")) {
+					randomized = edge.to();
+				}
+			}
+		}
+		assertTrue(randomized != null);
+
+		Set<StateNode> afterInstantiation = getConditionalStates(rule, "this");
+		Set<StateNode> afterNextBytes = getConditionalStates(rule, "bytes");
+		assertTrue(afterInstantiation.contains(instantiated));
+		assertFalse(afterInstantiation.contains(randomized));
+		assertTrue(afterNextBytes.contains(randomized));
+		assertFalse(afterNextBytes.contains(instantiated));
+	}
+
+	private static CrySLRule readRule(String className) throws CryptoAnalysisException {
+		File ruleset = new File("src/test/resources/crySL/JavaCryptographicArchitecture-1.5.1-ruleset.zip");
+		for (CrySLRule rule : CrySLRuleReader.readFromZipFile(ruleset)) {
+			if (rule.getClassName().equals(className)) {
+				return rule;
+			}
+		}
+		throw new AssertionError("No rule for " + className);
+	}
+
+	/**
+	 * @return the states in which the predicate <code>randomized</code> of the parameter is generated
+	 */
+	private static Set<StateNode> getConditionalStates(CrySLRule rule, String parameter) {
+		for (CrySLPredicate predicate : rule.getPredicates()) {
+			if (predicate instanceof CrySLCondPredicate && predicate.getPredName().equals("randomized")
+					&& predicate.getParameters().get(0).getName().equals(parameter)) {
+				return ((CrySLCondPredicate) predicate).getConditionalMethods();
+			}
+		}
+		throw new AssertionError("No conditional predicate randomized[" + parameter + "]");
+	}
+}
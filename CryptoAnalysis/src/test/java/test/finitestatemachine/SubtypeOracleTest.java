@@ -0,0 +1,99 @@
+package test.finitestatemachine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import crypto.typestate.SubtypeOracle;
+import soot.ArrayType;
+import soot.ByteType;
+import soot.G;
+import soot.IntType;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.Type;
+import soot.options.Options;
+
+public class SubtypeOracleTest {
+
+	private static final String PHANTOM = "tests.missing.PhantomType";
+
+	@Before
+	public void setupSoot() {
+		G.reset();
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Scene.v().forceResolve("javax.crypto.spec.SecretKeySpec", SootClass.HIERARCHY);
+		Scene.v().forceResolve("javax.crypto.Cipher", SootClass.HIERARCHY);
+		Scene.v().forceResolve("java.util.ArrayList", SootClass.HIERARCHY);
+		// The class path does not contain the class, so it is resolved as a phantom class
+		Scene.v().forceResolve(PHANTOM, SootClass.HIERARCHY);
+		Scene.v().loadNecessaryClasses();
+	}
+
+	private static Type type(String name) {
+		return SubtypeOracle.v().getType(name);
+	}
+
+	@Test
+	public void primitiveAndArrayNamesAreResolved() {
+		assertEquals(IntType.v(), type("int"));
+		assertEquals(ArrayType.v(ByteType.v(), 1), type("byte[]"));
+		assertEquals(ArrayType.v(ByteType.v(), 1), type("byte []"));
+		assertEquals(ArrayType.v(RefType.v("java.lang.String"), 2), type("java.lang.String[][]"));
+	}
+
+	@Test
+	public void arraysAreSubtypesOfCompatibleArrays() {
+		SubtypeOracle oracle = SubtypeOracle.v();
+		assertTrue(oracle.isSubtype(type("java.lang.String[]"), type("java.lang.Object[]")));
+		assertTrue(oracle.isSubtype(type("java.lang.String[]"), type("java.lang.Object")));
+		assertTrue(oracle.isSubtype(type("byte[]"), type("byte[]")));
+		assertFalse(oracle.isSubtype(type("java.lang.Object[]"), type("java.lang.String[]")));
+		assertFalse(oracle.isSubtype(type("byte[]"), type("int[]")));
+		assertFalse(oracle.isSubtype(type("byte[]"), type("byte")));
+	}
+
+	@Test
+	public void classesAreSubtypesOfTheirInterfaces() {
+		SubtypeOracle oracle = SubtypeOracle.v();
+		assertTrue(oracle.isSubtype(type("javax.crypto.spec.SecretKeySpec"), type("javax.crypto.SecretKey")));
+		// SecretKey extends Key
+		assertTrue(oracle.isSubtype(type("javax.crypto.spec.SecretKeySpec"), type("java.security.Key")));
+		assertTrue(oracle.isSubtype(type("java.util.ArrayList"), type("java.util.Collection")));
+		assertFalse(oracle.isSubtype(type("java.security.Key"), type("javax.crypto.SecretKey")));
+		assertFalse(oracle.isSubtype(type("javax.crypto.Cipher"), type("java.security.Key")));
+	}
+
+	@Test
+	public void phantomTypeIsOnlySubtypeOfItself() {
+		assertTrue(Scene.v().getSootClass(PHANTOM).isPhantom());
+		SubtypeOracle oracle = SubtypeOracle.v();
+		Type phantom = type(PHANTOM);
+		assertEquals(RefType.v(PHANTOM), phantom);
+		assertTrue(oracle.isSubtype(phantom, phantom));
+		assertFalse(oracle.isSubtype(phantom, type("javax.crypto.Cipher")));
+		assertFalse(oracle.isSubtype(type("javax.crypto.Cipher"), phantom));
+	}
+
+	@Test
+	public void unknownNamesResolveToNull() {
+		assertNull(type("tests.missing.UnknownType"));
+		assertNull(type("tests.missing.UnknownType[]"));
+	}
+
+	@Test
+	public void nullTypesAreNoSubtypes() {
+		SubtypeOracle oracle = SubtypeOracle.v();
+		Type unknown = type("tests.missing.UnknownType");
+		assertFalse(oracle.isSubtype(unknown, unknown));
+		assertFalse(oracle.isSubtype(unknown, type("java.lang.Object")));
+		assertFalse(oracle.isSubtype(type("java.lang.Object"), unknown));
+	}
+}
@@ -0,0 +1,82 @@
+package test.finitestatemachine;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import crypto.rules.StateMachineGraph;
+import crypto.rules.StateNode;
+import crypto.typestate.CrySLMethodToSootMethod;
+import crypto.typestate.SootBasedStateMachineGraph;
+import soot.G;
+import soot.Scene;
+import soot.options.Options;
+
+public class TrackingOnlyStateMachineTest {
+
+	private static final int SEEDS = 10_000;
+
+	@Before
+	public void setupSoot() {
+		G.reset();
+		CrySLMethodToSootMethod.reset();
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Scene.v().loadNecessaryClasses();
+	}
+
+	@Test
+	public void sharedBySeeds() {
+		assertSame(SootBasedStateMachineGraph.trackingOnly(), SootBasedStateMachineGraph.trackingOnly());
+	}
+
+	@Test
+	public void rebuiltForNewScene() {
+		SootBasedStateMachineGraph previous = SootBasedStateMachineGraph.trackingOnly();
+		setupSoot();
+		SootBasedStateMachineGraph current = SootBasedStateMachineGraph.trackingOnly();
+		assertNotSame(previous, current);
+		assertSame(current, SootBasedStateMachineGraph.trackingOnly());
+	}
+
+	/**
+	 * Compares the bytes allocated for the state machines of many seeds with ensured predicates when each
+	 * seed builds its own state machine, as before, and when all seeds share one.
+	 */
+	@Test
+	public void sharedStateMachineIsNotAllocatedPerSeed() {
+		Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+		long thread = Thread.currentThread().getId();
+		SootBasedStateMachineGraph.trackingOnly();
+
+		long start = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < SEEDS; i++) {
+			StateMachineGraph m = new StateMachineGraph();
+			StateNode s = new StateNode("0", true, true);
+			m.addNode(s);
+			m.createNewEdge(Lists.newLinkedList(), s, s);
+			new SootBasedStateMachineGraph(m);
+		}
+		long perSeed = threads.getThreadAllocatedBytes(thread) - start;
+
+		start = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < SEEDS; i++) {
+			SootBasedStateMachineGraph.trackingOnly();
+		}
+		long shared = threads.getThreadAllocatedBytes(thread) - start;
+
+		assertTrue("Allocated " + perSeed + " bytes for " + SEEDS + " state machines, " + shared + " bytes when shared",
+				shared * 10 < perSeed);
+	}
+}
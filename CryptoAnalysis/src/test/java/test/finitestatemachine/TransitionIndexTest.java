@@ -0,0 +1,136 @@
+package test.finitestatemachine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+import javax.crypto.KeyGenerator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import crypto.exceptions.CryptoAnalysisException;
+import crypto.rules.CrySLRule;
+import crypto.rules.CrySLRuleReader;
+import crypto.typestate.CrySLMethodToSootMethod;
+import crypto.typestate.FiniteStateMachineToTypestateChangeFunction;
+import crypto.typestate.LabeledMatcherTransition;
+import crypto.typestate.SootBasedStateMachineGraph;
+import soot.G;
+import soot.Local;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.InstanceInvokeExpr;
+import soot.jimple.Stmt;
+import soot.options.Options;
+import sync.pds.solver.nodes.Node;
+import typestate.TransitionFunction;
+
+public class TransitionIndexTest {
+
+	/**
+	 * The method whose calls change the state of the key generators.
+	 */
+	public static class KeyGeneratorCalls {
+
+		public static void calls() throws GeneralSecurityException {
+			KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+			KeyGenerator other = KeyGenerator.getInstance("AES");
+			keyGenerator.init(128);
+			other.init(128);
+			keyGenerator.getAlgorithm();
+			keyGenerator.generateKey();
+		}
+	}
+
+	private SootBasedStateMachineGraph fsm;
+	private SootMethod calls;
+
+	@Before
+	public void setupSoot() throws CryptoAnalysisException {
+		G.reset();
+		CrySLMethodToSootMethod.reset();
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Options.v().set_soot_classpath("target/test-classes");
+		Scene.v().forceResolve(KeyGeneratorCalls.class.getName(), SootClass.BODIES);
+		Scene.v().forceResolve(KeyGenerator.class.getName(), SootClass.SIGNATURES);
+		Scene.v().loadNecessaryClasses();
+
+		File ruleset = new File("src/test/resources/crySL/JavaCryptographicArchitecture-1.5.1-ruleset.zip");
+		for (CrySLRule rule : CrySLRuleReader.readFromZipFile(ruleset)) {
+			if (rule.getClassName().equals(KeyGenerator.class.getName())) {
+				fsm = new SootBasedStateMachineGraph(rule.getUsagePattern());
+			}
+		}
+		calls = Scene.v().getSootClass(KeyGeneratorCalls.class.getName()).getMethodByName("calls");
+		calls.retrieveActiveBody();
+	}
+
+	private static SootMethod keyGeneratorMethod(String subSignature) {
+		return Scene.v().getSootClass(KeyGenerator.class.getName()).getMethod(subSignature);
+	}
+
+	/**
+	 * @return the n-th call of the method with the given name in the fixture
+	 */
+	private Stmt call(String name, int n) {
+		for (Unit unit : calls.getActiveBody().getUnits()) {
+			Stmt stmt = (Stmt) unit;
+			if (stmt.containsInvokeExpr() && stmt.getInvokeExpr().getMethod().getName().equals(name) && n-- == 0) {
+				return stmt;
+			}
+		}
+		throw new AssertionError("No call of " + name);
+	}
+
+	/**
+	 * @return the weight of the edge into the call for the receiver of the given call
+	 */
+	private TransitionFunction weightAt(Stmt call, Stmt receiverOf) {
+		Local receiver = (Local) ((InstanceInvokeExpr) receiverOf.getInvokeExpr()).getBase();
+		Node<Statement, Val> node = new Node<>(new Statement(call, calls), new Val(receiver, calls));
+		return new FiniteStateMachineToTypestateChangeFunction(fsm).normal(node, node);
+	}
+
+	@Test
+	public void onlyTransitionsOfMethodAreMatched() {
+		SootMethod init = keyGeneratorMethod("void init(int)");
+		List<LabeledMatcherTransition> matching = fsm.getMatchingTransitions(init);
+		assertFalse(matching.isEmpty());
+		assertTrue(matching.size() < fsm.getAllTransitions().size());
+		for (LabeledMatcherTransition transition : matching) {
+			assertTrue(transition.matches(init));
+		}
+	}
+
+	@Test
+	public void unrelatedMethodHasNoTransitions() {
+		assertTrue(fsm.getMatchingTransitions(keyGeneratorMethod("java.lang.String getAlgorithm()")).isEmpty());
+		assertTrue(fsm.getMatchingTransitions(Scene.v().getMethod("<java.lang.Object: java.lang.String toString()>")).isEmpty());
+	}
+
+	@Test
+	public void callChangesStateOfReceiverOnly() {
+		Stmt init = call("init", 0);
+		assertNotEquals(TransitionFunction.one(), weightAt(init, init));
+		// the receiver of the second init call is another key generator
+		assertEquals(TransitionFunction.one(), weightAt(init, call("init", 1)));
+	}
+
+	@Test
+	public void unrelatedCallDoesNotChangeState() {
+		Stmt getAlgorithm = call("getAlgorithm", 0);
+		assertEquals(TransitionFunction.one(), weightAt(getAlgorithm, getAlgorithm));
+	}
+}
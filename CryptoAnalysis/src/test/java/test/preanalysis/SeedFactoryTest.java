@@ -0,0 +1,143 @@
+package test.preanalysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import boomerang.Query;
+import crypto.exceptions.CryptoAnalysisException;
+import crypto.preanalysis.SeedFactory;
+import crypto.rules.CrySLRule;
+import crypto.rules.CrySLRuleReader;
+import crypto.typestate.CrySLMethodToSootMethod;
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.options.Options;
+
+public class SeedFactoryTest {
+
+	private static final List<Class<?>> RULE_CLASSES = Lists.newArrayList(Cipher.class, KeyGenerator.class, MessageDigest.class, SecureRandom.class);
+
+	/**
+	 * The methods that are searched for seeds.
+	 */
+	public static class CryptoObjects {
+
+		public static void keyGenerators() throws GeneralSecurityException {
+			KeyGenerator.getInstance("AES").generateKey();
+			KeyGenerator.getInstance("HmacSHA256").generateKey();
+		}
+
+		public static void ciphers() throws GeneralSecurityException {
+			Cipher.getInstance("AES/GCM/NoPadding");
+			Cipher.getInstance("AES/CBC/PKCS5Padding");
+		}
+
+		public static void digests() throws GeneralSecurityException {
+			MessageDigest.getInstance("SHA-256").digest();
+			MessageDigest.getInstance("SHA-512").digest();
+		}
+
+		public static void randoms() throws GeneralSecurityException {
+			new SecureRandom().nextInt();
+			SecureRandom.getInstanceStrong().nextInt();
+		}
+
+		public static void mixed() throws GeneralSecurityException {
+			MessageDigest.getInstance("SHA-256").digest();
+			Cipher.getInstance("AES/GCM/NoPadding");
+			new SecureRandom().nextInt();
+			KeyGenerator.getInstance("AES").generateKey();
+		}
+
+		public static int noCryptoObjects(int i) {
+			return i + 1;
+		}
+	}
+
+	private List<CrySLRule> rules;
+	private List<SootMethod> methods;
+
+	@Before
+	public void setupSoot() throws CryptoAnalysisException {
+		G.reset();
+		CrySLMethodToSootMethod.reset();
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Options.v().set_soot_classpath("target/test-classes");
+		Scene.v().forceResolve(CryptoObjects.class.getName(), SootClass.BODIES);
+		for (Class<?> ruleClass : RULE_CLASSES) {
+			Scene.v().forceResolve(ruleClass.getName(), SootClass.SIGNATURES);
+		}
+		Scene.v().loadNecessaryClasses();
+
+		rules = Lists.newArrayList();
+		File ruleset = new File("src/test/resources/crySL/JavaCryptographicArchitecture-1.5.1-ruleset.zip");
+		for (CrySLRule rule : CrySLRuleReader.readFromZipFile(ruleset)) {
+			for (Class<?> ruleClass : RULE_CLASSES) {
+				if (rule.getClassName().equals(ruleClass.getName())) {
+					rules.add(rule);
+				}
+			}
+		}
+		assertEquals(RULE_CLASSES.size(), rules.size());
+
+		methods = Lists.newArrayList();
+		for (SootMethod method : Scene.v().getSootClass(CryptoObjects.class.getName()).getMethods()) {
+			if (method.isConcrete()) {
+				method.retrieveActiveBody();
+				methods.add(method);
+			}
+		}
+	}
+
+	private List<Query> generate(int parallelism) {
+		SeedFactory seedFactory = new SeedFactory(rules);
+		seedFactory.generate(methods, parallelism);
+		return seedFactory.getSeeds();
+	}
+
+	@Test
+	public void parallelSearchFindsSameSeedsInSameOrder() {
+		List<Query> sequential = generate(1);
+		// Two objects per method, except for the constructor and the method without crypto objects
+		assertTrue(sequential.size() >= 12);
+		assertEquals(sequential, generate(4));
+	}
+
+	@Test
+	public void seedsAreOrderedByMethods() {
+		List<Query> seeds = generate(4);
+		List<String> methodsOfSeeds = Lists.newArrayList();
+		for (Query seed : seeds) {
+			String name = seed.stmt().getMethod().getName();
+			if (methodsOfSeeds.isEmpty() || !methodsOfSeeds.get(methodsOfSeeds.size() - 1).equals(name)) {
+				methodsOfSeeds.add(name);
+			}
+		}
+		// Each method contributes one contiguous block of seeds, and the blocks follow the order of the methods.
+		List<String> methodsWithSeeds = Lists.newArrayList();
+		for (SootMethod method : methods) {
+			if (methodsOfSeeds.contains(method.getName())) {
+				methodsWithSeeds.add(method.getName());
+			}
+		}
+		assertEquals(methodsWithSeeds, methodsOfSeeds);
+	}
+}
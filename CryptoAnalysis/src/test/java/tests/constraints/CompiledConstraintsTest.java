@@ -0,0 +1,181 @@
+package tests.constraints;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import crypto.constraints.CompiledConstraints;
+import crypto.constraints.CompiledConstraints.Operand;
+import crypto.exceptions.CryptoAnalysisException;
+import crypto.interfaces.ICrySLPredicateParameter;
+import crypto.interfaces.ISLConstraint;
+import crypto.rules.CrySLArithmeticConstraint;
+import crypto.rules.CrySLComparisonConstraint;
+import crypto.rules.CrySLConstraint;
+import crypto.rules.CrySLException;
+import crypto.rules.CrySLExceptionConstraint;
+import crypto.rules.CrySLMethod;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+import crypto.rules.CrySLRuleReader;
+import crypto.rules.CrySLValueConstraint;
+import crypto.rules.TransitionEdge;
+import crypto.typestate.CrySLMethodToSootMethod;
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.options.Options;
+
+/**
+ * Compares the compiled parts of the constraints of the rules with the parts the evaluators computed for each
+ * evaluation before the constraints were compiled.
+ */
+public class CompiledConstraintsTest {
+
+	private List<CrySLRule> rules;
+
+	@Before
+	public void setupSoot() throws CryptoAnalysisException {
+		G.reset();
+		CrySLMethodToSootMethod.reset();
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Scene.v().forceResolve(Cipher.class.getName(), SootClass.SIGNATURES);
+		Scene.v().forceResolve(BadPaddingException.class.getName(), SootClass.SIGNATURES);
+		Scene.v().loadNecessaryClasses();
+		rules = CrySLRuleReader.readFromZipFile(new File("src/test/resources/crySL/JavaCryptographicArchitecture-1.5.1-ruleset.zip"));
+	}
+
+	/**
+	 * @return the constraints of the rule and of the conditions of its predicates, with the parts of
+	 *         composed constraints
+	 */
+	private static List<ISLConstraint> constraints(CrySLRule rule) {
+		List<ISLConstraint> constraints = Lists.newArrayList();
+		List<ISLConstraint> worklist = Lists.newArrayList(rule.getConstraints());
+		for (CrySLPredicate pred : rule.getPredicates()) {
+			pred.getConstraint().ifPresent(worklist::add);
+		}
+		while (!worklist.isEmpty()) {
+			ISLConstraint con = worklist.remove(0);
+			constraints.add(con);
+			if (con instanceof CrySLConstraint) {
+				worklist.add(((CrySLConstraint) con).getLeft());
+				worklist.add(((CrySLConstraint) con).getRight());
+			}
+		}
+		return constraints;
+	}
+
+	@Test
+	public void valueRangesMatchUncompiledValues() {
+		int valueConstraints = 0;
+		for (CrySLRule rule : rules) {
+			CompiledConstraints compiled = new CompiledConstraints(rule);
+			for (ISLConstraint con : constraints(rule)) {
+				if (!(con instanceof CrySLValueConstraint)) {
+					continue;
+				}
+				CrySLValueConstraint valueConstraint = (CrySLValueConstraint) con;
+				Set<String> uncompiled = Sets.newHashSet();
+				for (String value : valueConstraint.getValueRange()) {
+					uncompiled.add(value.toLowerCase());
+				}
+				assertEquals(uncompiled, compiled.getValueRange(valueConstraint));
+				assertSame(compiled.getValueRange(valueConstraint), compiled.getValueRange(valueConstraint));
+				valueConstraints++;
+			}
+		}
+		assertTrue(valueConstraints > 0);
+	}
+
+	@Test
+	public void operandsMatchUncompiledOperands() {
+		int operands = 0;
+		for (CrySLRule rule : rules) {
+			CompiledConstraints compiled = new CompiledConstraints(rule);
+			for (ISLConstraint con : constraints(rule)) {
+				if (!(con instanceof CrySLComparisonConstraint)) {
+					continue;
+				}
+				CrySLComparisonConstraint comparison = (CrySLComparisonConstraint) con;
+				for (CrySLArithmeticConstraint arith : new CrySLArithmeticConstraint[] { comparison.getLeft(), comparison.getRight() }) {
+					for (ICrySLPredicateParameter par : new ICrySLPredicateParameter[] { arith.getLeft(), arith.getRight() }) {
+						assertOperand(par, compiled.getOperand(par));
+						assertSame(compiled.getOperand(par), compiled.getOperand(par));
+						operands++;
+					}
+				}
+			}
+		}
+		assertTrue(operands > 0);
+	}
+
+	private static void assertOperand(ICrySLPredicateParameter par, Operand operand) {
+		if (par instanceof CrySLPredicate) {
+			assertSame(par, operand.getPredicate());
+			assertNull(operand.getLiteral());
+			assertNull(operand.getVarName());
+			return;
+		}
+		assertNull(operand.getPredicate());
+		String exp = par.getName();
+		if (exp.equalsIgnoreCase("true")) {
+			assertEquals(Integer.valueOf(1), operand.getLiteral());
+		} else if (exp.equalsIgnoreCase("false")) {
+			assertEquals(Integer.valueOf(0), operand.getLiteral());
+		} else {
+			try {
+				assertEquals(Integer.valueOf(Integer.parseInt(exp)), operand.getLiteral());
+				assertNull(operand.getVarName());
+			} catch (NumberFormatException e) {
+				assertNull(operand.getLiteral());
+				assertEquals(exp, operand.getVarName());
+			}
+		}
+	}
+
+	@Test
+	public void exceptionMethodsMatchUncompiledMethods() {
+		CrySLMethod doFinal = null;
+		for (CrySLRule rule : rules) {
+			if (rule.getClassName().equals(Cipher.class.getName())) {
+				for (TransitionEdge edge : rule.getUsagePattern().getAllTransitions()) {
+					for (CrySLMethod method : edge.getLabel()) {
+						if (method.getShortMethodName().equals("doFinal")) {
+							doFinal = method;
+						}
+					}
+				}
+			}
+		}
+		CrySLExceptionConstraint con = new CrySLExceptionConstraint(doFinal, new CrySLException(BadPaddingException.class.getName()));
+		CrySLRule rule = new CrySLRule(Cipher.class.getName(), Collections.emptyList(), Collections.emptyList(), null,
+				Lists.newArrayList(con), Collections.emptyList());
+		CompiledConstraints compiled = new CompiledConstraints(rule);
+
+		Set<SootMethod> uncompiled = Sets.newHashSet(CrySLMethodToSootMethod.v().convert(doFinal));
+		assertFalse(uncompiled.isEmpty());
+		assertEquals(uncompiled, compiled.getMethods(con));
+		assertSame(compiled.getMethods(con), compiled.getMethods(con));
+		assertSame(Scene.v().getSootClass(BadPaddingException.class.getName()), compiled.getException(con));
+	}
+}
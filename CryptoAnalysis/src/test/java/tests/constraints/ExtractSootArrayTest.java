@@ -0,0 +1,162 @@
+package tests.constraints;
+
+import static org.junit.Assert.assertEquals;
+
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import crypto.constraints.ArrayElementAssignments;
+import crypto.constraints.EvaluableConstraint;
+import crypto.extractparameter.CallSiteWithParamIndex;
+import crypto.extractparameter.ExtractedValue;
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.AssignStmt;
+import soot.jimple.NewArrayExpr;
+import soot.options.Options;
+
+public class ExtractSootArrayTest {
+
+	/**
+	 * The methods whose arrays are extracted.
+	 */
+	public static class ArrayExamples {
+
+		public static byte[] constantElements() {
+			return new byte[] { 1, 2 };
+		}
+
+		public static byte[] randomElements() {
+			byte[] bytes = new byte[16];
+			new SecureRandom().nextBytes(bytes);
+			return bytes;
+		}
+
+		public static byte[] copiedElements(byte first, byte second) {
+			byte[] bytes = new byte[2];
+			bytes[0] = first;
+			bytes[1] = second;
+			return bytes;
+		}
+
+		public static int[][] manyArrays() {
+			int[] a0 = { 0 };
+			int[] a1 = { 1 };
+			int[] a2 = { 2 };
+			int[] a3 = { 3 };
+			int[] a4 = { 4 };
+			int[] a5 = { 5 };
+			int[] a6 = { 6 };
+			int[] a7 = { 7 };
+			int[] a8 = { 8 };
+			int[] a9 = { 9 };
+			int[] a10 = { 10 };
+			int[] a11 = { 11 };
+			return new int[][] { a0, a1, a2, a3, a4, a5, a6, a7, a8, a9, a10, a11 };
+		}
+	}
+
+	/**
+	 * Exposes the array extraction of the constraints.
+	 */
+	private static class ArrayExtraction extends EvaluableConstraint {
+
+		private static final String UNKNOWN = UNKNOWN_VALUE;
+
+		private final ArrayElementAssignments arrayElements = new ArrayElementAssignments();
+
+		private ArrayExtraction() {
+			super(null, null);
+		}
+
+		@Override
+		public void evaluate() {
+		}
+
+		private Set<String> extract(SootMethod method, AssignStmt allocation, boolean byLocal) {
+			Statement stmt = new Statement(allocation, method);
+			CallSiteWithParamIndex callSite = new CallSiteWithParamIndex(stmt, new Val(allocation.getLeftOp(), method), 0, "array");
+			ExtractedValue allocSite = new ExtractedValue(stmt, byLocal ? allocation.getLeftOp() : allocation.getRightOp(), Collections.emptySet());
+			return extractSootArray(arrayElements, callSite, allocSite).keySet();
+		}
+	}
+
+	private ArrayExtraction extraction;
+
+	@Before
+	public void setupSoot() {
+		G.reset();
+		extraction = new ArrayExtraction();
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Options.v().set_soot_classpath("target/test-classes");
+		Scene.v().forceResolve(ArrayExamples.class.getName(), SootClass.BODIES);
+		Scene.v().loadNecessaryClasses();
+	}
+
+	private static SootMethod method(String name) {
+		SootMethod method = Scene.v().getSootClass(ArrayExamples.class.getName()).getMethodByName(name);
+		method.retrieveActiveBody();
+		return method;
+	}
+
+	/**
+	 * @return the statements of the method that allocate arrays of the base type, in the order of the body
+	 */
+	private static List<AssignStmt> allocations(SootMethod method, String baseType) {
+		List<AssignStmt> allocations = Lists.newArrayList();
+		for (Unit unit : method.getActiveBody().getUnits()) {
+			if (unit instanceof AssignStmt && ((AssignStmt) unit).getRightOp() instanceof NewArrayExpr
+					&& ((NewArrayExpr) ((AssignStmt) unit).getRightOp()).getBaseType().toString().equals(baseType)) {
+				allocations.add((AssignStmt) unit);
+			}
+		}
+		return allocations;
+	}
+
+	@Test
+	public void constantElementsOfAllocation() {
+		SootMethod method = method("constantElements");
+		AssignStmt allocation = allocations(method, "byte").get(0);
+		assertEquals(ImmutableSet.of("1", "2"), extraction.extract(method, allocation, false));
+		assertEquals(ImmutableSet.of("1", "2"), extraction.extract(method, allocation, true));
+	}
+
+	@Test
+	public void arrayWithoutElementAssignments() {
+		SootMethod method = method("randomElements");
+		AssignStmt allocation = allocations(method, "byte").get(0);
+		assertEquals(ImmutableSet.of(), extraction.extract(method, allocation, false));
+	}
+
+	@Test
+	public void elementsCopiedFromVariablesAreUnknown() {
+		SootMethod method = method("copiedElements");
+		AssignStmt allocation = allocations(method, "byte").get(0);
+		assertEquals(ImmutableSet.of(ArrayExtraction.UNKNOWN), extraction.extract(method, allocation, false));
+	}
+
+	@Test
+	public void arraysWithCommonPrefixAreDistinguished() {
+		SootMethod method = method("manyArrays");
+		List<AssignStmt> allocations = allocations(method, "int");
+		assertEquals(12, allocations.size());
+		for (int i = 0; i < allocations.size(); i++) {
+			assertEquals(ImmutableSet.of(String.valueOf(i)), extraction.extract(method, allocations.get(i), false));
+		}
+	}
+}
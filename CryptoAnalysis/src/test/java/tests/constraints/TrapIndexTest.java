@@ -0,0 +1,153 @@
+package tests.constraints;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import crypto.constraints.TrapIndex;
+import soot.Body;
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.Trap;
+import soot.Unit;
+import soot.jimple.Jimple;
+import soot.options.Options;
+
+public class TrapIndexTest {
+
+	private Body body;
+	private List<Unit> units;
+
+	@Before
+	public void setupSoot() {
+		G.reset();
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_output_format(Options.output_format_none);
+		Scene.v().forceResolve(IllegalArgumentException.class.getName(), SootClass.HIERARCHY);
+		Scene.v().forceResolve(IllegalStateException.class.getName(), SootClass.HIERARCHY);
+		Scene.v().loadNecessaryClasses();
+		body = Jimple.v().newBody();
+		units = Lists.newArrayList();
+	}
+
+	/**
+	 * Appends a number of nop statements to the body.
+	 */
+	private void nops(int count) {
+		for (int i = 0; i < count; i++) {
+			append(Jimple.v().newNopStmt());
+		}
+	}
+
+	private void append(Unit unit) {
+		body.getUnits().add(unit);
+		units.add(unit);
+	}
+
+	/**
+	 * Adds a trap covering the units from begin up to, but excluding, end, whose handler is the last unit.
+	 */
+	private Trap trap(Class<? extends Throwable> exception, int begin, int end) {
+		Trap trap = Jimple.v().newTrap(Scene.v().getSootClass(exception.getName()), units.get(begin), units.get(end),
+				units.get(units.size() - 1));
+		body.getTraps().add(trap);
+		return trap;
+	}
+
+	@Test
+	public void nestedTraps() {
+		nops(7);
+		Trap inner = trap(IllegalStateException.class, 1, 3);
+		Trap outer = trap(RuntimeException.class, 0, 5);
+		TrapIndex index = new TrapIndex(body);
+
+		assertEquals(Collections.singletonList(outer), index.getTraps(units.get(0)));
+		assertEquals(Lists.newArrayList(inner, outer), index.getTraps(units.get(1)));
+		assertEquals(Lists.newArrayList(inner, outer), index.getTraps(units.get(2)));
+		assertEquals(Collections.singletonList(outer), index.getTraps(units.get(3)));
+		assertEquals(Collections.singletonList(outer), index.getTraps(units.get(4)));
+		assertEquals(Collections.emptyList(), index.getTraps(units.get(5)));
+		assertEquals(Collections.emptyList(), index.getTraps(units.get(6)));
+
+		// The first trap of the body that catches the exception handles it
+		assertEquals(Optional.of(inner), index.getTrap(units.get(1), Scene.v().getSootClass(IllegalStateException.class.getName())));
+		assertEquals(Optional.of(outer), index.getTrap(units.get(1), Scene.v().getSootClass(IllegalArgumentException.class.getName())));
+		assertEquals(Optional.of(outer), index.getTrap(units.get(0), Scene.v().getSootClass(IllegalStateException.class.getName())));
+		assertEquals(Optional.empty(), index.getTrap(units.get(1), Scene.v().getSootClass(Exception.class.getName())));
+		assertEquals(Optional.empty(), index.getTrap(units.get(5), Scene.v().getSootClass(IllegalStateException.class.getName())));
+	}
+
+	@Test
+	public void overlappingTraps() {
+		nops(6);
+		Trap first = trap(IllegalStateException.class, 0, 3);
+		Trap second = trap(IllegalArgumentException.class, 2, 5);
+		TrapIndex index = new TrapIndex(body);
+
+		assertEquals(Collections.singletonList(first), index.getTraps(units.get(0)));
+		assertEquals(Collections.singletonList(first), index.getTraps(units.get(1)));
+		assertEquals(Lists.newArrayList(first, second), index.getTraps(units.get(2)));
+		assertEquals(Collections.singletonList(second), index.getTraps(units.get(3)));
+		assertEquals(Collections.singletonList(second), index.getTraps(units.get(4)));
+		assertEquals(Collections.emptyList(), index.getTraps(units.get(5)));
+	}
+
+	@Test
+	public void unitAfterGotoToEndOfTrapIsTrapped() {
+		// 0: nop; 1: goto 3; 2: nop; 3: nop; 4: nop, where the trap covers 0 to 2
+		nops(1);
+		Unit end = Jimple.v().newNopStmt();
+		append(Jimple.v().newGotoStmt(end));
+		nops(1);
+		append(end);
+		nops(1);
+		Trap trap = trap(RuntimeException.class, 0, 3);
+		TrapIndex index = new TrapIndex(body);
+
+		assertTrue(index.traps(trap, units.get(0)));
+		assertTrue(index.traps(trap, units.get(1)));
+		assertTrue(index.traps(trap, units.get(2)));
+		assertFalse(index.traps(trap, end));
+		assertFalse(index.traps(trap, units.get(4)));
+	}
+
+	@Test
+	public void gotoTargetAfterTrapIsNotTrapped() {
+		// 0: nop; 1: goto 4; 2: nop; 3: nop; 4: nop, where the trap covers 0 to 2
+		nops(1);
+		Unit target = Jimple.v().newNopStmt();
+		append(Jimple.v().newGotoStmt(target));
+		nops(2);
+		append(target);
+		Trap trap = trap(RuntimeException.class, 0, 3);
+		TrapIndex index = new TrapIndex(body);
+
+		assertTrue(index.traps(trap, units.get(1)));
+		assertTrue(index.traps(trap, units.get(2)));
+		assertFalse(index.traps(trap, units.get(3)));
+		assertFalse(index.traps(trap, target));
+	}
+
+	@Test
+	public void unitsAddedAfterIndexingAreNotTrapped() {
+		nops(3);
+		Trap trap = trap(RuntimeException.class, 0, 2);
+		TrapIndex index = new TrapIndex(body);
+		Unit added = Jimple.v().newNopStmt();
+		body.getUnits().insertAfter(added, units.get(0));
+
+		assertTrue(index.traps(trap, units.get(0)));
+		assertFalse(index.traps(trap, added));
+	}
+}
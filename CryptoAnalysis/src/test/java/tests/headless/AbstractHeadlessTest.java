@@ -9,8 +9,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
 import boomerang.BackwardQuery;
@@ -27,7 +30,9 @@ import crypto.analysis.CrySLRulesetSelector.Ruleset;
 import crypto.analysis.CryptoScannerSettings.ReportFormat;
 import crypto.analysis.EnsuredCrySLPredicate;
 import crypto.analysis.IAnalysisSeed;
+import crypto.analysis.SeedBudget;
 import crypto.analysis.errors.AbstractError;
+import crypto.boomerang.AnalysisTier;
 import crypto.exceptions.CryptoAnalysisException;
 import crypto.extractparameter.CallSiteWithParamIndex;
 import crypto.extractparameter.ExtractedValue;
@@ -56,7 +61,22 @@ public abstract class AbstractHeadlessTest {
 	private static boolean PROVIDER_DETECTION = true;
 	private CrySLAnalysisListener errorCountingAnalysisListener;
 	private Table<String, Class<?>, Integer> errorMarkerCountPerErrorTypeAndMethod = HashBasedTable.create();
+	private Multiset<String> ensuredPredicates = HashMultiset.create();
 	private static ReportFormat reportFormat = null;
+	private static int numberOfThreads = 1;
+	private static long seedPropagationLimit = 0;
+	private static File checkpointDirectory = null;
+	private static boolean resumeFromCheckpoint = false;
+	private static boolean incrementalScan = false;
+	private static int interruptAfterSeeds = 0;
+	private static File callGraphCacheDirectory = null;
+	private static long scanTimeout = 0;
+	private static AnalysisTier analysisTier = AnalysisTier.DEFAULT;
+	private static String rulesBaseDirectory = IDEALCrossingTestingFramework.RULES_BASE_DIR;
+	private int finishedSeeds;
+	private int startedSeeds;
+	private int seedTimeouts;
+	private int unprocessedSeeds;
 	
 	public static void setReportFormat(ReportFormat reportFormat) {
 		AbstractHeadlessTest.reportFormat = reportFormat;
@@ -70,6 +90,61 @@ public abstract class AbstractHeadlessTest {
 		PROVIDER_DETECTION = providerDetection;
 	}
 	
+	public static void setNumberOfThreads(int numberOfThreads) {
+		AbstractHeadlessTest.numberOfThreads = numberOfThreads;
+	}
+	
+	public static void setSeedPropagationLimit(long seedPropagationLimit) {
+		AbstractHeadlessTest.seedPropagationLimit = seedPropagationLimit;
+	}
+	
+	/**
+	 * @param checkpointDirectory the directory to which a checkpoint is written after each seed or <code>null</code>
+	 */
+	public static void setCheckpointDirectory(File checkpointDirectory) {
+		AbstractHeadlessTest.checkpointDirectory = checkpointDirectory;
+	}
+	
+	public static void setResumeFromCheckpoint(boolean resumeFromCheckpoint) {
+		AbstractHeadlessTest.resumeFromCheckpoint = resumeFromCheckpoint;
+	}
+	
+	public static void setIncrementalScan(boolean incrementalScan) {
+		AbstractHeadlessTest.incrementalScan = incrementalScan;
+	}
+	
+	public static void setCallGraphCacheDirectory(File callGraphCacheDirectory) {
+		AbstractHeadlessTest.callGraphCacheDirectory = callGraphCacheDirectory;
+	}
+	
+	/**
+	 * @param scanTimeout the time in milliseconds after which the scan stops analyzing seeds. A value of zero
+	 *        never stops the scan.
+	 */
+	public static void setScanTimeout(long scanTimeout) {
+		AbstractHeadlessTest.scanTimeout = scanTimeout;
+	}
+	
+	public static void setAnalysisTier(AnalysisTier analysisTier) {
+		AbstractHeadlessTest.analysisTier = analysisTier;
+	}
+	
+	/**
+	 * @param rulesBaseDirectory the directory that contains a directory with the rules of each ruleset,
+	 *        ending with a separator
+	 */
+	public static void setRulesBaseDirectory(String rulesBaseDirectory) {
+		AbstractHeadlessTest.rulesBaseDirectory = rulesBaseDirectory;
+	}
+	
+	/**
+	 * Simulates a scan that is interrupted by throwing a {@link ScanInterruptedException} once the given number
+	 * of seeds finished. A value of zero never interrupts the scan.
+	 */
+	public static void setInterruptAfterSeeds(int interruptAfterSeeds) {
+		AbstractHeadlessTest.interruptAfterSeeds = interruptAfterSeeds;
+	}
+	
 	protected MavenProject createAndCompile(String mavenProjectPath) {
 		MavenProject mi = new MavenProject(mavenProjectPath);
 		mi.compile();
@@ -82,6 +157,10 @@ public abstract class AbstractHeadlessTest {
 
 	protected HeadlessCryptoScanner createScanner(MavenProject mp, Ruleset ruleset) {
 		G.v().reset();
+		finishedSeeds = 0;
+		startedSeeds = 0;
+		seedTimeouts = 0;
+		unprocessedSeeds = 0;
 		HeadlessCryptoScanner scanner = new HeadlessCryptoScanner() {
 			@Override
 			protected String sootClassPath() {
@@ -92,11 +171,11 @@ public abstract class AbstractHeadlessTest {
 			protected List<CrySLRule> getRules() {
 				try {
 					List<CrySLRule> rules = Lists.newArrayList();
-					rules = CrySLRulesetSelector.makeFromRuleset(IDEALCrossingTestingFramework.RULES_BASE_DIR, ruleFormat, ruleset);
+					rules = CrySLRulesetSelector.makeFromRuleset(rulesBaseDirectory, ruleFormat, ruleset);
 					HeadlessCryptoScanner.setRules(rules);
 					return rules;
 				} catch (CryptoAnalysisException e) {
-					LOGGER.error("Error happened when getting the CrySL rules from the specified directory: "+IDEALCrossingTestingFramework.RULES_BASE_DIR, e);
+					LOGGER.error("Error happened when getting the CrySL rules from the specified directory: "+rulesBaseDirectory, e);
 				}
 				return null;
 			}
@@ -132,6 +211,51 @@ public abstract class AbstractHeadlessTest {
 			protected ReportFormat reportFormat(){
 				return VISUALIZATION ? reportFormat : null;
 			}
+			
+			@Override
+			protected int numberOfThreads() {
+				return numberOfThreads;
+			}
+			
+			@Override
+			protected SeedBudget seedBudget() {
+				return seedPropagationLimit > 0 ? new SeedBudget(0, seedPropagationLimit, 0) : super.seedBudget();
+			}
+			
+			@Override
+			protected File checkpointDirectory() {
+				return checkpointDirectory;
+			}
+			
+			@Override
+			protected long checkpointInterval() {
+				return 0;
+			}
+			
+			@Override
+			protected boolean resumeFromCheckpoint() {
+				return resumeFromCheckpoint;
+			}
+			
+			@Override
+			protected boolean incrementalScan() {
+				return incrementalScan;
+			}
+			
+			@Override
+			protected File callGraphCacheDirectory() {
+				return callGraphCacheDirectory;
+			}
+
+			@Override
+			protected long timeout() {
+				return scanTimeout > 0 ? scanTimeout : super.timeout();
+			}
+
+			@Override
+			protected AnalysisTier analysisTier() {
+				return analysisTier;
+			}
 		};
 		return scanner;
 	}
@@ -143,25 +267,41 @@ public abstract class AbstractHeadlessTest {
 			public void reportError(AbstractError error) {
 				Integer currCount;
 				String methodContainingError = error.getErrorLocation().getMethod().toString();
-				if (errorMarkerCountPerErrorTypeAndMethod.contains(methodContainingError, error.getClass())) {
-					currCount = errorMarkerCountPerErrorTypeAndMethod.get(methodContainingError, error.getClass());
+				if (errorMarkerCountPerErrorTypeAndMethod.contains(methodContainingError, error.getErrorClass())) {
+					currCount = errorMarkerCountPerErrorTypeAndMethod.get(methodContainingError, error.getErrorClass());
 				} else {
 					currCount = 0;
 				}
 				Integer newCount = --currCount;
-				errorMarkerCountPerErrorTypeAndMethod.put(methodContainingError, error.getClass(), newCount);
+				errorMarkerCountPerErrorTypeAndMethod.put(methodContainingError, error.getErrorClass(), newCount);
 			}
 
 			@Override
-			public void onSeedTimeout(Node<Statement, Val> seed) {}
+			public void onSeedTimeout(Node<Statement, Val> seed) {
+				seedTimeouts++;
+			}
+
+			@Override
+			public void onAnalysisIncomplete(Collection<IAnalysisSeed> seeds) {
+				unprocessedSeeds += seeds.size();
+			}
 
 			@Override
-			public void onSeedFinished(IAnalysisSeed seed, ForwardBoomerangResults<TransitionFunction> solver) {}
+			public void onSeedFinished(IAnalysisSeed seed, ForwardBoomerangResults<TransitionFunction> solver) {
+				if (++finishedSeeds == interruptAfterSeeds) {
+					throw new ScanInterruptedException();
+				}
+			}
 
 			@Override
 			public void ensuredPredicates(Table<Statement, Val, Set<EnsuredCrySLPredicate>> existingPredicates, Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> expectedPredicates,
 					Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> missingPredicates) {
-
+				ensuredPredicates.clear();
+				for (Cell<Statement, Val, Set<EnsuredCrySLPredicate>> c : existingPredicates.cellSet()) {
+					for (EnsuredCrySLPredicate predicate : c.getValue()) {
+						ensuredPredicates.add(c.getRowKey().getMethod() + " " + c.getRowKey() + " " + c.getColumnKey().value() + " " + predicate.getPredicate().getPredName());
+					}
+				}
 			}
 
 			@Override
@@ -176,7 +316,11 @@ public abstract class AbstractHeadlessTest {
 			public void checkedConstraints(AnalysisSeedWithSpecification analysisSeedWithSpecification, Collection<ISLConstraint> relConstraints) {}
 
 			@Override
-			public void seedStarted(IAnalysisSeed analysisSeedWithSpecification) {}
+			public void seedStarted(IAnalysisSeed analysisSeedWithSpecification) {
+				if (analysisSeedWithSpecification instanceof AnalysisSeedWithSpecification) {
+					startedSeeds++;
+				}
+			}
 
 			@Override
 			public void boomerangQueryStarted(Query seed, BackwardQuery q) {}
@@ -235,6 +379,50 @@ public abstract class AbstractHeadlessTest {
 		}
 	}
 
+	/**
+	 * @return a copy of the remaining number of expected errors per method and error type. Errors that are
+	 *         reported but not expected are counted negatively.
+	 */
+	protected Table<String, Class<?>, Integer> getErrorsCount() {
+		return HashBasedTable.create(errorMarkerCountPerErrorTypeAndMethod);
+	}
+
+	/**
+	 * @return the number of seeds with a specification the last scan analyzed, i.e., that were not restored
+	 *         from a checkpoint
+	 */
+	protected int getStartedSeeds() {
+		return startedSeeds;
+	}
+
+	protected int getSeedTimeouts() {
+		return seedTimeouts;
+	}
+
+	/**
+	 * @return the predicates the last scan ensured, each described by the method, the statement and the
+	 *         variable it holds at, and its name
+	 */
+	protected Multiset<String> getEnsuredPredicates() {
+		return ImmutableMultiset.copyOf(ensuredPredicates);
+	}
+
+	/**
+	 * @return the number of seeds the last scan reported as not analyzed, i.e., <code>0</code> unless the report
+	 *         of the scan is partial
+	 */
+	protected int getUnprocessedSeeds() {
+		return unprocessedSeeds;
+	}
+
+	protected void clearErrorsCount() {
+		errorMarkerCountPerErrorTypeAndMethod.clear();
+	}
+
+	protected static class ScanInterruptedException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
 	protected void setErrorsCount(String methodSignature, Class<?> errorType, int errorMarkerCount) {
 		if (errorMarkerCountPerErrorTypeAndMethod.contains(methodSignature, errorType)) {
 			throw new RuntimeException("Error Type already specified for this method");
@@ -0,0 +1,51 @@
+package tests.headless;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import crypto.HeadlessCryptoScanner;
+import crypto.analysis.errors.ImpreciseValueExtractionError;
+import crypto.boomerang.AnalysisTier;
+
+public class AnalysisTierTest extends AbstractHeadlessTest {
+
+	/**
+	 * @return the number of reported {@link ImpreciseValueExtractionError}s
+	 */
+	private int impreciseValueErrors() {
+		int count = 0;
+		for (Integer errors : getErrorsCount().column(ImpreciseValueExtractionError.class).values()) {
+			// reported errors that are not expected are counted negatively
+			count -= errors;
+		}
+		return count;
+	}
+
+	private void scan(AnalysisTier tier) {
+		String mavenProjectPath = new File("../CryptoAnalysisTargets/AnalysisTierExample").getAbsolutePath();
+		MavenProject mavenProject = createAndCompile(mavenProjectPath);
+		setAnalysisTier(tier);
+		HeadlessCryptoScanner scanner = createScanner(mavenProject);
+		scanner.exec();
+	}
+
+	@Test
+	public void fastTierReportsImpreciseQuerySite() {
+		scan(AnalysisTier.FAST);
+		Assert.assertTrue(impreciseValueErrors() > 0);
+	}
+
+	@Test
+	public void preciseTierResolvesQuerySite() {
+		scan(AnalysisTier.PRECISE);
+		Assert.assertEquals(0, impreciseValueErrors());
+	}
+
+	@After
+	public void tearDown() {
+		setAnalysisTier(AnalysisTier.DEFAULT);
+	}
+}
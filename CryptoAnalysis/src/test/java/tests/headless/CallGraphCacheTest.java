@@ -0,0 +1,103 @@
+package tests.headless;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
+
+import soot.Scene;
+import soot.jimple.toolkits.callgraph.Edge;
+
+public class CallGraphCacheTest extends AbstractHeadlessTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void restoresCallGraphOfUnchangedApplication() throws IOException {
+		MavenProject mavenProject = createAndCompile(new File("../CryptoAnalysisTargets/CogniCryptDemoExample").getAbsolutePath());
+		File directory = temporaryFolder.newFolder();
+		setCallGraphCacheDirectory(directory);
+
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> computedErrors = getErrorsCount();
+		Set<String> computedEdges = callGraphEdges();
+		File[] entries = cacheEntries(directory);
+		Assert.assertEquals(1, entries.length);
+		long stored = entries[0].lastModified();
+
+		clearErrorsCount();
+		createScanner(mavenProject).exec();
+		// A restored call graph is not stored again.
+		Assert.assertEquals(stored, entries[0].lastModified());
+		Assert.assertEquals(computedEdges, callGraphEdges());
+		Assert.assertEquals(computedErrors, getErrorsCount());
+	}
+
+	@Test
+	public void touchedApplicationKeepsCallGraph() throws IOException {
+		MavenProject mavenProject = createAndCompile(new File("../CryptoAnalysisTargets/CogniCryptDemoExample").getAbsolutePath());
+		File directory = temporaryFolder.newFolder();
+		setCallGraphCacheDirectory(directory);
+
+		createScanner(mavenProject).exec();
+		File[] entries = cacheEntries(directory);
+		Assert.assertEquals(1, entries.length);
+		long stored = entries[0].lastModified();
+
+		// The class files are hashed again, as their modification time changed, but their content is the same.
+		for (File classFile : FileUtils.listFiles(new File(mavenProject.getBuildDirectory()), new String[] { "class" }, true)) {
+			Assert.assertTrue(classFile.setLastModified(classFile.lastModified() + 1000));
+		}
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(1, cacheEntries(directory).length);
+		Assert.assertEquals(stored, entries[0].lastModified());
+	}
+
+	@Test
+	public void changedApplicationInvalidatesCallGraph() throws IOException {
+		File project = temporaryFolder.newFolder();
+		FileUtils.copyDirectory(new File("../CryptoAnalysisTargets/CogniCryptDemoExample"), project);
+		MavenProject mavenProject = createAndCompile(project.getAbsolutePath());
+		File directory = temporaryFolder.newFolder();
+		setCallGraphCacheDirectory(directory);
+
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(1, cacheEntries(directory).length);
+
+		File example = new File(project, "src/main/java/example/PredicateMissingExample.java");
+		String source = FileUtils.readFileToString(example, StandardCharsets.UTF_8);
+		Assert.assertTrue(source.contains("keygen.init(46);"));
+		FileUtils.writeStringToFile(example, source.replace("keygen.init(46);", "keygen.init(128);"), StandardCharsets.UTF_8);
+		mavenProject = createAndCompile(project.getAbsolutePath());
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(2, cacheEntries(directory).length);
+	}
+
+	private static File[] cacheEntries(File directory) {
+		return directory.listFiles((dir, name) -> name.endsWith(".cg.json.gz"));
+	}
+
+	private static Set<String> callGraphEdges() {
+		Set<String> edges = Sets.newHashSet();
+		for (Edge e : Scene.v().getCallGraph()) {
+			edges.add(e.src() + " " + e.srcUnit() + " " + e.tgt() + " " + e.kind());
+		}
+		return edges;
+	}
+
+	@After
+	public void tearDown() {
+		setCallGraphCacheDirectory(null);
+	}
+}
@@ -0,0 +1,97 @@
+package tests.headless;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Table;
+
+import crypto.analysis.CrySLRulesetSelector.Ruleset;
+import test.IDEALCrossingTestingFramework;
+
+public class IncrementalScanTest extends AbstractHeadlessTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void incrementalScanReportsSameErrorsAsFullScan() throws IOException {
+		File project = temporaryFolder.newFolder();
+		FileUtils.copyDirectory(new File("../CryptoAnalysisTargets/CogniCryptDemoExample"), project);
+		File checkpointDirectory = temporaryFolder.newFolder();
+
+		MavenProject mavenProject = createAndCompile(project.getAbsolutePath());
+		setCheckpointDirectory(checkpointDirectory);
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> before = getErrorsCount();
+
+		// The key size is fixed, such that the key is generated securely and the cipher receives its predicate.
+		File example = new File(project, "src/main/java/example/PredicateMissingExample.java");
+		String source = FileUtils.readFileToString(example, StandardCharsets.UTF_8);
+		Assert.assertTrue(source.contains("keygen.init(46);"));
+		FileUtils.writeStringToFile(example, source.replace("keygen.init(46);", "keygen.init(128);"), StandardCharsets.UTF_8);
+		mavenProject = createAndCompile(project.getAbsolutePath());
+
+		clearErrorsCount();
+		setIncrementalScan(true);
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> incremental = getErrorsCount();
+		int reanalyzedSeeds = getStartedSeeds();
+
+		clearErrorsCount();
+		setIncrementalScan(false);
+		setCheckpointDirectory(null);
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(getErrorsCount(), incremental);
+		Assert.assertNotEquals(before, incremental);
+		Assert.assertTrue(reanalyzedSeeds < getStartedSeeds());
+	}
+
+	@Test
+	public void changedRulesAreScannedCompletely() throws IOException {
+		MavenProject mavenProject = createAndCompile(new File("../CryptoAnalysisTargets/CogniCryptDemoExample").getAbsolutePath());
+		File rulesBaseDirectory = temporaryFolder.newFolder();
+		File rules = new File(rulesBaseDirectory, Ruleset.JavaCryptographicArchitecture.name());
+		FileUtils.copyDirectory(new File(IDEALCrossingTestingFramework.RULES_BASE_DIR, Ruleset.JavaCryptographicArchitecture.name()), rules);
+		setRulesBaseDirectory(rulesBaseDirectory.getAbsolutePath() + File.separator);
+		File checkpointDirectory = temporaryFolder.newFolder();
+
+		setCheckpointDirectory(checkpointDirectory);
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> before = getErrorsCount();
+
+		// The application is unchanged, but the key size of its key generator becomes secure.
+		File keyGenerator = new File(rules, "KeyGenerator.crysl");
+		String rule = FileUtils.readFileToString(keyGenerator, StandardCharsets.UTF_8);
+		Assert.assertTrue(rule.contains("keysize in {128, 192, 256}"));
+		FileUtils.writeStringToFile(keyGenerator, rule.replace("keysize in {128, 192, 256}", "keysize in {46, 128, 192, 256}"), StandardCharsets.UTF_8);
+
+		clearErrorsCount();
+		setIncrementalScan(true);
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> incremental = getErrorsCount();
+		int reanalyzedSeeds = getStartedSeeds();
+
+		clearErrorsCount();
+		setIncrementalScan(false);
+		setCheckpointDirectory(null);
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(getErrorsCount(), incremental);
+		Assert.assertNotEquals(before, incremental);
+		Assert.assertEquals(getStartedSeeds(), reanalyzedSeeds);
+	}
+
+	@After
+	public void tearDown() {
+		setCheckpointDirectory(null);
+		setIncrementalScan(false);
+		setRulesBaseDirectory(IDEALCrossingTestingFramework.RULES_BASE_DIR);
+	}
+}
@@ -0,0 +1,40 @@
+package tests.headless;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Table;
+
+public class ParallelScanTest extends AbstractHeadlessTest {
+
+	@Test
+	public void cogniCryptDemoExamples() {
+		assertSameErrorsInParallel("../CryptoAnalysisTargets/CogniCryptDemoExample");
+	}
+
+	@Test
+	public void cryptoMisuseExampleProject() {
+		assertSameErrorsInParallel("../CryptoAnalysisTargets/CryptoMisuseExamples");
+	}
+
+	private void assertSameErrorsInParallel(String path) {
+		MavenProject mavenProject = createAndCompile(new File(path).getAbsolutePath());
+		setNumberOfThreads(1);
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> sequential = getErrorsCount();
+		Assert.assertFalse(sequential.isEmpty());
+
+		clearErrorsCount();
+		setNumberOfThreads(4);
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(sequential, getErrorsCount());
+	}
+
+	@After
+	public void tearDown() {
+		setNumberOfThreads(1);
+	}
+}
@@ -0,0 +1,134 @@
+package tests.headless;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Table;
+
+import crypto.analysis.ScanCheckpoint;
+
+public class ScanCheckpointTest extends AbstractHeadlessTest {
+
+	private static final int INTERRUPT_AFTER_SEEDS = 3;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void resumedScanReportsSameErrors() throws IOException {
+		MavenProject mavenProject = createAndCompile(new File("../CryptoAnalysisTargets/CogniCryptDemoExample").getAbsolutePath());
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> uninterrupted = getErrorsCount();
+		int analyzedSeeds = getStartedSeeds();
+
+		File directory = temporaryFolder.newFolder();
+		interruptScan(mavenProject, directory);
+		ScanCheckpoint checkpoint = ScanCheckpoint.load(directory);
+		Assert.assertFalse(checkpoint.isComplete());
+		Assert.assertFalse(checkpoint.getProcessedSeeds().isEmpty());
+
+		clearErrorsCount();
+		setResumeFromCheckpoint(true);
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(uninterrupted, getErrorsCount());
+		Assert.assertTrue(getStartedSeeds() < analyzedSeeds);
+		Assert.assertTrue(ScanCheckpoint.load(directory).isComplete());
+
+		// Resuming from the complete checkpoint restores all seeds.
+		clearErrorsCount();
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(uninterrupted, getErrorsCount());
+		Assert.assertEquals(0, getStartedSeeds());
+	}
+
+	@Test
+	public void restoredSeedsReportSameResultsAsAnalyzedSeeds() throws IOException {
+		MavenProject mavenProject = createAndCompile(new File("../CryptoAnalysisTargets/CogniCryptDemoExample").getAbsolutePath());
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> analyzedErrors = getErrorsCount();
+		Multiset<String> analyzedPredicates = getEnsuredPredicates();
+		Assert.assertFalse(analyzedPredicates.isEmpty());
+
+		File directory = temporaryFolder.newFolder();
+		setCheckpointDirectory(directory);
+		clearErrorsCount();
+		createScanner(mavenProject).exec();
+		Assert.assertTrue(ScanCheckpoint.load(directory).isComplete());
+
+		// Each seed is restored from the summary of its results in the checkpoint.
+		clearErrorsCount();
+		setResumeFromCheckpoint(true);
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(0, getStartedSeeds());
+		Assert.assertEquals(analyzedErrors, getErrorsCount());
+		Assert.assertEquals(analyzedPredicates, getEnsuredPredicates());
+	}
+
+	@Test
+	public void checkpointOfOtherApplicationIsNotResumed() throws IOException {
+		MavenProject mavenProject = createAndCompile(new File("../CryptoAnalysisTargets/CogniCryptDemoExample").getAbsolutePath());
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> uninterrupted = getErrorsCount();
+		int analyzedSeeds = getStartedSeeds();
+
+		File directory = temporaryFolder.newFolder();
+		interruptScan(mavenProject, directory);
+		ScanCheckpoint checkpoint = ScanCheckpoint.load(directory);
+		checkpoint.setFingerprint("other application");
+		checkpoint.save(directory);
+
+		clearErrorsCount();
+		setResumeFromCheckpoint(true);
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(uninterrupted, getErrorsCount());
+		Assert.assertEquals(analyzedSeeds, getStartedSeeds());
+	}
+
+	@Test
+	public void parallelScanRecordsErrorsOfEachSeed() throws IOException {
+		MavenProject mavenProject = createAndCompile(new File("../CryptoAnalysisTargets/CogniCryptDemoExample").getAbsolutePath());
+		File directory = temporaryFolder.newFolder();
+		setNumberOfThreads(4);
+		setCheckpointDirectory(directory);
+		createScanner(mavenProject).exec();
+		Table<String, Class<?>, Integer> analyzed = getErrorsCount();
+		Assert.assertTrue(ScanCheckpoint.load(directory).isComplete());
+
+		// Each restored seed replays exactly the errors recorded for it, although the seeds ran concurrently.
+		clearErrorsCount();
+		setResumeFromCheckpoint(true);
+		createScanner(mavenProject).exec();
+		Assert.assertEquals(analyzed, getErrorsCount());
+		Assert.assertEquals(0, getStartedSeeds());
+	}
+
+	private void interruptScan(MavenProject mavenProject, File directory) {
+		setCheckpointDirectory(directory);
+		setInterruptAfterSeeds(INTERRUPT_AFTER_SEEDS);
+		try {
+			createScanner(mavenProject).exec();
+			Assert.fail("Scan was not interrupted");
+		} catch (RuntimeException e) {
+			if (!(Throwables.getRootCause(e) instanceof ScanInterruptedException)) {
+				throw e;
+			}
+		}
+		setInterruptAfterSeeds(0);
+	}
+
+	@After
+	public void tearDown() {
+		setCheckpointDirectory(null);
+		setResumeFromCheckpoint(false);
+		setInterruptAfterSeeds(0);
+		setNumberOfThreads(1);
+	}
+}
@@ -0,0 +1,44 @@
+package tests.headless;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import crypto.HeadlessCryptoScanner;
+
+public class SeedBudgetTest extends AbstractHeadlessTest {
+
+	@Test
+	public void abandonedSeedsAreReported() {
+		String mavenProjectPath = new File("../CryptoAnalysisTargets/CogniCryptDemoExample").getAbsolutePath();
+		MavenProject mavenProject = createAndCompile(mavenProjectPath);
+		setSeedPropagationLimit(1);
+		HeadlessCryptoScanner scanner = createScanner(mavenProject);
+		scanner.exec();
+
+		// Each seed is abandoned and reported, but the scan continues with the next seed.
+		Assert.assertTrue(getStartedSeeds() > 1);
+		Assert.assertEquals(getStartedSeeds(), getSeedTimeouts());
+	}
+
+	@Test
+	public void passedDeadlineProducesPartialReport() {
+		String mavenProjectPath = new File("../CryptoAnalysisTargets/CogniCryptDemoExample").getAbsolutePath();
+		MavenProject mavenProject = createAndCompile(mavenProjectPath);
+		// The deadline passes while the call graph is constructed, before any seed is analyzed.
+		setScanTimeout(1);
+		HeadlessCryptoScanner scanner = createScanner(mavenProject);
+		scanner.exec();
+
+		Assert.assertEquals(0, getStartedSeeds());
+		Assert.assertTrue(getUnprocessedSeeds() > 0);
+	}
+
+	@After
+	public void tearDown() {
+		setSeedPropagationLimit(0);
+		setScanTimeout(0);
+	}
+}
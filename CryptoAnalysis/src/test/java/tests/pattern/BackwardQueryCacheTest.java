@@ -0,0 +1,104 @@
+package tests.pattern;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.KeyGenerator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.cache.CacheStats;
+
+import crypto.analysis.CrySLRulesetSelector.Ruleset;
+import crypto.analysis.CryptoScanner;
+import crypto.extractparameter.BackwardQueryCache;
+import test.UsagePatternTestingFramework;
+import test.assertions.Assertions;
+
+public class BackwardQueryCacheTest extends UsagePatternTestingFramework {
+
+	@Override
+	protected Ruleset getRuleSet() {
+		return Ruleset.JavaCryptographicArchitecture;
+	}
+
+	@Override
+	protected long backwardQueryCacheSize() {
+		return 1;
+	}
+
+	/**
+	 * The statistics of the backward query cache after the scan of the test method. The framework only
+	 * analyzes the body of a test method and never executes it, hence, each test method declares the
+	 * statistics it expects and they are compared once the scan finished.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	private @interface ExpectedCacheStats {
+		long misses();
+
+		long hits();
+
+		long evictions();
+	}
+
+	@Override
+	protected void scanFinished(CryptoScanner scanner) {
+		ExpectedCacheStats expected;
+		try {
+			expected = getClass().getMethod(sootTestMethod.getName()).getAnnotation(ExpectedCacheStats.class);
+		} catch (NoSuchMethodException e) {
+			throw new AssertionError("No test method " + sootTestMethod.getName(), e);
+		}
+		Assert.assertNotNull("Test method does not declare the expected cache statistics", expected);
+		BackwardQueryCache cache = scanner.getBackwardQueryCache();
+		CacheStats stats = cache.stats();
+		Assert.assertTrue(cache.size() <= 1);
+		Assert.assertEquals(expected.misses(), stats.missCount());
+		Assert.assertEquals(expected.hits(), stats.hitCount());
+		Assert.assertEquals(expected.evictions(), stats.evictionCount());
+	}
+
+	/**
+	 * Both key generators query the key size at the same statement of init.
+	 */
+	@Test
+	@ExpectedCacheStats(misses = 1, hits = 1, evictions = 0)
+	public void sharedQueryIsSolvedOnce() throws GeneralSecurityException {
+		int keySize = 128;
+		KeyGenerator first = KeyGenerator.getInstance("AES");
+		init(first, keySize);
+		first.generateKey();
+		KeyGenerator second = KeyGenerator.getInstance("AES");
+		init(second, keySize);
+		second.generateKey();
+	}
+
+	/**
+	 * The key sizes are queried at two statements, the result of the first query is evicted by the second.
+	 */
+	@Test
+	@ExpectedCacheStats(misses = 2, hits = 0, evictions = 1)
+	public void leastRecentlyUsedResultIsEvicted() throws GeneralSecurityException {
+		KeyGenerator first = KeyGenerator.getInstance("AES");
+		init(first, 128);
+		first.generateKey();
+		KeyGenerator second = KeyGenerator.getInstance("AES");
+		second.init(getKeySize());
+		Assertions.extValue(0);
+		second.generateKey();
+	}
+
+	private static void init(KeyGenerator keyGenerator, int keySize) {
+		keyGenerator.init(keySize);
+		Assertions.extValue(0);
+	}
+
+	private static int getKeySize() {
+		return 256;
+	}
+}
@@ -0,0 +1,93 @@
+package tests.pattern;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import crypto.analysis.CrySLRulesetSelector.Ruleset;
+import crypto.analysis.CryptoScanner;
+import crypto.extractparameter.BackwardQueryCache;
+import test.UsagePatternTestingFramework;
+import test.assertions.Assertions;
+
+/**
+ * Checks that the values of the parameters of a seed are extracted when all its queries are solved by the
+ * solver of one batch, as {@link ExtractValueTest} checks for queries solved by separate solvers. Each
+ * seed solves several queries, hence fewer solvers than queries are created.
+ */
+public class BatchedBackwardQueryTest extends UsagePatternTestingFramework {
+
+	@Override
+	protected Ruleset getRuleSet() {
+		return Ruleset.JavaCryptographicArchitecture;
+	}
+
+	@Override
+	protected boolean batchBackwardQueries() {
+		return true;
+	}
+
+	@Override
+	protected void scanFinished(CryptoScanner scanner) {
+		BackwardQueryCache cache = scanner.getBackwardQueryCache();
+		long solved = cache.stats().missCount();
+		Assert.assertTrue(solved > 1);
+		Assert.assertTrue("Expected fewer solvers than the " + solved + " solved queries, but " + cache.solverCount() + " were created",
+				cache.solverCount() < solved);
+	}
+
+	@Test
+	public void queriesOfSeedShareSolver() {
+		char[] password = getPassword();
+		byte[] salt = getSalt();
+		PBEKeySpec pbekeyspec = new PBEKeySpec(password, salt, getIterationCount(), getKeyLength());
+		Assertions.extValue(0);
+		Assertions.extValue(1);
+		Assertions.extValue(2);
+		Assertions.extValue(3);
+		pbekeyspec.clearPassword();
+	}
+
+	@Test
+	public void queriesOfSeveralSeeds() throws GeneralSecurityException {
+		KeyGenerator first = KeyGenerator.getInstance(getAES());
+		Assertions.extValue(0);
+		first.init(getKeyLength());
+		Assertions.extValue(0);
+		first.generateKey();
+		KeyGenerator second = KeyGenerator.getInstance(getAES());
+		Assertions.extValue(0);
+		second.init(getKeyLength());
+		Assertions.extValue(0);
+		second.generateKey();
+	}
+
+	private char[] getPassword() {
+		char[] password = new char[] { 'p' };
+		return password;
+	}
+
+	private byte[] getSalt() {
+		byte[] salt = new byte[16];
+		return salt;
+	}
+
+	private int getIterationCount() {
+		int iterationCount = 65000;
+		return iterationCount;
+	}
+
+	private int getKeyLength() {
+		int keyLength = 128;
+		return keyLength;
+	}
+
+	private String getAES() {
+		String var = "AES";
+		return var;
+	}
+}
@@ -0,0 +1,55 @@
+package tests.pattern;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import org.junit.Test;
+
+import crypto.analysis.CrySLRulesetSelector.Ruleset;
+import test.UsagePatternTestingFramework;
+import test.assertions.Assertions;
+
+/**
+ * Checks the constraints on a variable whose values are extracted at several call sites of the same object.
+ */
+public class ConstraintValuesTest extends UsagePatternTestingFramework {
+
+	@Override
+	protected Ruleset getRuleSet() {
+		return Ruleset.JavaCryptographicArchitecture;
+	}
+
+	@Test
+	public void valuesOfAllCallSitesSatisfyConstraint() throws GeneralSecurityException {
+		KeyGenerator keygen = KeyGenerator.getInstance("AES");
+		if (System.nanoTime() > 0) {
+			keygen.init(128);
+			Assertions.extValue(0);
+		} else {
+			keygen.init(256);
+			Assertions.extValue(0);
+		}
+		SecretKey key = keygen.generateKey();
+		Assertions.constraintErrors(0);
+		Assertions.mustBeInAcceptingState(keygen);
+		Assertions.hasEnsuredPredicate(key);
+	}
+
+	@Test
+	public void valueOfOneCallSiteViolatesConstraint() throws GeneralSecurityException {
+		KeyGenerator keygen = KeyGenerator.getInstance("AES");
+		if (System.nanoTime() > 0) {
+			keygen.init(128);
+			Assertions.extValue(0);
+		} else {
+			keygen.init(46);
+			Assertions.extValue(0);
+		}
+		SecretKey key = keygen.generateKey();
+		Assertions.constraintErrors(1);
+		Assertions.mustBeInAcceptingState(keygen);
+		Assertions.notHasEnsuredPredicate(key);
+	}
+}
@@ -0,0 +1,108 @@
+package tests.pattern;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.KeyGenerator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import crypto.analysis.CrySLRulesetSelector.Ruleset;
+import crypto.analysis.CryptoScanner;
+import test.UsagePatternTestingFramework;
+import test.assertions.Assertions;
+
+/**
+ * Checks which parameter values are resolved within their method and which require a backward query. The
+ * algorithm of the key generators is always a constant of the test method, only the key size varies.
+ */
+public class LocalValueResolutionTest extends UsagePatternTestingFramework {
+
+	/**
+	 * Whether all values of the test method are resolved without a backward query. The framework only
+	 * analyzes the body of a test method and never executes it, hence, the queries are counted once the scan
+	 * finished.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	private @interface ResolvedLocally {
+		boolean value();
+	}
+
+	private int keySize = 128;
+
+	@Override
+	protected Ruleset getRuleSet() {
+		return Ruleset.JavaCryptographicArchitecture;
+	}
+
+	@Override
+	protected void scanFinished(CryptoScanner scanner) {
+		ResolvedLocally expected;
+		try {
+			expected = getClass().getMethod(sootTestMethod.getName()).getAnnotation(ResolvedLocally.class);
+		} catch (NoSuchMethodException e) {
+			throw new AssertionError("No test method " + sootTestMethod.getName(), e);
+		}
+		Assert.assertNotNull("Test method does not declare whether its values are resolved locally", expected);
+		long queries = scanner.getBackwardQueryCache().stats().requestCount();
+		if (expected.value()) {
+			Assert.assertEquals(0, queries);
+		} else {
+			Assert.assertTrue(queries > 0);
+		}
+	}
+
+	@Test
+	@ResolvedLocally(true)
+	public void sameMethodConstant() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+		Assertions.extValue(0);
+		int size = 128;
+		int copy = size;
+		keyGenerator.init(copy);
+		Assertions.extValue(0);
+		keyGenerator.generateKey();
+	}
+
+	@Test
+	@ResolvedLocally(false)
+	public void multipleDefinitions() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+		Assertions.extValue(0);
+		int size = 128;
+		if (System.nanoTime() < 0) {
+			size = 256;
+		}
+		keyGenerator.init(size);
+		Assertions.extValue(0);
+		keyGenerator.generateKey();
+	}
+
+	@Test
+	@ResolvedLocally(false)
+	public void fieldValue() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+		Assertions.extValue(0);
+		keyGenerator.init(keySize);
+		keyGenerator.generateKey();
+	}
+
+	@Test
+	@ResolvedLocally(false)
+	public void parameterValue() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+		Assertions.extValue(0);
+		init(keyGenerator, 128);
+		keyGenerator.generateKey();
+	}
+
+	private static void init(KeyGenerator keyGenerator, int size) {
+		keyGenerator.init(size);
+		Assertions.extValue(0);
+	}
+}
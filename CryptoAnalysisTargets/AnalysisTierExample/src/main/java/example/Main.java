@@ -0,0 +1,377 @@
+package example;
+
+import java.security.NoSuchAlgorithmException;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+/**
+ * Selects a key size through a dense graph of aliased holders, such that the backward query for the
+ * key size exceeds the budget of the FAST tier but not that of the PRECISE tier.
+ */
+public class Main {
+
+	private static class Holder {
+		int size;
+	}
+
+	public static void main(String[] args) throws NoSuchAlgorithmException {
+		System.out.println(generate(args.length).getEncoded().length);
+	}
+
+	private static SecretKey generate(int seed) throws NoSuchAlgorithmException {
+		Holder h0 = new Holder();
+		Holder h1 = new Holder();
+		Holder h2 = new Holder();
+		Holder h3 = new Holder();
+		Holder h4 = new Holder();
+		Holder h5 = new Holder();
+		Holder h6 = new Holder();
+		Holder h7 = new Holder();
+		Holder h8 = new Holder();
+		Holder h9 = new Holder();
+		Holder h10 = new Holder();
+		Holder h11 = new Holder();
+		Holder h12 = new Holder();
+		Holder h13 = new Holder();
+		Holder h14 = new Holder();
+		Holder h15 = new Holder();
+		Holder h16 = new Holder();
+		Holder h17 = new Holder();
+		Holder h18 = new Holder();
+		Holder h19 = new Holder();
+		Holder h20 = new Holder();
+		Holder h21 = new Holder();
+		Holder h22 = new Holder();
+		Holder h23 = new Holder();
+		for (int i = seed; i < 320; i++) {
+			switch (i % 80) {
+			case 0:
+				h10 = h4;
+				h12.size = 256;
+				break;
+			case 1:
+				h1 = h2;
+				h17.size = 128;
+				break;
+			case 2:
+				h11 = h18;
+				h1.size = 256;
+				break;
+			case 3:
+				h6 = h1;
+				h2.size = 192;
+				break;
+			case 4:
+				h13 = h2;
+				h7.size = 128;
+				break;
+			case 5:
+				h17 = h13;
+				h1.size = 256;
+				break;
+			case 6:
+				h3 = h7;
+				h20.size = 256;
+				break;
+			case 7:
+				h18 = h1;
+				h12.size = 128;
+				break;
+			case 8:
+				h7 = h1;
+				h17.size = 128;
+				break;
+			case 9:
+				h9 = h13;
+				h4.size = 256;
+				break;
+			case 10:
+				h3 = h18;
+				h9.size = 256;
+				break;
+			case 11:
+				h21 = h5;
+				h3.size = 256;
+				break;
+			case 12:
+				h18 = h20;
+				h6.size = 192;
+				break;
+			case 13:
+				h3 = h17;
+				h22.size = 128;
+				break;
+			case 14:
+				h18 = h1;
+				h19.size = 128;
+				break;
+			case 15:
+				h15 = h21;
+				h17.size = 192;
+				break;
+			case 16:
+				h10 = h14;
+				h18.size = 192;
+				break;
+			case 17:
+				h11 = h9;
+				h7.size = 128;
+				break;
+			case 18:
+				h22 = h7;
+				h2.size = 256;
+				break;
+			case 19:
+				h9 = h16;
+				h15.size = 192;
+				break;
+			case 20:
+				h23 = h14;
+				h9.size = 256;
+				break;
+			case 21:
+				h2 = h3;
+				h16.size = 192;
+				break;
+			case 22:
+				h5 = h10;
+				h4.size = 192;
+				break;
+			case 23:
+				h13 = h1;
+				h21.size = 128;
+				break;
+			case 24:
+				h17 = h18;
+				h10.size = 192;
+				break;
+			case 25:
+				h22 = h11;
+				h19.size = 192;
+				break;
+			case 26:
+				h18 = h14;
+				h2.size = 128;
+				break;
+			case 27:
+				h8 = h15;
+				h22.size = 256;
+				break;
+			case 28:
+				h2 = h1;
+				h23.size = 256;
+				break;
+			case 29:
+				h9 = h20;
+				h18.size = 256;
+				break;
+			case 30:
+				h14 = h9;
+				h22.size = 192;
+				break;
+			case 31:
+				h21 = h11;
+				h0.size = 192;
+				break;
+			case 32:
+				h11 = h5;
+				h19.size = 128;
+				break;
+			case 33:
+				h15 = h1;
+				h6.size = 192;
+				break;
+			case 34:
+				h4 = h23;
+				h7.size = 192;
+				break;
+			case 35:
+				h12 = h15;
+				h2.size = 128;
+				break;
+			case 36:
+				h14 = h12;
+				h17.size = 192;
+				break;
+			case 37:
+				h4 = h13;
+				h17.size = 192;
+				break;
+			case 38:
+				h22 = h13;
+				h11.size = 256;
+				break;
+			case 39:
+				h12 = h7;
+				h4.size = 128;
+				break;
+			case 40:
+				h5 = h4;
+				h7.size = 256;
+				break;
+			case 41:
+				h7 = h0;
+				h15.size = 256;
+				break;
+			case 42:
+				h5 = h8;
+				h9.size = 128;
+				break;
+			case 43:
+				h4 = h13;
+				h17.size = 192;
+				break;
+			case 44:
+				h19 = h18;
+				h10.size = 128;
+				break;
+			case 45:
+				h22 = h16;
+				h19.size = 256;
+				break;
+			case 46:
+				h21 = h23;
+				h1.size = 192;
+				break;
+			case 47:
+				h21 = h17;
+				h12.size = 192;
+				break;
+			case 48:
+				h12 = h3;
+				h15.size = 256;
+				break;
+			case 49:
+				h12 = h1;
+				h6.size = 128;
+				break;
+			case 50:
+				h6 = h14;
+				h5.size = 128;
+				break;
+			case 51:
+				h10 = h19;
+				h1.size = 128;
+				break;
+			case 52:
+				h0 = h18;
+				h4.size = 256;
+				break;
+			case 53:
+				h3 = h11;
+				h19.size = 128;
+				break;
+			case 54:
+				h2 = h6;
+				h19.size = 192;
+				break;
+			case 55:
+				h4 = h20;
+				h8.size = 192;
+				break;
+			case 56:
+				h19 = h11;
+				h15.size = 128;
+				break;
+			case 57:
+				h3 = h15;
+				h14.size = 192;
+				break;
+			case 58:
+				h15 = h9;
+				h2.size = 128;
+				break;
+			case 59:
+				h3 = h23;
+				h10.size = 256;
+				break;
+			case 60:
+				h8 = h15;
+				h22.size = 128;
+				break;
+			case 61:
+				h16 = h0;
+				h6.size = 256;
+				break;
+			case 62:
+				h11 = h4;
+				h22.size = 256;
+				break;
+			case 63:
+				h0 = h16;
+				h9.size = 256;
+				break;
+			case 64:
+				h2 = h22;
+				h8.size = 256;
+				break;
+			case 65:
+				h11 = h5;
+				h7.size = 256;
+				break;
+			case 66:
+				h17 = h16;
+				h10.size = 256;
+				break;
+			case 67:
+				h7 = h19;
+				h6.size = 128;
+				break;
+			case 68:
+				h12 = h23;
+				h7.size = 128;
+				break;
+			case 69:
+				h16 = h15;
+				h11.size = 256;
+				break;
+			case 70:
+				h0 = h8;
+				h15.size = 192;
+				break;
+			case 71:
+				h6 = h22;
+				h19.size = 192;
+				break;
+			case 72:
+				h14 = h23;
+				h11.size = 192;
+				break;
+			case 73:
+				h2 = h7;
+				h3.size = 128;
+				break;
+			case 74:
+				h15 = h6;
+				h10.size = 128;
+				break;
+			case 75:
+				h15 = h19;
+				h0.size = 192;
+				break;
+			case 76:
+				h20 = h11;
+				h2.size = 256;
+				break;
+			case 77:
+				h3 = h12;
+				h22.size = 128;
+				break;
+			case 78:
+				h15 = h5;
+				h13.size = 256;
+				break;
+			case 79:
+				h10 = h2;
+				h23.size = 192;
+				break;
+			default:
+				break;
+			}
+		}
+		KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+		keyGenerator.init(h0.size);
+		return keyGenerator.generateKey();
+	}
+}